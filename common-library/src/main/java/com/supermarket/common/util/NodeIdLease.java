@@ -0,0 +1,126 @@
+package com.supermarket.common.util;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leases a {@link UniqueIdGenerator} node id from the service's database, so instances that are
+ * not given an explicit {@code supermarket.id.node-id} still get distinct ids. A lease row is
+ * taken only when it is free or expired by the database clock, and it is renewed in the
+ * background at a third of its lifetime. If a renewal fails or the row has been taken over,
+ * {@link #isValid()} turns false once the local copy of the lease runs out and the generator
+ * stops issuing ids rather than risk duplicates.
+ */
+@Slf4j
+public class NodeIdLease {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final String owner;
+    private final ScheduledExecutorService renewer;
+    private volatile long nodeId = -1;
+    private volatile long validUntilNanos;
+
+    public NodeIdLease(JdbcTemplate jdbcTemplate,
+                       @Value("${supermarket.id.lease-ttl:PT1M}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.owner = describeProcess() + "/" + UUID.randomUUID();
+        this.renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "node-id-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Claims a free node id between 0 and {@code maxNode}, starting at a random one to avoid
+     * instances racing for the same row.
+     */
+    public synchronized long acquire(long maxNode) {
+        if (nodeId >= 0) {
+            return nodeId;
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS id_node_leases (" +
+                "node_id integer PRIMARY KEY, owner varchar(255) NOT NULL, expires_at timestamp NOT NULL)");
+
+        long start = ThreadLocalRandom.current().nextLong(maxNode + 1);
+        for (long i = 0; i <= maxNode; i++) {
+            long candidate = (start + i) % (maxNode + 1);
+            long requestedAt = System.nanoTime();
+            int claimed = jdbcTemplate.update(
+                    "INSERT INTO id_node_leases (node_id, owner, expires_at) " +
+                    "VALUES (?, ?, now() + make_interval(secs => ?)) " +
+                    "ON CONFLICT (node_id) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at " +
+                    "WHERE id_node_leases.expires_at < now()",
+                    candidate, owner, ttl.toSeconds());
+            if (claimed == 1) {
+                nodeId = candidate;
+                validUntilNanos = requestedAt + ttl.toNanos();
+                long period = Math.max(1, ttl.toMillis() / 3);
+                renewer.scheduleWithFixedDelay(this::renew, period, period, TimeUnit.MILLISECONDS);
+                log.info("Leased id node {} as {}", candidate, owner);
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("No free id node lease; all " + (maxNode + 1) + " node ids are in use");
+    }
+
+    public boolean isValid() {
+        return nodeId >= 0 && System.nanoTime() - validUntilNanos < 0;
+    }
+
+    private void renew() {
+        long requestedAt = System.nanoTime();
+        try {
+            int renewed = jdbcTemplate.update(
+                    "UPDATE id_node_leases SET expires_at = now() + make_interval(secs => ?) " +
+                    "WHERE node_id = ? AND owner = ?",
+                    ttl.toSeconds(), nodeId, owner);
+            if (renewed == 1) {
+                validUntilNanos = requestedAt + ttl.toNanos();
+            } else {
+                // Taken over after our lease expired; stop issuing ids immediately
+                validUntilNanos = requestedAt;
+                log.error("Id node lease {} was lost", nodeId);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to renew id node lease {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        renewer.shutdownNow();
+        if (nodeId < 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("DELETE FROM id_node_leases WHERE node_id = ? AND owner = ?", nodeId, owner);
+        } catch (DataAccessException e) {
+            log.warn("Failed to release id node lease {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private static String describeProcess() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "localhost";
+        }
+        return host + "/" + ManagementFactory.getRuntimeMXBean().getName();
+    }
+}
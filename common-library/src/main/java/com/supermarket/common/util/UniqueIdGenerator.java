@@ -0,0 +1,141 @@
+package com.supermarket.common.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates time-ordered, node-unique identifiers without a database round trip.
+ *
+ * <p>Each id is a 63-bit value: 41 bits of milliseconds since 2024-01-01, 10 bits of node id and
+ * 12 bits of per-millisecond sequence, i.e. up to 4096 ids per millisecond per node for about
+ * 69 years. It is rendered as 13 Crockford base32 characters, so ids sort in creation order and
+ * avoid the easily confused letters I, L, O and U.
+ *
+ * <p>Nodes must have distinct node ids (0-1023) to guarantee uniqueness. Either set
+ * {@code supermarket.id.node-id} explicitly per instance, or leave it at -1 to lease a free node
+ * id from the service's database through {@link NodeIdLease}; ids are refused once a lease can
+ * no longer be renewed.
+ *
+ * <p>Register it in a service with {@code @Import({UniqueIdGenerator.class, NodeIdLease.class})}.
+ */
+public class UniqueIdGenerator {
+
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    private final long node;
+    private final NodeIdLease lease;
+    private final LongSupplier clock;
+
+    /** Packed (timestamp << SEQUENCE_BITS | sequence) of the last issued id. */
+    private final AtomicLong state = new AtomicLong();
+
+    public UniqueIdGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    /** With a stand-in for the wall clock, in epoch milliseconds, for tests. */
+    UniqueIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE);
+        }
+        this.node = nodeId;
+        this.lease = null;
+        this.clock = clock;
+    }
+
+    @Autowired
+    public UniqueIdGenerator(@Value("${supermarket.id.node-id:-1}") long nodeId, NodeIdLease lease) {
+        if (nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE);
+        }
+        if (nodeId >= 0) {
+            this.node = nodeId;
+            this.lease = null;
+        } else {
+            this.node = lease.acquire(MAX_NODE);
+            this.lease = lease;
+        }
+        this.clock = System::currentTimeMillis;
+    }
+
+    public long nextId() {
+        if (lease != null && !lease.isValid()) {
+            throw new IllegalStateException("Id node lease " + node + " has expired");
+        }
+        long now = clock.getAsLong() - EPOCH;
+        while (true) {
+            long last = state.get();
+            long lastTime = last >>> SEQUENCE_BITS;
+            long next;
+            if (now > lastTime) {
+                next = now << SEQUENCE_BITS;
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                // Same millisecond, or the clock stepped back: keep counting from the last timestamp
+                next = last + 1;
+            } else {
+                // Sequence exhausted: borrow the next millisecond instead of blocking
+                next = (lastTime + 1) << SEQUENCE_BITS;
+            }
+            if (state.compareAndSet(last, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Returns a new id encoded as {@code PREFIX-XXXXXXXXXXXXX}.
+     */
+    public String next(String prefix) {
+        return prefix + "-" + encode(nextId());
+    }
+
+    public long getNodeId() {
+        return node;
+    }
+
+    public static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static long decode(String encoded) {
+        long id = 0;
+        for (int i = 0; i < encoded.length(); i++) {
+            char c = Character.toUpperCase(encoded.charAt(i));
+            int value = indexOf(c);
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid id character: " + c);
+            }
+            id = (id << 5) | value;
+        }
+        return id;
+    }
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH);
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,161 @@
+package com.supermarket.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UniqueIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 250_000;
+    private static final long START = Instant.parse("2025-06-01T00:00:00Z").toEpochMilli();
+
+    @Test
+    void concurrentIdsAreDistinctAndIncreasePerThread() throws Exception {
+        UniqueIdGenerator generator = new UniqueIdGenerator(7);
+
+        long[][] perThread = generateConcurrently(List.of(generator));
+
+        for (long[] ids : perThread) {
+            assertStrictlyIncreasing(ids);
+            for (long id : ids) {
+                assertThat((id >>> 12) & 1023).isEqualTo(7);
+            }
+        }
+        assertDistinct(perThread);
+    }
+
+    @Test
+    void nodesNeverCollide() throws Exception {
+        // Same fixed millisecond on both nodes, so only the node bits keep them apart
+        UniqueIdGenerator first = new UniqueIdGenerator(1, () -> START);
+        UniqueIdGenerator second = new UniqueIdGenerator(2, () -> START);
+
+        assertDistinct(generateConcurrently(List.of(first, second)));
+    }
+
+    @Test
+    void exhaustedSequenceBorrowsTheNextMillisecond() {
+        UniqueIdGenerator generator = new UniqueIdGenerator(3, () -> START);
+
+        long[] ids = new long[4096 * 3];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = generator.nextId();
+        }
+
+        assertStrictlyIncreasing(ids);
+        assertThat(UniqueIdGenerator.timestampOf(ids[4095])).isEqualTo(Instant.ofEpochMilli(START));
+        assertThat(UniqueIdGenerator.timestampOf(ids[4096])).isEqualTo(Instant.ofEpochMilli(START + 1));
+        assertThat(UniqueIdGenerator.timestampOf(ids[ids.length - 1])).isEqualTo(Instant.ofEpochMilli(START + 2));
+    }
+
+    @Test
+    void clockStepBackNeverIssuesSmallerIds() {
+        AtomicLong clock = new AtomicLong(START);
+        UniqueIdGenerator generator = new UniqueIdGenerator(4, clock::get);
+
+        long beforeStep = generator.nextId();
+        clock.set(START - 5_000);
+        long[] afterStep = new long[10_000];
+        for (int i = 0; i < afterStep.length; i++) {
+            afterStep[i] = generator.nextId();
+        }
+        clock.set(START + 10_000);
+        long afterCatchUp = generator.nextId();
+
+        assertThat(afterStep[0]).isGreaterThan(beforeStep);
+        assertStrictlyIncreasing(afterStep);
+        assertThat(afterCatchUp).isGreaterThan(afterStep[afterStep.length - 1]);
+        assertThat(UniqueIdGenerator.timestampOf(afterCatchUp)).isEqualTo(Instant.ofEpochMilli(START + 10_000));
+    }
+
+    @Test
+    void encodingSortsLikeTheIdsAndRoundTrips() {
+        UniqueIdGenerator generator = new UniqueIdGenerator(5);
+        String previous = "";
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            String encoded = UniqueIdGenerator.encode(id);
+            assertThat(encoded).hasSize(13).isGreaterThan(previous);
+            assertThat(UniqueIdGenerator.decode(encoded.toLowerCase())).isEqualTo(id);
+            previous = encoded;
+        }
+        assertThat(generator.next("ORD")).matches("ORD-[0-9A-HJKMNP-TV-Z]{13}");
+    }
+
+    @Test
+    void refusesIdsOnceTheLeaseIsLost() {
+        NodeIdLease lease = mock(NodeIdLease.class);
+        when(lease.acquire(anyLong())).thenReturn(9L);
+        when(lease.isValid()).thenReturn(true, false);
+        UniqueIdGenerator generator = new UniqueIdGenerator(-1, lease);
+
+        assertThat(generator.getNodeId()).isEqualTo(9);
+        generator.nextId();
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThatThrownBy(() -> new UniqueIdGenerator(1024)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new UniqueIdGenerator(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /** Runs THREADS threads spread over the generators, all released at once; ids per thread in issue order. */
+    private static long[][] generateConcurrently(List<UniqueIdGenerator> generators) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                UniqueIdGenerator generator = generators.get(t % generators.size());
+                Callable<long[]> task = () -> {
+                    long[] ids = new long[IDS_PER_THREAD];
+                    start.await();
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                };
+                futures.add(pool.submit(task));
+            }
+            start.countDown();
+            long[][] result = new long[THREADS][];
+            for (int t = 0; t < THREADS; t++) {
+                result[t] = futures.get(t).get();
+            }
+            return result;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void assertStrictlyIncreasing(long[] ids) {
+        for (int i = 1; i < ids.length; i++) {
+            assertThat(ids[i]).as("id %d", i).isGreaterThan(ids[i - 1]);
+        }
+    }
+
+    private static void assertDistinct(long[][] perThread) {
+        long[] all = Arrays.stream(perThread).flatMapToLong(Arrays::stream).sorted().toArray();
+        for (int i = 1; i < all.length; i++) {
+            assertThat(all[i]).as("duplicate id").isNotEqualTo(all[i - 1]);
+        }
+        assertThat(all).hasSize(THREADS * IDS_PER_THREAD);
+    }
+}
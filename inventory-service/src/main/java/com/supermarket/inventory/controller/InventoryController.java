@@ -51,6 +51,15 @@ public class InventoryController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Inventory retrieved successfully", response, null));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<InventoryResponse>>> getInventoryByProducts(
+            @RequestBody List<Long> productIds,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        List<InventoryResponse> inventory = inventoryService.getInventoryByProductIds(productIds, tenantId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Inventory retrieved successfully", inventory, null));
+    }
+
     @GetMapping
     public ResponseEntity<ApiResponse<List<InventoryResponse>>> getAllInventory(
             @RequestHeader("X-Tenant-ID") String tenantId) {
@@ -88,7 +97,12 @@ public class InventoryController {
         Long productId = Long.valueOf(request.get("productId").toString());
         Integer quantity = Integer.valueOf(request.get("quantity").toString());
         
-        inventoryService.reserveStock(productId, quantity, tenantId);
+        Object reservationKey = request.get("reservationKey");
+        if (reservationKey != null) {
+            inventoryService.reserveStock(productId, quantity, reservationKey.toString(), tenantId);
+        } else {
+            inventoryService.reserveStock(productId, quantity, tenantId);
+        }
         
         return ResponseEntity.ok(new ApiResponse<>(true, "Stock reserved successfully", "Reserved", null));
     }
@@ -101,7 +115,12 @@ public class InventoryController {
         Long productId = Long.valueOf(request.get("productId").toString());
         Integer quantity = Integer.valueOf(request.get("quantity").toString());
         
-        inventoryService.releaseStock(productId, quantity, tenantId);
+        Object reservationKey = request.get("reservationKey");
+        if (reservationKey != null) {
+            inventoryService.releaseStock(productId, quantity, reservationKey.toString(), tenantId);
+        } else {
+            inventoryService.releaseStock(productId, quantity, tenantId);
+        }
         
         return ResponseEntity.ok(new ApiResponse<>(true, "Stock released successfully", "Released", null));
     }
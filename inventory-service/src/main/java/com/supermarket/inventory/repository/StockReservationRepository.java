@@ -0,0 +1,13 @@
+package com.supermarket.inventory.repository;
+
+import com.supermarket.inventory.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    Optional<StockReservation> findByTenantIdAndReservationKey(String tenantId, String reservationKey);
+}
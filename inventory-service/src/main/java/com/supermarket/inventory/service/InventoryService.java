@@ -3,7 +3,9 @@ package com.supermarket.inventory.service;
 import com.supermarket.inventory.dto.InventoryRequest;
 import com.supermarket.inventory.dto.InventoryResponse;
 import com.supermarket.inventory.entity.Inventory;
+import com.supermarket.inventory.entity.StockReservation;
 import com.supermarket.inventory.repository.InventoryRepository;
+import com.supermarket.inventory.repository.StockReservationRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,9 +18,12 @@ import java.util.stream.Collectors;
 public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
+    private final StockReservationRepository reservationRepository;
 
-    public InventoryService(InventoryRepository inventoryRepository) {
+    public InventoryService(InventoryRepository inventoryRepository,
+                            StockReservationRepository reservationRepository) {
         this.inventoryRepository = inventoryRepository;
+        this.reservationRepository = reservationRepository;
     }
 
     public InventoryResponse createInventory(InventoryRequest request, String tenantId) {
@@ -115,6 +120,44 @@ public class InventoryService {
         inventoryRepository.save(inventory);
     }
 
+    /**
+     * Reserves stock under a caller-chosen key. Repeating the call with the same key has no further
+     * effect, and a key that was already released is never reserved again.
+     */
+    public void reserveStock(Long productId, Integer quantity, String reservationKey, String tenantId) {
+        StockReservation existing = reservationRepository.findByTenantIdAndReservationKey(tenantId, reservationKey)
+                .orElse(null);
+        if (existing != null) {
+            if (StockReservation.RELEASED.equals(existing.getStatus())) {
+                throw new RuntimeException("Reservation " + reservationKey + " was already released");
+            }
+            return;
+        }
+
+        reserveStock(productId, quantity, tenantId);
+        reservationRepository.save(reservation(productId, quantity, reservationKey, tenantId, StockReservation.RESERVED));
+    }
+
+    /**
+     * Releases the stock held under the key, if any. Safe to repeat, and safe to call for a reserve
+     * whose outcome is unknown: the key is marked released so a reserve arriving later is refused.
+     */
+    public void releaseStock(Long productId, Integer quantity, String reservationKey, String tenantId) {
+        StockReservation existing = reservationRepository.findByTenantIdAndReservationKey(tenantId, reservationKey)
+                .orElse(null);
+        if (existing == null) {
+            reservationRepository.save(reservation(productId, quantity, reservationKey, tenantId, StockReservation.RELEASED));
+            return;
+        }
+        if (StockReservation.RELEASED.equals(existing.getStatus())) {
+            return;
+        }
+
+        releaseStock(existing.getProductId(), existing.getQuantity(), tenantId);
+        existing.setStatus(StockReservation.RELEASED);
+        reservationRepository.save(existing);
+    }
+
     public void releaseStock(Long productId, Integer quantity, String tenantId) {
         Inventory inventory = inventoryRepository.findByProductIdAndTenantId(productId, tenantId)
                 .orElseThrow(() -> new RuntimeException("Inventory not found"));
@@ -146,6 +189,17 @@ public class InventoryService {
         inventoryRepository.save(inventory);
     }
 
+    private StockReservation reservation(Long productId, Integer quantity, String reservationKey,
+                                         String tenantId, String status) {
+        StockReservation reservation = new StockReservation();
+        reservation.setTenantId(tenantId);
+        reservation.setReservationKey(reservationKey);
+        reservation.setProductId(productId);
+        reservation.setQuantity(quantity);
+        reservation.setStatus(status);
+        return reservation;
+    }
+
     private InventoryResponse mapToResponse(Inventory inventory) {
         InventoryResponse response = new InventoryResponse();
         response.setId(inventory.getId());
@@ -0,0 +1,63 @@
+package com.supermarket.order.pricing;
+
+import com.supermarket.order.dto.OrderItemRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to price one basket, up to the 200 line case, with the tax rates and rounding of the
+ * default configuration. Lines mix the three tax codes and every fourth carries a discount.
+ * Run with {@code -prof gc} to see the allocation per basket as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderTotalsCalculatorBenchmark {
+
+    private static final String[] TAX_CODES = {"STANDARD", "REDUCED", "EXEMPT"};
+
+    @Param({"5", "50", "200"})
+    public int lines;
+
+    private OrderTotalsCalculator calculator;
+    private List<OrderItemRequest> basket;
+
+    @Setup
+    public void setUp() {
+        calculator = new OrderTotalsCalculator(
+                List.of("STANDARD:0.10", "REDUCED:0.05", "EXEMPT:0"), "STANDARD", 2, RoundingMode.HALF_UP);
+        basket = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            OrderItemRequest line = new OrderItemRequest();
+            line.setProductId(1000L + i);
+            line.setQuantity(1 + i % 5);
+            line.setUnitPrice(BigDecimal.valueOf(199 + 37L * i, 2));
+            line.setDiscount(i % 4 == 0 ? new BigDecimal("0.50") : BigDecimal.ZERO);
+            line.setTaxCode(TAX_CODES[i % TAX_CODES.length]);
+            basket.add(line);
+        }
+    }
+
+    @Benchmark
+    public OrderTotals calculate() {
+        return calculator.calculate(basket);
+    }
+}
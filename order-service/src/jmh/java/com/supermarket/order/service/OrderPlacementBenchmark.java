@@ -0,0 +1,109 @@
+package com.supermarket.order.service;
+
+import com.supermarket.order.OrderApplication;
+import com.supermarket.order.dto.OrderItemRequest;
+import com.supermarket.order.dto.OrderRequest;
+import com.supermarket.order.entity.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders persisted per second for 5, 50 and 200 line baskets, alone and with eight threads
+ * placing orders at once. Boots the order service without its web server, Kafka listeners,
+ * discovery or Keycloak, against the PostgreSQL database given by {@code -Dbench.db.url}
+ * (default: the local {@code order_db} from docker-compose). Every call commits a real order,
+ * so point it at a scratch database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderPlacementBenchmark {
+
+    private static final String TENANT = "benchmark";
+
+    @Param({"5", "50", "200"})
+    public int lines;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderRequest request;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(OrderApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + System.getProperty("bench.db.url",
+                                "jdbc:postgresql://localhost:5432/order_db?reWriteBatchedInserts=true"),
+                        "spring.kafka.listener.auto-startup=false",
+                        "order.stream.fan-out=false",
+                        "eureka.client.enabled=false",
+                        "keycloak.enabled=false",
+                        "logging.level.com.supermarket=WARN")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        request = basket(lines);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Order placeOrder() {
+        return orderService.placeOrder(request, TENANT);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Order placeOrderContended() {
+        return orderService.placeOrder(request, TENANT);
+    }
+
+    private static OrderRequest basket(int lines) {
+        List<OrderItemRequest> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId(1000L + i);
+            item.setProductName("Product " + i);
+            item.setProductSku("SKU-" + i);
+            item.setQuantity(1 + i % 5);
+            item.setUnitPrice(BigDecimal.valueOf(199 + 37L * i, 2));
+            item.setDiscount(i % 4 == 0 ? new BigDecimal("0.50") : BigDecimal.ZERO);
+            items.add(item);
+        }
+        OrderRequest request = new OrderRequest();
+        request.setCustomerId(42L);
+        request.setCustomerName("Benchmark Customer");
+        request.setCustomerEmail("benchmark@example.com");
+        request.setShippingAddress("1 Benchmark Way");
+        request.setBillingAddress("1 Benchmark Way");
+        request.setPaymentMethod("CARD");
+        request.setItems(items);
+        return request;
+    }
+}
@@ -0,0 +1,29 @@
+package com.supermarket.order.client;
+
+import com.supermarket.common.dto.ApiResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import java.util.List;
+import java.util.Map;
+
+@FeignClient(name = "inventory-service")
+public interface InventoryClient {
+
+    @PostMapping("/api/inventory/reserve")
+    ApiResponse<String> reserveStock(
+            @RequestBody Map<String, Object> request,
+            @RequestHeader("X-Tenant-ID") String tenantId);
+
+    @PostMapping("/api/inventory/release")
+    ApiResponse<String> releaseStock(
+            @RequestBody Map<String, Object> request,
+            @RequestHeader("X-Tenant-ID") String tenantId);
+
+    @PostMapping("/api/inventory/batch")
+    ApiResponse<List<Map<String, Object>>> getInventoryByProducts(
+            @RequestBody List<Long> productIds,
+            @RequestHeader("X-Tenant-ID") String tenantId);
+}
@@ -0,0 +1,26 @@
+package com.supermarket.order.client;
+
+import com.supermarket.common.dto.ApiResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import java.util.Map;
+
+@FeignClient(name = "payment-service")
+public interface PaymentClient {
+
+    @PostMapping("/api/payments")
+    ApiResponse<Map<String, Object>> processPayment(
+            @RequestBody Map<String, Object> request,
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            @RequestHeader("Idempotency-Key") String idempotencyKey);
+
+    @GetMapping("/api/payments/order/{orderId}")
+    ApiResponse<Map<String, Object>> getPaymentByOrder(
+            @PathVariable("orderId") Long orderId,
+            @RequestHeader("X-Tenant-ID") String tenantId);
+}
@@ -0,0 +1,19 @@
+package com.supermarket.order.client;
+
+import com.supermarket.common.dto.ApiResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import java.util.List;
+import java.util.Map;
+
+@FeignClient(name = "product-service")
+public interface ProductClient {
+
+    @PostMapping("/api/products/batch")
+    ApiResponse<List<Map<String, Object>>> getProductsByIds(
+            @RequestBody List<Long> ids,
+            @RequestHeader("X-Tenant-ID") String tenantId);
+}
@@ -0,0 +1,32 @@
+package com.supermarket.order.config;
+
+import feign.RequestInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+@Configuration
+public class FeignClientConfig {
+
+    /**
+     * Forwards the caller's bearer token so downstream services authorize the same principal.
+     * Calls made without a caller, e.g. by saga recovery, use the service account instead.
+     */
+    @Bean
+    public RequestInterceptor bearerTokenForwardingInterceptor(ServiceAccountToken serviceAccountToken) {
+        return template -> {
+            if (template.headers().containsKey(HttpHeaders.AUTHORIZATION)) {
+                return;
+            }
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication instanceof JwtAuthenticationToken jwt) {
+                template.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwt.getToken().getTokenValue());
+            } else if (serviceAccountToken.isConfigured()) {
+                template.header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceAccountToken.get());
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.supermarket.order.config;
+
+import com.supermarket.order.dto.OrderIntakeMessage;
+import com.supermarket.order.entity.OrderIntakeRejection;
+import com.supermarket.order.repository.OrderIntakeRejectionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@Slf4j
+public class KafkaConfig {
+
+    @Bean
+    public NewTopic orderIntakeTopic(
+            @Value("${order.intake.topic:order-intake}") String topic,
+            @Value("${order.intake.partitions:12}") int partitions) {
+        return TopicBuilder.name(topic).partitions(partitions).build();
+    }
+
+    /**
+     * Retries a failed record with exponential backoff, then records an intake rejection and
+     * publishes the record to {@code <topic>.DLT} so that nothing is lost. Records that cannot be
+     * deserialized are not retried; the ErrorHandlingDeserializer hands over their raw bytes,
+     * which are dead-lettered unchanged.
+     */
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(KafkaTemplate<Object, Object> kafkaTemplate,
+                                                 ProducerFactory<Object, Object> producerFactory,
+                                                 OrderIntakeRejectionRepository rejectionRepository) {
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        templates.put(byte[].class, new KafkaTemplate<>(producerFactory,
+                Map.<String, Object>of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class)));
+        templates.put(Object.class, kafkaTemplate);
+        DeadLetterPublishingRecoverer deadLetter = new DeadLetterPublishingRecoverer(templates);
+
+        ExponentialBackOff backOff = new ExponentialBackOff(1000L, 2.0);
+        backOff.setMaxInterval(30_000L);
+        backOff.setMaxElapsedTime(120_000L);
+
+        return new DefaultErrorHandler((record, exception) -> {
+            if (record.value() instanceof OrderIntakeMessage message) {
+                try {
+                    OrderIntakeRejection rejection = new OrderIntakeRejection();
+                    rejection.setOrderNumber(message.getOrderNumber());
+                    rejection.setTenantId(message.getTenantId());
+                    rejection.setReason(rootMessage(exception));
+                    rejectionRepository.save(rejection);
+                } catch (RuntimeException e) {
+                    log.error("Could not record intake rejection for {}", message.getOrderNumber(), e);
+                }
+            }
+            deadLetter.accept(record, exception);
+        }, backOff);
+    }
+
+    private static String rootMessage(Throwable exception) {
+        Throwable root = exception;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String message = root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
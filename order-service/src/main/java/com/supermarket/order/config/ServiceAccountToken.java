@@ -0,0 +1,69 @@
+package com.supermarket.order.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClient;
+
+import java.util.Map;
+
+/**
+ * Bearer token of the order service's own Keycloak client, obtained with the client credentials
+ * grant, for downstream calls made without a caller such as background recovery. The token is
+ * cached until shortly before it expires. Without a configured client secret there is none and
+ * such calls go out unauthenticated.
+ */
+@Component
+@Slf4j
+public class ServiceAccountToken {
+
+    private static final long EXPIRY_MARGIN_MS = 30_000;
+
+    private final RestClient restClient;
+    private final String tokenUri;
+    private final String clientId;
+    private final String clientSecret;
+    private String token;
+    private long expiresAtMs;
+
+    public ServiceAccountToken(@Value("${keycloak.issuer-uri}") String issuerUri,
+                               @Value("${keycloak.client-id}") String clientId,
+                               @Value("${keycloak.client-secret:}") String clientSecret) {
+        this.restClient = RestClient.create();
+        this.tokenUri = issuerUri + "/protocol/openid-connect/token";
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+    }
+
+    public boolean isConfigured() {
+        return !clientSecret.isBlank();
+    }
+
+    public synchronized String get() {
+        if (token != null && System.currentTimeMillis() < expiresAtMs) {
+            return token;
+        }
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("grant_type", "client_credentials");
+        form.add("client_id", clientId);
+        form.add("client_secret", clientSecret);
+
+        Map<?, ?> response = restClient.post()
+                .uri(tokenUri)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(form)
+                .retrieve()
+                .body(Map.class);
+        if (response == null || response.get("access_token") == null) {
+            throw new RuntimeException("No access token returned for client " + clientId);
+        }
+        token = String.valueOf(response.get("access_token"));
+        long expiresInMs = ((Number) response.get("expires_in")).longValue() * 1000;
+        expiresAtMs = System.currentTimeMillis() + Math.max(0, expiresInMs - EXPIRY_MARGIN_MS);
+        log.debug("Obtained service account token for {}", clientId);
+        return token;
+    }
+}
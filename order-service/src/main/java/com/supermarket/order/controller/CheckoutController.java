@@ -0,0 +1,70 @@
+package com.supermarket.order.controller;
+
+import com.supermarket.common.dto.ApiResponse;
+import com.supermarket.order.dto.CheckoutResponse;
+import com.supermarket.order.dto.OrderRequest;
+import com.supermarket.order.entity.CheckoutSaga;
+import com.supermarket.order.service.CheckoutSagaOrchestrator;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/orders")
+public class CheckoutController {
+
+    private final CheckoutSagaOrchestrator checkoutSagaOrchestrator;
+
+    public CheckoutController(CheckoutSagaOrchestrator checkoutSagaOrchestrator) {
+        this.checkoutSagaOrchestrator = checkoutSagaOrchestrator;
+    }
+
+    @PostMapping("/checkout")
+    public ResponseEntity<ApiResponse<CheckoutResponse>> checkout(
+            @Valid @RequestBody OrderRequest request,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        return toResponse(checkoutSagaOrchestrator.checkout(request, tenantId), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{id}/checkout")
+    public ResponseEntity<ApiResponse<CheckoutResponse>> getCheckout(
+            @PathVariable Long id,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        CheckoutResponse response = checkoutSagaOrchestrator.getCheckout(id, tenantId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Checkout retrieved successfully", response, null));
+    }
+
+    @PostMapping("/{id}/checkout/resume")
+    public ResponseEntity<ApiResponse<CheckoutResponse>> resumeCheckout(
+            @PathVariable Long id,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        return toResponse(checkoutSagaOrchestrator.resume(id, tenantId), HttpStatus.OK);
+    }
+
+    @PostMapping("/checkout/recover")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<CheckoutResponse>>> recoverCheckouts(
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        List<CheckoutResponse> recovered = checkoutSagaOrchestrator.recoverStale(tenantId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Stale checkouts resumed", recovered, null));
+    }
+
+    private ResponseEntity<ApiResponse<CheckoutResponse>> toResponse(CheckoutResponse response, HttpStatus completedStatus) {
+        return switch (response.getStatus()) {
+            case CheckoutSaga.COMPLETED -> ResponseEntity.status(completedStatus)
+                    .body(new ApiResponse<>(true, "Checkout completed", response, null));
+            case CheckoutSaga.COMPENSATED -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiResponse<>(false, "Checkout failed: " + response.getFailureReason(), response, "CHECKOUT_FAILED"));
+            default -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(new ApiResponse<>(true, "Checkout in progress", response, null));
+        };
+    }
+}
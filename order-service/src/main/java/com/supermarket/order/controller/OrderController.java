@@ -3,15 +3,25 @@ package com.supermarket.order.controller;
 import com.supermarket.common.dto.ApiResponse;
 import com.supermarket.order.dto.OrderRequest;
 import com.supermarket.order.dto.OrderResponse;
+import com.supermarket.order.dto.OrderSummaryPage;
+import com.supermarket.order.dto.ProductOrderLine;
+import com.supermarket.order.event.OrderStatusChangedEvent;
+import com.supermarket.order.service.OrderQueryService;
 import com.supermarket.order.service.OrderService;
+import com.supermarket.order.service.OrderStatusBroadcaster;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -19,9 +29,15 @@ import java.util.Map;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderQueryService orderQueryService;
+    private final OrderStatusBroadcaster orderStatusBroadcaster;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService,
+                           OrderQueryService orderQueryService,
+                           OrderStatusBroadcaster orderStatusBroadcaster) {
         this.orderService = orderService;
+        this.orderQueryService = orderQueryService;
+        this.orderStatusBroadcaster = orderStatusBroadcaster;
     }
 
     @PostMapping
@@ -61,6 +77,57 @@ public class OrderController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Orders retrieved successfully", orders, null));
     }
 
+    @GetMapping("/summaries")
+    public ResponseEntity<ApiResponse<OrderSummaryPage>> getOrderSummaries(
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        OrderSummaryPage page = orderQueryService.listOrders(tenantId, cursor, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Orders retrieved successfully", page, null));
+    }
+
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<ApiResponse<OrderSummaryPage>> getCustomerOrderHistory(
+            @PathVariable Long customerId,
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        OrderSummaryPage page = orderQueryService.getCustomerHistory(tenantId, customerId, cursor, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Customer orders retrieved successfully", page, null));
+    }
+
+    @GetMapping("/product-lines")
+    public ResponseEntity<ApiResponse<List<ProductOrderLine>>> getProductLines(
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            @RequestParam Long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        List<ProductOrderLine> lines = orderQueryService.getProductLines(tenantId, productId, from, to);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Product order lines retrieved", lines, null));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderStatus(@RequestHeader("X-Tenant-ID") String tenantId) {
+        return orderStatusBroadcaster.subscribe(tenantId, null, null);
+    }
+
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderStatus(
+            @PathVariable Long id,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        // The current state goes out first so the client needs no separate fetch; it is read
+        // after subscribing so that a change committed in between is not lost
+        return orderStatusBroadcaster.subscribe(tenantId, id, () -> {
+            OrderResponse order = orderService.getOrderById(id, tenantId);
+            return new OrderStatusChangedEvent(order.getId(), order.getOrderNumber(),
+                    tenantId, order.getStatus(), order.getPaymentStatus(), order.getUpdatedAt());
+        });
+    }
+
     @PatchMapping("/{id}/status")
     public ResponseEntity<ApiResponse<OrderResponse>> updateOrderStatus(
             @PathVariable Long id,
@@ -0,0 +1,48 @@
+package com.supermarket.order.controller;
+
+import com.supermarket.order.service.OrderExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@RestController
+@RequestMapping("/api/orders/export")
+public class OrderExportController {
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final OrderExportService orderExportService;
+
+    public OrderExportController(OrderExportService orderExportService) {
+        this.orderExportService = orderExportService;
+    }
+
+    /**
+     * Streams the export as a gzip file attachment. The body is written on the request thread,
+     * so no async timeout applies to long ranges.
+     */
+    @GetMapping
+    public void exportOrders(
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = OrderExportService.CSV) String format,
+            HttpServletResponse response) throws IOException {
+
+        // Fail before any header is written so errors are still reported normally
+        orderExportService.validate(from, to, format);
+
+        String fileName = "orders-" + from.format(FILE_DATE) + "-" + to.format(FILE_DATE) + "." + format + ".gz";
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+
+        orderExportService.export(tenantId, from, to, format, response.getOutputStream());
+        response.flushBuffer();
+    }
+}
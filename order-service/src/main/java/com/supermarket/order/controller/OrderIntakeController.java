@@ -0,0 +1,41 @@
+package com.supermarket.order.controller;
+
+import com.supermarket.common.dto.ApiResponse;
+import com.supermarket.order.dto.OrderIntakeResponse;
+import com.supermarket.order.dto.OrderRequest;
+import com.supermarket.order.service.OrderIntakeService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/orders/intake")
+public class OrderIntakeController {
+
+    private final OrderIntakeService orderIntakeService;
+
+    public OrderIntakeController(OrderIntakeService orderIntakeService) {
+        this.orderIntakeService = orderIntakeService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<OrderIntakeResponse>> submitOrder(
+            @Valid @RequestBody OrderRequest request,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        OrderIntakeResponse response = orderIntakeService.submit(request, tenantId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header("Location", "/api/orders/intake/" + response.getOrderNumber())
+                .body(new ApiResponse<>(true, "Order accepted for processing", response, null));
+    }
+
+    @GetMapping("/{orderNumber}")
+    public ResponseEntity<ApiResponse<OrderIntakeResponse>> getIntakeStatus(
+            @PathVariable String orderNumber,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        OrderIntakeResponse response = orderIntakeService.getStatus(orderNumber, tenantId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Order intake status retrieved", response, null));
+    }
+}
@@ -0,0 +1,27 @@
+package com.supermarket.order.controller;
+
+import com.supermarket.common.dto.ApiResponse;
+import com.supermarket.order.dto.PickWavePlan;
+import com.supermarket.order.service.PickWaveService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/orders/pick-waves")
+public class PickWaveController {
+
+    private final PickWaveService pickWaveService;
+
+    public PickWaveController(PickWaveService pickWaveService) {
+        this.pickWaveService = pickWaveService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<PickWavePlan>> planPickWaves(
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            @RequestParam(required = false) Integer waveSize) {
+
+        PickWavePlan plan = pickWaveService.planWaves(tenantId, waveSize);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Pick waves planned", plan, null));
+    }
+}
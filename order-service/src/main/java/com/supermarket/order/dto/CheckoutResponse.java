@@ -0,0 +1,18 @@
+package com.supermarket.order.dto;
+
+public class CheckoutResponse {
+
+    private Long sagaId;
+    private String status;
+    private String failureReason;
+    private OrderResponse order;
+
+    public Long getSagaId() { return sagaId; }
+    public void setSagaId(Long sagaId) { this.sagaId = sagaId; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getFailureReason() { return failureReason; }
+    public void setFailureReason(String failureReason) { this.failureReason = failureReason; }
+    public OrderResponse getOrder() { return order; }
+    public void setOrder(OrderResponse order) { this.order = order; }
+}
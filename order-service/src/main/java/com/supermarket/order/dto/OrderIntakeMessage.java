@@ -0,0 +1,20 @@
+package com.supermarket.order.dto;
+
+import java.time.LocalDateTime;
+
+public class OrderIntakeMessage {
+
+    private String orderNumber;
+    private String tenantId;
+    private LocalDateTime acceptedAt;
+    private OrderRequest request;
+
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+    public LocalDateTime getAcceptedAt() { return acceptedAt; }
+    public void setAcceptedAt(LocalDateTime acceptedAt) { this.acceptedAt = acceptedAt; }
+    public OrderRequest getRequest() { return request; }
+    public void setRequest(OrderRequest request) { this.request = request; }
+}
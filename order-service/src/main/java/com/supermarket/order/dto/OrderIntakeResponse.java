@@ -0,0 +1,18 @@
+package com.supermarket.order.dto;
+
+public class OrderIntakeResponse {
+
+    private String orderNumber;
+    private String status;
+    private String reason;
+    private OrderResponse order;
+
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+    public OrderResponse getOrder() { return order; }
+    public void setOrder(OrderResponse order) { this.order = order; }
+}
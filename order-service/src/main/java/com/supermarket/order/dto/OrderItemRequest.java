@@ -0,0 +1,45 @@
+package com.supermarket.order.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.math.BigDecimal;
+
+public class OrderItemRequest {
+
+    @NotNull
+    private Long productId;
+
+    private String productName;
+
+    private String productSku;
+
+    @NotNull
+    @Positive
+    private Integer quantity;
+
+    @NotNull
+    @PositiveOrZero
+    private BigDecimal unitPrice;
+
+    @PositiveOrZero
+    private BigDecimal discount = BigDecimal.ZERO;
+
+    /** Selects the configured tax rate; the default tax code applies when omitted. */
+    private String taxCode;
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+    public String getProductSku() { return productSku; }
+    public void setProductSku(String productSku) { this.productSku = productSku; }
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+    public BigDecimal getUnitPrice() { return unitPrice; }
+    public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
+    public BigDecimal getDiscount() { return discount; }
+    public void setDiscount(BigDecimal discount) { this.discount = discount; }
+    public String getTaxCode() { return taxCode; }
+    public void setTaxCode(String taxCode) { this.taxCode = taxCode; }
+}
@@ -2,6 +2,7 @@ package com.supermarket.order.dto;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class OrderResponse {
 
@@ -23,6 +24,7 @@ public class OrderResponse {
     private String paymentTransactionId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private List<OrderItemResponse> items;
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -60,4 +62,6 @@ public class OrderResponse {
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public List<OrderItemResponse> getItems() { return items; }
+    public void setItems(List<OrderItemResponse> items) { this.items = items; }
 }
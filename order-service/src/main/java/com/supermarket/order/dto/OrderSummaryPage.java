@@ -0,0 +1,20 @@
+package com.supermarket.order.dto;
+
+import java.util.List;
+
+public class OrderSummaryPage {
+
+    private List<OrderSummaryResponse> items;
+    private String nextCursor;
+    private Long totalCount;
+    private boolean countEstimated;
+
+    public List<OrderSummaryResponse> getItems() { return items; }
+    public void setItems(List<OrderSummaryResponse> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public Long getTotalCount() { return totalCount; }
+    public void setTotalCount(Long totalCount) { this.totalCount = totalCount; }
+    public boolean isCountEstimated() { return countEstimated; }
+    public void setCountEstimated(boolean countEstimated) { this.countEstimated = countEstimated; }
+}
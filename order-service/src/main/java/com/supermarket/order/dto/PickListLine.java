@@ -0,0 +1,33 @@
+package com.supermarket.order.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PickListLine {
+
+    private int sequence;
+    private String location;
+    private String category;
+    private Long productId;
+    private String productSku;
+    private String productName;
+    private int quantity;
+    private List<PickAllocation> allocations = new ArrayList<>();
+
+    public int getSequence() { return sequence; }
+    public void setSequence(int sequence) { this.sequence = sequence; }
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public String getProductSku() { return productSku; }
+    public void setProductSku(String productSku) { this.productSku = productSku; }
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+    public List<PickAllocation> getAllocations() { return allocations; }
+    public void setAllocations(List<PickAllocation> allocations) { this.allocations = allocations; }
+}
@@ -0,0 +1,18 @@
+package com.supermarket.order.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PickOrderSplit {
+
+    private Long orderId;
+    private String orderNumber;
+    private List<PickAllocation> lines = new ArrayList<>();
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+    public List<PickAllocation> getLines() { return lines; }
+    public void setLines(List<PickAllocation> lines) { this.lines = lines; }
+}
@@ -0,0 +1,20 @@
+package com.supermarket.order.dto;
+
+import java.util.List;
+
+public class PickWavePlan {
+
+    private List<PickWaveResponse> waves;
+    private int orderCount;
+    private boolean budgetExhausted;
+    private long planningMillis;
+
+    public List<PickWaveResponse> getWaves() { return waves; }
+    public void setWaves(List<PickWaveResponse> waves) { this.waves = waves; }
+    public int getOrderCount() { return orderCount; }
+    public void setOrderCount(int orderCount) { this.orderCount = orderCount; }
+    public boolean isBudgetExhausted() { return budgetExhausted; }
+    public void setBudgetExhausted(boolean budgetExhausted) { this.budgetExhausted = budgetExhausted; }
+    public long getPlanningMillis() { return planningMillis; }
+    public void setPlanningMillis(long planningMillis) { this.planningMillis = planningMillis; }
+}
@@ -0,0 +1,23 @@
+package com.supermarket.order.dto;
+
+import java.util.List;
+
+public class PickWaveResponse {
+
+    private int waveNumber;
+    private int orderCount;
+    private int zoneCount;
+    private List<PickListLine> pickList;
+    private List<PickOrderSplit> orders;
+
+    public int getWaveNumber() { return waveNumber; }
+    public void setWaveNumber(int waveNumber) { this.waveNumber = waveNumber; }
+    public int getOrderCount() { return orderCount; }
+    public void setOrderCount(int orderCount) { this.orderCount = orderCount; }
+    public int getZoneCount() { return zoneCount; }
+    public void setZoneCount(int zoneCount) { this.zoneCount = zoneCount; }
+    public List<PickListLine> getPickList() { return pickList; }
+    public void setPickList(List<PickListLine> pickList) { this.pickList = pickList; }
+    public List<PickOrderSplit> getOrders() { return orders; }
+    public void setOrders(List<PickOrderSplit> orders) { this.orders = orders; }
+}
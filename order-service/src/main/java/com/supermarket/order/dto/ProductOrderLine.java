@@ -0,0 +1,27 @@
+package com.supermarket.order.dto;
+
+import java.math.BigDecimal;
+
+/** What one order spent on a product: quantity and line totals including tax. */
+public class ProductOrderLine {
+
+    private Long orderId;
+    private Long quantity;
+    private BigDecimal amount;
+
+    public ProductOrderLine() {
+    }
+
+    public ProductOrderLine(Long orderId, Long quantity, BigDecimal amount) {
+        this.orderId = orderId;
+        this.quantity = quantity;
+        this.amount = amount;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public Long getQuantity() { return quantity; }
+    public void setQuantity(Long quantity) { this.quantity = quantity; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+}
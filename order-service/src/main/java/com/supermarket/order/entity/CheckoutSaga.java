@@ -0,0 +1,71 @@
+package com.supermarket.order.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Durable state of one checkout. The orchestrator saves it after every step so an interrupted
+ * checkout can be resumed from the last recorded status.
+ */
+@Data
+@Entity
+@Table(name = "checkout_sagas", indexes = {
+        @Index(name = "idx_checkout_saga_tenant_status", columnList = "tenantId, status, leaseUntil")
+})
+public class CheckoutSaga {
+
+    public static final String RESERVING = "RESERVING";
+    public static final String PAYING = "PAYING";
+    public static final String COMPENSATING = "COMPENSATING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String COMPENSATED = "COMPENSATED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String tenantId;
+
+    @Column(nullable = false, unique = true)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(length = 500)
+    private String failureReason;
+
+    private String paymentTransactionId;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    /** Instance-independent ownership: only the holder of an unexpired lease advances the saga. */
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public boolean isFinished() {
+        return COMPLETED.equals(status) || COMPENSATED.equals(status);
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        if (attempts == null) {
+            attempts = 1;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
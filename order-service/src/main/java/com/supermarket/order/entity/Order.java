@@ -4,21 +4,27 @@ import jakarta.persistence.*;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_order_number", columnList = "orderNumber"),
+        @Index(name = "idx_orders_tenant_created", columnList = "tenantId, createdAt")
+})
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String tenantId;
 
-    @Column(nullable = false, unique = true)
+    // Unique per tenant through order_summaries; a partitioned table cannot enforce it without created_at
+    @Column(nullable = false)
     private String orderNumber;
 
     @Column(nullable = false)
@@ -54,17 +60,26 @@ public class Order {
     private String paymentTransactionId;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private List<OrderItem> items;
+    private List<OrderItem> items = new ArrayList<>();
 
-    @Column(name = "created_at")
+    /** Partition key of orders and order_items, so it never changes after insert. */
+    @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    public void addItem(OrderItem item) {
+        item.setOrder(this);
+        items.add(item);
+    }
+
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Intake orders arrive with the time they were accepted
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
         updatedAt = LocalDateTime.now();
         if (status == null) {
             status = "PENDING";
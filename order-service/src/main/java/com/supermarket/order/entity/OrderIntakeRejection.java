@@ -0,0 +1,32 @@
+package com.supermarket.order.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Records an intake message that could not be persisted after retries, so that polling clients
+ * get a definite answer. The message itself is kept on the dead-letter topic for replay.
+ */
+@Data
+@Entity
+@Table(name = "order_intake_rejections")
+public class OrderIntakeRejection {
+
+    @Id
+    private String orderNumber;
+
+    @Column(nullable = false)
+    private String tenantId;
+
+    @Column(length = 1000)
+    private String reason;
+
+    @Column(name = "rejected_at")
+    private LocalDateTime rejectedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        rejectedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,67 @@
+package com.supermarket.order.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized copy of the order columns shown in list views, kept in step with {@link Order}
+ * by {@code OrderService} in the same transaction. Shares the order's id.
+ */
+@Data
+@Entity
+@Table(name = "order_summaries", indexes = {
+        @Index(name = "idx_order_summaries_keyset", columnList = "tenantId, createdAt, id")
+}, uniqueConstraints = {
+        // Enforces order-number uniqueness that the partitioned orders table cannot
+        @UniqueConstraint(name = "uk_order_summaries_tenant_number", columnNames = {"tenant_id", "order_number"})
+})
+public class OrderSummary implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String tenantId;
+
+    @Column(nullable = false)
+    private String orderNumber;
+
+    @Column(nullable = false)
+    private Long customerId;
+
+    private String customerName;
+
+    @Column(nullable = false)
+    private String status;
+
+    private String paymentStatus;
+
+    @Column(nullable = false)
+    private BigDecimal totalAmount;
+
+    private Integer itemCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /** Ids are assigned from the order, so tell Spring Data to insert instead of merging. */
+    @Transient
+    private boolean newSummary = true;
+
+    @Override
+    public boolean isNew() {
+        return newSummary;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newSummary = false;
+    }
+}
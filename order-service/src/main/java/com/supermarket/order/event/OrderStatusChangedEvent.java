@@ -0,0 +1,42 @@
+package com.supermarket.order.event;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published in-process when an order is created or its status or payment status changes.
+ * Also serialized as the payload of the order status stream and of its fan-out topic.
+ */
+public class OrderStatusChangedEvent {
+
+    private final Long orderId;
+    private final String orderNumber;
+    private final String tenantId;
+    private final String status;
+    private final String paymentStatus;
+    private final LocalDateTime changedAt;
+
+    @JsonCreator
+    public OrderStatusChangedEvent(@JsonProperty("orderId") Long orderId,
+                                   @JsonProperty("orderNumber") String orderNumber,
+                                   @JsonProperty("tenantId") String tenantId,
+                                   @JsonProperty("status") String status,
+                                   @JsonProperty("paymentStatus") String paymentStatus,
+                                   @JsonProperty("changedAt") LocalDateTime changedAt) {
+        this.orderId = orderId;
+        this.orderNumber = orderNumber;
+        this.tenantId = tenantId;
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+        this.changedAt = changedAt;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public String getOrderNumber() { return orderNumber; }
+    public String getTenantId() { return tenantId; }
+    public String getStatus() { return status; }
+    public String getPaymentStatus() { return paymentStatus; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+}
@@ -0,0 +1,16 @@
+package com.supermarket.order.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A status change was rejected because the order was not in a state the transition allows,
+ * usually because a concurrent request moved it first.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class OrderStateConflictException extends RuntimeException {
+
+    public OrderStateConflictException(String message) {
+        super(message);
+    }
+}
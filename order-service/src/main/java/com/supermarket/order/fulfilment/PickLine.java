@@ -0,0 +1,32 @@
+package com.supermarket.order.fulfilment;
+
+/**
+ * One order line to be picked, with where the product sits in the store. Location and
+ * category are null when they could not be resolved.
+ */
+public class PickLine {
+
+    private final Long productId;
+    private final String productSku;
+    private final String productName;
+    private final int quantity;
+    private final String location;
+    private final String category;
+
+    public PickLine(Long productId, String productSku, String productName, int quantity,
+                    String location, String category) {
+        this.productId = productId;
+        this.productSku = productSku;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.location = location;
+        this.category = category;
+    }
+
+    public Long getProductId() { return productId; }
+    public String getProductSku() { return productSku; }
+    public String getProductName() { return productName; }
+    public int getQuantity() { return quantity; }
+    public String getLocation() { return location; }
+    public String getCategory() { return category; }
+}
@@ -0,0 +1,21 @@
+package com.supermarket.order.fulfilment;
+
+import java.util.List;
+
+/** An order waiting to be picked, as seen by {@link PickWavePlanner}. */
+public class PickOrder {
+
+    private final Long orderId;
+    private final String orderNumber;
+    private final List<PickLine> lines;
+
+    public PickOrder(Long orderId, String orderNumber, List<PickLine> lines) {
+        this.orderId = orderId;
+        this.orderNumber = orderNumber;
+        this.lines = lines;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public String getOrderNumber() { return orderNumber; }
+    public List<PickLine> getLines() { return lines; }
+}
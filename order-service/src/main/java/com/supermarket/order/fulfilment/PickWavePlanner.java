@@ -0,0 +1,246 @@
+package com.supermarket.order.fulfilment;
+
+import com.supermarket.order.dto.PickAllocation;
+import com.supermarket.order.dto.PickListLine;
+import com.supermarket.order.dto.PickOrderSplit;
+import com.supermarket.order.dto.PickWavePlan;
+import com.supermarket.order.dto.PickWaveResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups orders into pick waves so that each wave visits as few store zones as possible. A zone
+ * is an aisle, or the category for lines without a location.
+ *
+ * <p>Waves are grown greedily: the oldest unplanned order seeds a wave, which then takes the
+ * candidate adding the fewest new zones until it is full. Candidates are limited to a window of
+ * the oldest unplanned orders, so no order is passed over indefinitely, and the whole plan runs
+ * under a time budget; once it is spent, the remaining orders are waved in arrival order.
+ * Stateless and safe to share between threads.
+ */
+@Component
+public class PickWavePlanner {
+
+    private final int defaultWaveSize;
+    private final int candidateWindow;
+    private final long budgetNanos;
+
+    public PickWavePlanner(
+            @Value("${order.pick-waves.wave-size:100}") int defaultWaveSize,
+            @Value("${order.pick-waves.candidate-window:500}") int candidateWindow,
+            @Value("${order.pick-waves.time-budget-ms:250}") long timeBudgetMs) {
+        this.defaultWaveSize = defaultWaveSize;
+        this.candidateWindow = candidateWindow;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+    }
+
+    /**
+     * Plans waves over {@code orders}, which must be in arrival order.
+     *
+     * @param waveSize maximum orders per wave, or null for the configured default
+     */
+    public PickWavePlan plan(List<PickOrder> orders, Integer waveSize) {
+        long started = System.nanoTime();
+        long deadline = started + budgetNanos;
+        int size = waveSize != null && waveSize > 0 ? waveSize : defaultWaveSize;
+
+        int[][] zones = indexZones(orders);
+        int zoneCount = 0;
+        for (int[] orderZones : zones) {
+            for (int zone : orderZones) {
+                zoneCount = Math.max(zoneCount, zone + 1);
+            }
+        }
+
+        boolean[] planned = new boolean[orders.size()];
+        boolean budgetExhausted = false;
+        int oldest = 0;
+        List<PickWaveResponse> waves = new ArrayList<>();
+
+        while (oldest < orders.size()) {
+            boolean[] inWave = new boolean[zoneCount];
+            List<Integer> members = new ArrayList<>(size);
+            add(oldest, zones, planned, inWave, members);
+
+            while (members.size() < size) {
+                if (!budgetExhausted && System.nanoTime() - deadline >= 0) {
+                    budgetExhausted = true;
+                }
+                int next = budgetExhausted
+                        ? nextUnplanned(planned, oldest)
+                        : closestCandidate(zones, planned, inWave, oldest);
+                if (next < 0) {
+                    break;
+                }
+                add(next, zones, planned, inWave, members);
+            }
+
+            while (oldest < orders.size() && planned[oldest]) {
+                oldest++;
+            }
+            waves.add(buildWave(waves.size() + 1, orders, members, inWave));
+        }
+
+        PickWavePlan plan = new PickWavePlan();
+        plan.setWaves(waves);
+        plan.setOrderCount(orders.size());
+        plan.setBudgetExhausted(budgetExhausted);
+        plan.setPlanningMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return plan;
+    }
+
+    /**
+     * Unplanned order within the candidate window that adds the fewest zones to the wave; ties go
+     * to the older order. Returns -1 when the window is empty.
+     */
+    private int closestCandidate(int[][] zones, boolean[] planned, boolean[] inWave, int oldest) {
+        int best = -1;
+        int bestAdded = Integer.MAX_VALUE;
+        int seen = 0;
+        for (int i = oldest; i < zones.length && seen < candidateWindow; i++) {
+            if (planned[i]) {
+                continue;
+            }
+            seen++;
+            int added = 0;
+            for (int zone : zones[i]) {
+                if (!inWave[zone]) {
+                    added++;
+                }
+            }
+            if (added < bestAdded) {
+                best = i;
+                bestAdded = added;
+                if (added == 0) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static int nextUnplanned(boolean[] planned, int from) {
+        for (int i = from; i < planned.length; i++) {
+            if (!planned[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void add(int order, int[][] zones, boolean[] planned, boolean[] inWave, List<Integer> members) {
+        planned[order] = true;
+        members.add(order);
+        for (int zone : zones[order]) {
+            inWave[zone] = true;
+        }
+    }
+
+    /** Distinct zone ids per order, numbered densely so a wave's zones fit in a boolean array. */
+    private static int[][] indexZones(List<PickOrder> orders) {
+        Map<String, Integer> ids = new HashMap<>();
+        int[][] zones = new int[orders.size()][];
+        for (int i = 0; i < orders.size(); i++) {
+            List<PickLine> lines = orders.get(i).getLines();
+            int[] orderZones = new int[lines.size()];
+            int count = 0;
+            for (PickLine line : lines) {
+                int zone = ids.computeIfAbsent(zoneOf(line), key -> ids.size());
+                boolean seen = false;
+                for (int j = 0; j < count && !seen; j++) {
+                    seen = orderZones[j] == zone;
+                }
+                if (!seen) {
+                    orderZones[count++] = zone;
+                }
+            }
+            zones[i] = count == orderZones.length ? orderZones : Arrays.copyOf(orderZones, count);
+        }
+        return zones;
+    }
+
+    private static String zoneOf(PickLine line) {
+        String aisle = StoreRoute.aisleOf(line.getLocation());
+        if (aisle != null) {
+            return "aisle:" + aisle;
+        }
+        return "category:" + (line.getCategory() != null ? line.getCategory() : "");
+    }
+
+    /**
+     * Consolidates the wave into one pick line per product and location, ordered along the
+     * store route and then by category, and splits every line back out to its orders.
+     */
+    private static PickWaveResponse buildWave(int number, List<PickOrder> orders, List<Integer> members,
+                                              boolean[] inWave) {
+        Map<String, PickListLine> lines = new LinkedHashMap<>();
+        for (int member : members) {
+            for (PickLine line : orders.get(member).getLines()) {
+                PickListLine pick = lines.computeIfAbsent(line.getProductId() + "|" + line.getLocation(), key -> {
+                    PickListLine created = new PickListLine();
+                    created.setLocation(line.getLocation());
+                    created.setCategory(line.getCategory());
+                    created.setProductId(line.getProductId());
+                    created.setProductSku(line.getProductSku());
+                    created.setProductName(line.getProductName());
+                    return created;
+                });
+                pick.setQuantity(pick.getQuantity() + line.getQuantity());
+            }
+        }
+
+        List<PickListLine> pickList = new ArrayList<>(lines.values());
+        StoreRoute route = new StoreRoute(pickList.stream().map(PickListLine::getLocation).toList());
+        pickList.sort(((Comparator<PickListLine>) (a, b) -> route.compare(a.getLocation(), b.getLocation()))
+                .thenComparing(PickListLine::getCategory, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(PickListLine::getProductId, Comparator.nullsLast(Comparator.naturalOrder())));
+        for (int i = 0; i < pickList.size(); i++) {
+            pickList.get(i).setSequence(i + 1);
+        }
+
+        List<PickOrderSplit> splits = new ArrayList<>(members.size());
+        for (int member : members) {
+            PickOrder order = orders.get(member);
+            PickOrderSplit split = new PickOrderSplit();
+            split.setOrderId(order.getOrderId());
+            split.setOrderNumber(order.getOrderNumber());
+            for (PickLine line : order.getLines()) {
+                PickListLine pick = lines.get(line.getProductId() + "|" + line.getLocation());
+                PickAllocation allocation = new PickAllocation();
+                allocation.setSequence(pick.getSequence());
+                allocation.setOrderId(order.getOrderId());
+                allocation.setOrderNumber(order.getOrderNumber());
+                allocation.setProductId(line.getProductId());
+                allocation.setQuantity(line.getQuantity());
+                pick.getAllocations().add(allocation);
+                split.getLines().add(allocation);
+            }
+            split.getLines().sort(Comparator.comparingInt(PickAllocation::getSequence));
+            splits.add(split);
+        }
+
+        int zoneCount = 0;
+        for (boolean zone : inWave) {
+            if (zone) {
+                zoneCount++;
+            }
+        }
+
+        PickWaveResponse wave = new PickWaveResponse();
+        wave.setWaveNumber(number);
+        wave.setOrderCount(members.size());
+        wave.setZoneCount(zoneCount);
+        wave.setPickList(pickList);
+        wave.setOrders(splits);
+        return wave;
+    }
+}
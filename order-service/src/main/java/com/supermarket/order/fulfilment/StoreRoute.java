@@ -0,0 +1,142 @@
+package com.supermarket.order.fulfilment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Walking order through the store floor. Locations are read as an aisle followed by positions
+ * along it, separated by any non-alphanumeric character ({@code A3-12-2}, {@code 04.B.1});
+ * digit runs compare as numbers, so {@code A3} comes before {@code A10}. The route is a
+ * serpentine: aisles are visited in order and walked alternately front-to-back and
+ * back-to-front, so a picker never doubles back along an aisle. Lines without a location come
+ * last.
+ */
+final class StoreRoute {
+
+    private static final String[] NONE = new String[0];
+
+    private final Map<String, Integer> aisleRanks = new HashMap<>();
+    private final Map<String, String[]> tokens = new HashMap<>();
+
+    /** Builds the route over the aisles that actually occur in {@code locations}. */
+    StoreRoute(Collection<String> locations) {
+        List<String> aisles = new ArrayList<>();
+        for (String location : locations) {
+            String[] parts = tokensOf(location);
+            if (parts.length > 0 && !aisleRanks.containsKey(parts[0])) {
+                aisleRanks.put(parts[0], 0);
+                aisles.add(parts[0]);
+            }
+        }
+        aisles.sort(StoreRoute::compareTokens);
+        for (int i = 0; i < aisles.size(); i++) {
+            aisleRanks.put(aisles.get(i), i);
+        }
+    }
+
+    /** Aisle part of a location, upper-cased, or null when the location is blank. */
+    static String aisleOf(String location) {
+        if (location == null) {
+            return null;
+        }
+        int start = 0;
+        while (start < location.length() && !Character.isLetterOrDigit(location.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < location.length() && Character.isLetterOrDigit(location.charAt(end))) {
+            end++;
+        }
+        return start < end ? location.substring(start, end).toUpperCase() : null;
+    }
+
+    /** Orders two locations along the route; null or blank locations sort last. */
+    int compare(String left, String right) {
+        String[] a = tokensOf(left);
+        String[] b = tokensOf(right);
+        if (a.length == 0 || b.length == 0) {
+            return Boolean.compare(a.length == 0, b.length == 0);
+        }
+        int leftRank = aisleRanks.getOrDefault(a[0], aisleRanks.size());
+        int rightRank = aisleRanks.getOrDefault(b[0], aisleRanks.size());
+        if (leftRank != rightRank) {
+            return Integer.compare(leftRank, rightRank);
+        }
+        int along = 0;
+        for (int i = 1; i < Math.min(a.length, b.length) && along == 0; i++) {
+            along = compareTokens(a[i], b[i]);
+        }
+        if (along == 0) {
+            along = Integer.compare(a.length, b.length);
+        }
+        return leftRank % 2 == 0 ? along : -along;
+    }
+
+    private String[] tokensOf(String location) {
+        return location == null ? NONE : tokens.computeIfAbsent(location, StoreRoute::tokenize);
+    }
+
+    private static String[] tokenize(String location) {
+        List<String> parts = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= location.length(); i++) {
+            boolean alphanumeric = i < location.length() && Character.isLetterOrDigit(location.charAt(i));
+            if (alphanumeric && start < 0) {
+                start = i;
+            } else if (!alphanumeric && start >= 0) {
+                parts.add(location.substring(start, i).toUpperCase());
+                start = -1;
+            }
+        }
+        return parts.toArray(NONE);
+    }
+
+    /** Natural order: digit runs by numeric value, everything else by character. */
+    private static int compareTokens(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            char x = a.charAt(i);
+            char y = b.charAt(j);
+            if (Character.isDigit(x) && Character.isDigit(y)) {
+                int runA = i;
+                int runB = j;
+                while (runA < a.length() && a.charAt(runA) == '0') {
+                    runA++;
+                }
+                while (runB < b.length() && b.charAt(runB) == '0') {
+                    runB++;
+                }
+                int endA = runA;
+                int endB = runB;
+                while (endA < a.length() && Character.isDigit(a.charAt(endA))) {
+                    endA++;
+                }
+                while (endB < b.length() && Character.isDigit(b.charAt(endB))) {
+                    endB++;
+                }
+                if (endA - runA != endB - runB) {
+                    return Integer.compare(endA - runA, endB - runB);
+                }
+                for (int k = 0; k < endA - runA; k++) {
+                    int digit = Character.compare(a.charAt(runA + k), b.charAt(runB + k));
+                    if (digit != 0) {
+                        return digit;
+                    }
+                }
+                i = endA;
+                j = endB;
+            } else {
+                if (x != y) {
+                    return Character.compare(x, y);
+                }
+                i++;
+                j++;
+            }
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+}
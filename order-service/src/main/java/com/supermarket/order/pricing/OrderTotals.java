@@ -0,0 +1,41 @@
+package com.supermarket.order.pricing;
+
+import java.math.BigDecimal;
+
+/**
+ * Result of {@link OrderTotalsCalculator}. Amounts are held in minor units and only turned
+ * into BigDecimal when read.
+ */
+public class OrderTotals {
+
+    private final int scale;
+    private final long[] lineTotals;
+    private final long[] lineDiscounts;
+    private final long[] lineTaxes;
+    private final String[] taxCodes;
+    private final long subtotal;
+    private final long discount;
+    private final long tax;
+
+    OrderTotals(int scale, long[] lineTotals, long[] lineDiscounts, long[] lineTaxes, String[] taxCodes,
+                long subtotal, long discount, long tax) {
+        this.scale = scale;
+        this.lineTotals = lineTotals;
+        this.lineDiscounts = lineDiscounts;
+        this.lineTaxes = lineTaxes;
+        this.taxCodes = taxCodes;
+        this.subtotal = subtotal;
+        this.discount = discount;
+        this.tax = tax;
+    }
+
+    /** Line amount after discount, before tax. */
+    public BigDecimal getLineTotal(int line) { return BigDecimal.valueOf(lineTotals[line], scale); }
+    public BigDecimal getLineDiscount(int line) { return BigDecimal.valueOf(lineDiscounts[line], scale); }
+    public BigDecimal getLineTax(int line) { return BigDecimal.valueOf(lineTaxes[line], scale); }
+    public String getTaxCode(int line) { return taxCodes[line]; }
+    public BigDecimal getSubtotal() { return BigDecimal.valueOf(subtotal, scale); }
+    public BigDecimal getDiscountAmount() { return BigDecimal.valueOf(discount, scale); }
+    public BigDecimal getTaxAmount() { return BigDecimal.valueOf(tax, scale); }
+    public BigDecimal getTotalAmount() { return BigDecimal.valueOf(subtotal - discount + tax, scale); }
+}
@@ -0,0 +1,108 @@
+package com.supermarket.order.pricing;
+
+import com.supermarket.order.dto.OrderItemRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes order totals from the lines alone: line totals, per-line tax by tax code, discounts
+ * and rounding. Amounts are carried as {@code long} minor units and tax rates as parts per
+ * million, so a basket costs a handful of array allocations rather than a BigDecimal per step.
+ * Immutable after construction and safe to share between threads.
+ */
+@Component
+public class OrderTotalsCalculator {
+
+    private static final long PPM = 1_000_000L;
+
+    private final Map<String, Long> taxRatesPpm;
+    private final String defaultTaxCode;
+    private final int scale;
+    private final RoundingMode rounding;
+
+    public OrderTotalsCalculator(
+            @Value("${order.pricing.tax-rates:STANDARD:0}") List<String> taxRates,
+            @Value("${order.pricing.default-tax-code:STANDARD}") String defaultTaxCode,
+            @Value("${order.pricing.scale:2}") int scale,
+            @Value("${order.pricing.rounding:HALF_UP}") RoundingMode rounding) {
+        Map<String, Long> rates = new HashMap<>();
+        for (String entry : taxRates) {
+            int separator = entry.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Tax rate must be CODE:RATE, got " + entry);
+            }
+            BigDecimal rate = new BigDecimal(entry.substring(separator + 1).trim());
+            rates.put(entry.substring(0, separator).trim(), rate.movePointRight(6).longValueExact());
+        }
+        if (!rates.containsKey(defaultTaxCode)) {
+            throw new IllegalArgumentException("No tax rate configured for default tax code " + defaultTaxCode);
+        }
+        this.taxRatesPpm = Map.copyOf(rates);
+        this.defaultTaxCode = defaultTaxCode;
+        this.scale = scale;
+        this.rounding = rounding;
+    }
+
+    public OrderTotals calculate(List<OrderItemRequest> lines) {
+        int size = lines.size();
+        long[] lineTotals = new long[size];
+        long[] lineDiscounts = new long[size];
+        long[] lineTaxes = new long[size];
+        String[] taxCodes = new String[size];
+        long subtotal = 0;
+        long discount = 0;
+        long tax = 0;
+
+        for (int i = 0; i < size; i++) {
+            OrderItemRequest line = lines.get(i);
+            String taxCode = line.getTaxCode() != null ? line.getTaxCode() : defaultTaxCode;
+            Long ratePpm = taxRatesPpm.get(taxCode);
+            if (ratePpm == null) {
+                throw new RuntimeException("Unknown tax code: " + taxCode);
+            }
+
+            long gross = Math.multiplyExact(toMinor(line.getUnitPrice()), (long) line.getQuantity());
+            long lineDiscount = line.getDiscount() != null ? Math.min(toMinor(line.getDiscount()), gross) : 0;
+            long net = gross - lineDiscount;
+            long lineTax = divideRounded(Math.multiplyExact(net, ratePpm), PPM);
+
+            lineTotals[i] = net;
+            lineDiscounts[i] = lineDiscount;
+            lineTaxes[i] = lineTax;
+            taxCodes[i] = taxCode;
+            subtotal += gross;
+            discount += lineDiscount;
+            tax += lineTax;
+        }
+        return new OrderTotals(scale, lineTotals, lineDiscounts, lineTaxes, taxCodes, subtotal, discount, tax);
+    }
+
+    private long toMinor(BigDecimal amount) {
+        return amount.setScale(scale, rounding).unscaledValue().longValueExact();
+    }
+
+    /** Integer division of a non-negative dividend using the configured rounding mode. */
+    private long divideRounded(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        long twice = remainder * 2;
+        boolean roundUp = switch (rounding) {
+            case UP, CEILING -> true;
+            case DOWN, FLOOR -> false;
+            case HALF_UP -> twice >= divisor;
+            case HALF_DOWN -> twice > divisor;
+            case HALF_EVEN -> twice > divisor || (twice == divisor && (quotient & 1) == 1);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+        return roundUp ? quotient + 1 : quotient;
+    }
+}
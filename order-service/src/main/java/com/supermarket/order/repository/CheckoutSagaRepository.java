@@ -0,0 +1,33 @@
+package com.supermarket.order.repository;
+
+import com.supermarket.order.entity.CheckoutSaga;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CheckoutSagaRepository extends JpaRepository<CheckoutSaga, Long> {
+
+    Optional<CheckoutSaga> findByOrderIdAndTenantId(Long orderId, String tenantId);
+
+    List<CheckoutSaga> findByTenantIdAndStatusInAndLeaseUntilBefore(
+            String tenantId, Collection<String> statuses, LocalDateTime before, Pageable pageable);
+
+    List<CheckoutSaga> findByStatusInAndLeaseUntilBeforeOrderByLeaseUntilAsc(
+            Collection<String> statuses, LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CheckoutSaga s SET s.leaseUntil = :until, s.attempts = s.attempts + 1 " +
+           "WHERE s.id = :id AND (s.leaseUntil IS NULL OR s.leaseUntil < :now)")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+}
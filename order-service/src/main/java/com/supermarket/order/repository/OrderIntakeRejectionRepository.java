@@ -0,0 +1,13 @@
+package com.supermarket.order.repository;
+
+import com.supermarket.order.entity.OrderIntakeRejection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrderIntakeRejectionRepository extends JpaRepository<OrderIntakeRejection, String> {
+
+    Optional<OrderIntakeRejection> findByOrderNumberAndTenantId(String orderNumber, String tenantId);
+}
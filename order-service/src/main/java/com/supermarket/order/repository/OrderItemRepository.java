@@ -0,0 +1,45 @@
+package com.supermarket.order.repository;
+
+import com.supermarket.order.dto.ProductOrderLine;
+import com.supermarket.order.entity.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    List<OrderItem> findByOrderId(Long orderId);
+
+    // The created_at bounds let PostgreSQL prune order_items partitions outside the page;
+    // items written before created_at was recorded are still matched
+    @Query("SELECT i FROM OrderItem i WHERE i.order.id IN :orderIds " +
+           "AND (i.createdAt IS NULL OR i.createdAt BETWEEN :from AND :to)")
+    List<OrderItem> findByOrderIdsCreatedBetween(@Param("orderIds") Collection<Long> orderIds,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.supermarket.order.dto.ProductOrderLine(o.id, SUM(i.quantity), " +
+           "SUM(i.totalPrice + COALESCE(i.taxAmount, 0))) " +
+           "FROM OrderItem i JOIN i.order o " +
+           "WHERE o.tenantId = :tenantId AND i.productId = :productId " +
+           "AND o.createdAt >= :from AND o.createdAt < :to " +
+           "AND (i.createdAt IS NULL OR i.createdAt >= :from) " +
+           "GROUP BY o.id ORDER BY o.id")
+    List<ProductOrderLine> findProductLines(@Param("tenantId") String tenantId,
+                                            @Param("productId") Long productId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderItem i SET i.reservationStatus = :status WHERE i.id = :id")
+    int updateReservationStatus(@Param("id") Long id, @Param("status") String status);
+}
@@ -4,18 +4,74 @@ import com.supermarket.order.entity.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
     Optional<Order> findByOrderNumberAndTenantId(String orderNumber, String tenantId);
+
+    // Equality on created_at lets PostgreSQL prune to the order's own partition
+    Optional<Order> findByIdAndCreatedAt(Long id, LocalDateTime createdAt);
     
     Page<Order> findByTenantId(String tenantId, Pageable pageable);
     
     Page<Order> findByTenantIdAndCustomerId(String tenantId, Long customerId, Pageable pageable);
     
     Page<Order> findByTenantIdAndStatus(String tenantId, String status, Pageable pageable);
+
+    /**
+     * Moves the order to {@code to} only if it is currently in one of {@code from}. Returns 0
+     * when another request changed the status first, without holding any lock.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.tenantId = :tenantId AND o.status IN :from")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("tenantId") String tenantId,
+                         @Param("to") String to,
+                         @Param("from") Collection<String> from,
+                         @Param("now") LocalDateTime now);
+
+    /**
+     * Cancels the order only if it is in one of {@code from} and its payment status is not one
+     * of {@code capturedPayments}, so a cancel cannot race past a payment that just succeeded.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = 'CANCELLED', o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.tenantId = :tenantId AND o.status IN :from " +
+           "AND (o.paymentStatus IS NULL OR o.paymentStatus NOT IN :capturedPayments)")
+    int cancel(@Param("id") Long id,
+               @Param("tenantId") String tenantId,
+               @Param("from") Collection<String> from,
+               @Param("capturedPayments") Collection<String> capturedPayments,
+               @Param("now") LocalDateTime now);
+
+    /**
+     * Payment counterpart of {@link #transitionStatus}. When {@code confirmFrom} is given, an
+     * order still in that status is confirmed by the same statement. A capture is refused once
+     * the order is cancelled, the mirror of {@link #cancel}, so of a payment and a cancellation
+     * racing each other exactly one applies.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.paymentStatus = :to, " +
+           "o.paymentTransactionId = COALESCE(:transactionId, o.paymentTransactionId), " +
+           "o.status = CASE WHEN o.status = :confirmFrom THEN 'CONFIRMED' ELSE o.status END, " +
+           "o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.tenantId = :tenantId AND o.paymentStatus IN :from " +
+           "AND (:to <> 'PAID' OR o.status <> 'CANCELLED')")
+    int transitionPaymentStatus(@Param("id") Long id,
+                                @Param("tenantId") String tenantId,
+                                @Param("to") String to,
+                                @Param("from") Collection<String> from,
+                                @Param("transactionId") String transactionId,
+                                @Param("confirmFrom") String confirmFrom,
+                                @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,100 @@
+package com.supermarket.order.repository;
+
+import com.supermarket.order.entity.OrderSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    Optional<OrderSummary> findByTenantIdAndOrderNumber(String tenantId, String orderNumber);
+
+    @Query(value = "SELECT * FROM order_summaries WHERE tenant_id = :tenantId " +
+                   "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<OrderSummary> findFirstPage(@Param("tenantId") String tenantId, @Param("limit") int limit);
+
+    // Row-value comparison lets PostgreSQL seek straight into the (tenant_id, created_at, id) index
+    @Query(value = "SELECT * FROM order_summaries WHERE tenant_id = :tenantId " +
+                   "AND (created_at, id) < (:createdAt, :id) " +
+                   "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<OrderSummary> findPageBefore(@Param("tenantId") String tenantId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM order_summaries WHERE tenant_id = :tenantId AND customer_id = :customerId " +
+                   "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<OrderSummary> findCustomerFirstPage(@Param("tenantId") String tenantId,
+                                             @Param("customerId") Long customerId,
+                                             @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM order_summaries WHERE tenant_id = :tenantId AND customer_id = :customerId " +
+                   "AND (created_at, id) < (:createdAt, :id) " +
+                   "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<OrderSummary> findCustomerPageBefore(@Param("tenantId") String tenantId,
+                                              @Param("customerId") Long customerId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              @Param("limit") int limit);
+
+    @Query(value = "SELECT count(*) FROM (SELECT 1 FROM order_summaries WHERE tenant_id = :tenantId " +
+                   "LIMIT :limit) capped", nativeQuery = true)
+    long countUpTo(@Param("tenantId") String tenantId, @Param("limit") int limit);
+
+    /**
+     * Planner estimate of a tenant's row count from table statistics. Large tenants appear among
+     * the column's most common values; returns null for tenants that do not.
+     */
+    @Query(value = "SELECT CAST(c.reltuples * s.most_common_freqs[" +
+                   "array_position(CAST(CAST(s.most_common_vals AS text) AS text[]), :tenantId)] AS bigint) " +
+                   "FROM pg_class c JOIN pg_stats s ON s.tablename = c.relname AND s.schemaname = current_schema() " +
+                   "WHERE c.relname = 'order_summaries' AND s.attname = 'tenant_id'", nativeQuery = true)
+    Long estimateCount(@Param("tenantId") String tenantId);
+
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.status = :status, s.paymentStatus = :paymentStatus, " +
+           "s.updatedAt = :updatedAt WHERE s.id = :id")
+    int updateStatus(@Param("id") Long id,
+                     @Param("status") String status,
+                     @Param("paymentStatus") String paymentStatus,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO order_summaries (id, tenant_id, order_number, customer_id, customer_name, " +
+                   "status, payment_status, total_amount, item_count, created_at, updated_at) " +
+                   "SELECT o.id, o.tenant_id, o.order_number, o.customer_id, o.customer_name, o.status, " +
+                   "o.payment_status, o.total_amount, " +
+                   "(SELECT count(*) FROM order_items i WHERE i.order_id = o.id), " +
+                   "COALESCE(o.created_at, now()), o.updated_at " +
+                   "FROM orders o WHERE NOT EXISTS (SELECT 1 FROM order_summaries s WHERE s.id = o.id) " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int backfillMissing();
+
+    /**
+     * Transaction-scoped advisory lock, so only one instance backfills at a time.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('order_summaries_backfill'))", nativeQuery = true)
+    boolean tryLockBackfill();
+
+    @Modifying
+    @Query(value = "CREATE TABLE IF NOT EXISTS order_read_model_backfills (" +
+                   "name varchar(100) PRIMARY KEY, completed_at timestamp NOT NULL)", nativeQuery = true)
+    void createBackfillMarkers();
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM order_read_model_backfills WHERE name = :name)", nativeQuery = true)
+    boolean isBackfillCompleted(@Param("name") String name);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_read_model_backfills (name, completed_at) VALUES (:name, now()) " +
+                   "ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    void markBackfillCompleted(@Param("name") String name);
+}
@@ -0,0 +1,320 @@
+package com.supermarket.order.service;
+
+import com.supermarket.common.dto.ApiResponse;
+import com.supermarket.order.client.InventoryClient;
+import com.supermarket.order.client.PaymentClient;
+import com.supermarket.order.dto.CheckoutResponse;
+import com.supermarket.order.dto.OrderRequest;
+import com.supermarket.order.dto.OrderResponse;
+import com.supermarket.order.entity.CheckoutSaga;
+import com.supermarket.order.entity.Order;
+import com.supermarket.order.entity.OrderItem;
+import com.supermarket.order.exception.OrderStateConflictException;
+import com.supermarket.order.repository.CheckoutSagaRepository;
+import com.supermarket.order.repository.OrderItemRepository;
+import feign.FeignException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Drives checkout across order, inventory and payment services: every line is reserved in
+ * parallel, the payment is taken once all reservations hold, and the order is then confirmed or
+ * its reservations are released. Saga state is persisted between steps so that a checkout
+ * interrupted by a crash can be resumed.
+ *
+ * <p>Steps are not wrapped in a transaction; each state change commits on its own so that the
+ * recorded state always reflects what the remote services have already done.
+ */
+@Service
+@Slf4j
+public class CheckoutSagaOrchestrator {
+
+    static final List<String> UNFINISHED = List.of(
+            CheckoutSaga.RESERVING, CheckoutSaga.PAYING, CheckoutSaga.COMPENSATING);
+
+    private final OrderService orderService;
+    private final CheckoutSagaRepository sagaRepository;
+    private final OrderItemRepository itemRepository;
+    private final InventoryClient inventoryClient;
+    private final PaymentClient paymentClient;
+    private final long leaseMs;
+    private final int recoveryBatchSize;
+    private final ExecutorService workers;
+
+    public CheckoutSagaOrchestrator(
+            OrderService orderService,
+            CheckoutSagaRepository sagaRepository,
+            OrderItemRepository itemRepository,
+            InventoryClient inventoryClient,
+            PaymentClient paymentClient,
+            @Value("${checkout.saga.lease-ms:120000}") long leaseMs,
+            @Value("${checkout.saga.recovery-batch-size:50}") int recoveryBatchSize,
+            @Value("${checkout.saga.workers:32}") int workers) {
+        this.orderService = orderService;
+        this.sagaRepository = sagaRepository;
+        this.itemRepository = itemRepository;
+        this.inventoryClient = inventoryClient;
+        this.paymentClient = paymentClient;
+        this.leaseMs = leaseMs;
+        this.recoveryBatchSize = recoveryBatchSize;
+        // Propagates the caller's security context so Feign can forward its bearer token
+        this.workers = new DelegatingSecurityContextExecutorService(
+                Executors.newFixedThreadPool(workers, r -> {
+                    Thread thread = new Thread(r, "checkout-saga");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    public CheckoutResponse checkout(OrderRequest request, String tenantId) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new RuntimeException("Checkout requires at least one item");
+        }
+        if (request.getPaymentMethod() == null) {
+            throw new RuntimeException("Checkout requires a payment method");
+        }
+
+        Order order = orderService.placeOrder(request, tenantId);
+
+        CheckoutSaga saga = new CheckoutSaga();
+        saga.setTenantId(tenantId);
+        saga.setOrderId(order.getId());
+        saga.setStatus(CheckoutSaga.RESERVING);
+        saga.setLeaseUntil(LocalDateTime.now().plus(leaseMs, ChronoUnit.MILLIS));
+        return run(sagaRepository.save(saga));
+    }
+
+    public CheckoutResponse resume(Long orderId, String tenantId) {
+        CheckoutSaga saga = sagaRepository.findByOrderIdAndTenantId(orderId, tenantId)
+                .orElseThrow(() -> new RuntimeException("Checkout not found"));
+        if (saga.isFinished()) {
+            return toResponse(saga);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (sagaRepository.claim(saga.getId(), now, now.plus(leaseMs, ChronoUnit.MILLIS)) == 0) {
+            throw new RuntimeException("Checkout is still in progress");
+        }
+        return run(sagaRepository.findById(saga.getId())
+                .orElseThrow(() -> new RuntimeException("Checkout not found")));
+    }
+
+    /**
+     * Resumes checkouts of the tenant whose owner stopped renewing its lease, typically because
+     * the instance running them went down. {@link CheckoutSagaRecoveryJob} does this for every
+     * tenant on a schedule; this runs it for one tenant right away.
+     */
+    public List<CheckoutResponse> recoverStale(String tenantId) {
+        List<CheckoutSaga> stale = sagaRepository.findByTenantIdAndStatusInAndLeaseUntilBefore(
+                tenantId, UNFINISHED, LocalDateTime.now(), PageRequest.of(0, recoveryBatchSize));
+
+        List<CheckoutResponse> recovered = new ArrayList<>();
+        for (CheckoutSaga saga : stale) {
+            try {
+                recovered.add(resume(saga.getOrderId(), tenantId));
+            } catch (RuntimeException e) {
+                log.warn("Could not resume checkout saga {}: {}", saga.getId(), e.getMessage());
+            }
+        }
+        return recovered;
+    }
+
+    @Transactional(readOnly = true)
+    public CheckoutResponse getCheckout(Long orderId, String tenantId) {
+        return toResponse(sagaRepository.findByOrderIdAndTenantId(orderId, tenantId)
+                .orElseThrow(() -> new RuntimeException("Checkout not found")));
+    }
+
+    private CheckoutResponse run(CheckoutSaga saga) {
+        OrderResponse order = orderService.getOrderById(saga.getOrderId(), saga.getTenantId());
+
+        while (!saga.isFinished()) {
+            boolean progressed = switch (saga.getStatus()) {
+                case CheckoutSaga.RESERVING -> reserve(saga);
+                case CheckoutSaga.PAYING -> pay(saga, order);
+                case CheckoutSaga.COMPENSATING -> compensate(saga);
+                default -> throw new IllegalStateException("Unknown checkout status " + saga.getStatus());
+            };
+            if (!progressed) {
+                // Outcome unknown (e.g. downstream timeout); leave the saga for a later resume
+                break;
+            }
+        }
+        return toResponse(saga);
+    }
+
+    private boolean reserve(CheckoutSaga saga) {
+        List<OrderItem> pending = itemRepository.findByOrderId(saga.getOrderId()).stream()
+                .filter(item -> item.getReservationStatus() == null)
+                .collect(Collectors.toList());
+
+        List<String> failures = forEachInParallel(pending, item -> {
+            inventoryClient.reserveStock(stockRequest(saga, item), saga.getTenantId());
+            itemRepository.updateReservationStatus(item.getId(), "RESERVED");
+        });
+
+        if (failures.isEmpty()) {
+            advance(saga, CheckoutSaga.PAYING, null);
+        } else {
+            advance(saga, CheckoutSaga.COMPENSATING, "Stock reservation failed: " + String.join("; ", failures));
+        }
+        return true;
+    }
+
+    private boolean pay(CheckoutSaga saga, OrderResponse order) {
+        Map<String, Object> payment;
+        try {
+            payment = saga.getAttempts() > 1 ? findExistingPayment(saga) : null;
+            if (payment == null) {
+                Map<String, Object> request = Map.of(
+                        "orderId", order.getId(),
+                        "orderNumber", order.getOrderNumber(),
+                        "amount", order.getTotalAmount(),
+                        "paymentMethod", order.getPaymentMethod());
+                // Keyed by saga, so a retried call cannot charge the order twice
+                payment = paymentClient.processPayment(request, saga.getTenantId(), "checkout-" + saga.getId()).getData();
+            }
+        } catch (RuntimeException e) {
+            // The charge may or may not have gone through, so compensating now could strand a paid order
+            log.warn("Payment outcome unknown for order {}: {}", saga.getOrderId(), e.getMessage());
+            saga.setFailureReason("Payment outcome unknown: " + e.getMessage());
+            sagaRepository.save(saga);
+            return false;
+        }
+
+        Object status = payment != null ? payment.get("status") : null;
+        if ("SUCCESS".equals(status)) {
+            String transactionId = String.valueOf(payment.get("transactionId"));
+            saga.setPaymentTransactionId(transactionId);
+            try {
+                orderService.updatePaymentStatus(saga.getOrderId(), "PAID", transactionId, saga.getTenantId());
+            } catch (OrderStateConflictException e) {
+                // Cancelled while the charge was in flight; the cancellation stands and the money goes back
+                log.warn("Order {} was cancelled during payment; payment {} needs a refund", saga.getOrderId(), transactionId);
+                advance(saga, CheckoutSaga.COMPENSATING, "Order cancelled during payment; refund " + transactionId);
+                return true;
+            }
+            advance(saga, CheckoutSaga.COMPLETED, null);
+        } else if ("FAILED".equals(status)) {
+            advance(saga, CheckoutSaga.COMPENSATING, "Payment declined");
+        } else {
+            // PROCESSING until payment-service learns the outcome from the gateway; retried later
+            log.info("Payment for order {} not settled yet ({})", saga.getOrderId(), status);
+            saga.setFailureReason("Payment not settled yet: " + status);
+            sagaRepository.save(saga);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Releases every line that is not known to be released, including lines whose reserve call
+     * failed: a timed-out reserve may still have been applied. Releases are keyed like the
+     * reservations, so inventory ignores repeats and refuses a reserve that arrives afterwards.
+     */
+    private boolean compensate(CheckoutSaga saga) {
+        List<OrderItem> attempted = itemRepository.findByOrderId(saga.getOrderId()).stream()
+                .filter(item -> !"RELEASED".equals(item.getReservationStatus()))
+                .collect(Collectors.toList());
+
+        List<String> failures = forEachInParallel(attempted, item -> {
+            inventoryClient.releaseStock(stockRequest(saga, item), saga.getTenantId());
+            itemRepository.updateReservationStatus(item.getId(), "RELEASED");
+        });
+
+        if (!failures.isEmpty()) {
+            log.warn("Releasing stock for order {} failed: {}", saga.getOrderId(), failures);
+            return false;
+        }
+
+        orderService.cancelCheckout(saga.getOrderId(), saga.getTenantId());
+        advance(saga, CheckoutSaga.COMPENSATED, saga.getFailureReason());
+        return true;
+    }
+
+    /**
+     * Runs the action for every item concurrently and waits for all of them to settle, so that
+     * compensation never starts while a reservation is still in flight. Feign timeouts bound
+     * each call.
+     */
+    private List<String> forEachInParallel(List<OrderItem> items, Consumer<OrderItem> action) {
+        List<CompletableFuture<String>> futures = items.stream()
+                .map(item -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        action.accept(item);
+                        return null;
+                    } catch (RuntimeException e) {
+                        return "product " + item.getProductId() + ": " + e.getMessage();
+                    }
+                }, workers))
+                .collect(Collectors.toList());
+
+        List<String> failures = new ArrayList<>();
+        for (CompletableFuture<String> future : futures) {
+            try {
+                String failure = future.join();
+                if (failure != null) {
+                    failures.add(failure);
+                }
+            } catch (CompletionException e) {
+                failures.add(e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+        }
+        return failures;
+    }
+
+    private Map<String, Object> findExistingPayment(CheckoutSaga saga) {
+        try {
+            ApiResponse<Map<String, Object>> existing = paymentClient.getPaymentByOrder(saga.getOrderId(), saga.getTenantId());
+            return existing != null ? existing.getData() : null;
+        } catch (FeignException.NotFound e) {
+            return null;
+        }
+    }
+
+    private void advance(CheckoutSaga saga, String status, String failureReason) {
+        saga.setStatus(status);
+        saga.setFailureReason(failureReason);
+        // Each step renews the lease, so a long checkout is not taken over by recovery mid-run
+        saga.setLeaseUntil(LocalDateTime.now().plus(leaseMs, ChronoUnit.MILLIS));
+        sagaRepository.save(saga);
+    }
+
+    private Map<String, Object> stockRequest(CheckoutSaga saga, OrderItem item) {
+        return Map.of(
+                "productId", item.getProductId(),
+                "quantity", item.getQuantity(),
+                "reservationKey", "checkout-" + saga.getId() + "-" + item.getId());
+    }
+
+    private CheckoutResponse toResponse(CheckoutSaga saga) {
+        CheckoutResponse response = new CheckoutResponse();
+        response.setSagaId(saga.getId());
+        response.setStatus(saga.getStatus());
+        response.setFailureReason(saga.getFailureReason());
+        response.setOrder(orderService.getOrderById(saga.getOrderId(), saga.getTenantId()));
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
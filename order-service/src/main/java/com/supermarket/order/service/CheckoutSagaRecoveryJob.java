@@ -0,0 +1,55 @@
+package com.supermarket.order.service;
+
+import com.supermarket.order.entity.CheckoutSaga;
+import com.supermarket.order.repository.CheckoutSagaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resumes checkouts of every tenant whose lease has lapsed, typically because the instance
+ * running them went down, so they are driven to completion or compensated without waiting for
+ * an admin. Instances may run this concurrently; resuming claims the lease first, so each saga
+ * is picked up by one of them. Downstream calls use the service account token.
+ */
+@Component
+@Slf4j
+public class CheckoutSagaRecoveryJob {
+
+    private final CheckoutSagaRepository sagaRepository;
+    private final CheckoutSagaOrchestrator orchestrator;
+    private final int batchSize;
+
+    public CheckoutSagaRecoveryJob(CheckoutSagaRepository sagaRepository,
+                                   CheckoutSagaOrchestrator orchestrator,
+                                   @Value("${checkout.saga.recovery-batch-size:50}") int batchSize) {
+        this.sagaRepository = sagaRepository;
+        this.orchestrator = orchestrator;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${checkout.saga.recovery-interval-ms:60000}")
+    public void recoverStaleSagas() {
+        List<CheckoutSaga> stale = sagaRepository.findByStatusInAndLeaseUntilBeforeOrderByLeaseUntilAsc(
+                CheckoutSagaOrchestrator.UNFINISHED, LocalDateTime.now(), PageRequest.of(0, batchSize));
+        int finished = 0;
+        for (CheckoutSaga saga : stale) {
+            try {
+                String status = orchestrator.resume(saga.getOrderId(), saga.getTenantId()).getStatus();
+                if (CheckoutSaga.COMPLETED.equals(status) || CheckoutSaga.COMPENSATED.equals(status)) {
+                    finished++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not resume checkout saga {}: {}", saga.getId(), e.getMessage());
+            }
+        }
+        if (!stale.isEmpty()) {
+            log.info("Resumed {} stale checkout sagas, {} finished", stale.size(), finished);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.supermarket.order.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the orders of a tenant, with their items, for a creation-date range. Rows are read
+ * through a server-side cursor ({@code fetchSize} rows at a time, which PostgreSQL only honours
+ * inside a transaction) and written straight into a gzip stream, so heap use does not depend on
+ * the size of the range.
+ */
+@Service
+@Slf4j
+public class OrderExportService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final String[] CSV_HEADER = {
+            "order_id", "order_number", "created_at", "customer_id", "customer_name", "status",
+            "payment_status", "payment_method", "subtotal", "discount_amount", "tax_amount", "total_amount",
+            "product_id", "product_sku", "product_name", "quantity", "unit_price", "discount",
+            "tax_code", "item_tax_amount", "item_total"
+    };
+
+    // Items are joined within the same range so that only the matching order_items partitions are scanned
+    private static final String EXPORT_SQL =
+            "SELECT o.id, o.order_number, o.created_at, o.customer_id, o.customer_name, o.status, " +
+            "o.payment_status, o.payment_method, o.subtotal, o.discount_amount, o.tax_amount, o.total_amount, " +
+            "i.product_id, i.product_sku, i.product_name, i.quantity, i.unit_price, i.discount, " +
+            "i.tax_code, i.tax_amount AS item_tax_amount, i.total_price " +
+            "FROM orders o LEFT JOIN order_items i ON i.order_id = o.id " +
+            "AND (i.created_at IS NULL OR (i.created_at >= ? AND i.created_at < ?)) " +
+            "WHERE o.tenant_id = ? AND o.created_at >= ? AND o.created_at < ? " +
+            "ORDER BY o.created_at, o.id, i.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration maxRange;
+
+    public OrderExportService(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${order.export.fetch-size:1000}") int fetchSize,
+            @Value("${order.export.max-range-days:93}") long maxRangeDays) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.maxRange = Duration.ofDays(maxRangeDays);
+    }
+
+    public void validate(LocalDateTime from, LocalDateTime to, String format) {
+        if (!CSV.equals(format) && !NDJSON.equals(format)) {
+            throw new RuntimeException("Unsupported export format: " + format);
+        }
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("Export range must end after it starts");
+        }
+        if (Duration.between(from, to).compareTo(maxRange) > 0) {
+            throw new RuntimeException("Export range cannot exceed " + maxRange.toDays() + " days");
+        }
+    }
+
+    /**
+     * Writes the export gzipped to {@code out}. The caller owns {@code out}; it is finished but
+     * not closed.
+     */
+    public long export(String tenantId, LocalDateTime from, LocalDateTime to, String format, OutputStream out)
+            throws IOException {
+        validate(from, to, format);
+
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+        RowWriter writer = CSV.equals(format) ? new CsvRowWriter(gzip) : new NdjsonRowWriter(gzip);
+        Timestamp start = Timestamp.valueOf(from);
+        Timestamp end = Timestamp.valueOf(to);
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.query(EXPORT_SQL, writer, start, end, tenantId, start, end));
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor and transaction are already released
+            throw e.getCause();
+        }
+        gzip.finish();
+        log.info("Exported {} orders for tenant {} ({} to {}, {})", writer.orders, tenantId, from, to, format);
+        return writer.orders;
+    }
+
+    private abstract static class RowWriter implements RowCallbackHandler {
+
+        long orders;
+        private long currentOrderId = -1;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long orderId = rs.getLong("id");
+            try {
+                if (orderId != currentOrderId) {
+                    if (currentOrderId != -1) {
+                        endOrder();
+                    }
+                    currentOrderId = orderId;
+                    orders++;
+                    startOrder(rs);
+                }
+                writeItem(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            if (currentOrderId != -1) {
+                endOrder();
+            }
+            flush();
+        }
+
+        abstract void startOrder(ResultSet rs) throws SQLException, IOException;
+
+        /** Called for every row; the item columns are null for an order without items. */
+        abstract void writeItem(ResultSet rs) throws SQLException, IOException;
+
+        abstract void endOrder() throws IOException;
+
+        abstract void flush() throws IOException;
+    }
+
+    /** One line per item, with the order columns repeated; orders without items get one line. */
+    private static final class CsvRowWriter extends RowWriter {
+
+        private final Writer out;
+        private final String[] orderColumns = new String[12];
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+            writeFields(CSV_HEADER);
+            this.out.write('\n');
+        }
+
+        @Override
+        void startOrder(ResultSet rs) throws SQLException {
+            orderColumns[0] = rs.getString("id");
+            orderColumns[1] = rs.getString("order_number");
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            orderColumns[2] = createdAt != null ? createdAt.toLocalDateTime().toString() : null;
+            orderColumns[3] = rs.getString("customer_id");
+            orderColumns[4] = rs.getString("customer_name");
+            orderColumns[5] = rs.getString("status");
+            orderColumns[6] = rs.getString("payment_status");
+            orderColumns[7] = rs.getString("payment_method");
+            orderColumns[8] = plain(rs.getBigDecimal("subtotal"));
+            orderColumns[9] = plain(rs.getBigDecimal("discount_amount"));
+            orderColumns[10] = plain(rs.getBigDecimal("tax_amount"));
+            orderColumns[11] = plain(rs.getBigDecimal("total_amount"));
+        }
+
+        @Override
+        void writeItem(ResultSet rs) throws SQLException, IOException {
+            writeFields(orderColumns);
+            out.write(',');
+            writeFields(rs.getString("product_id"), rs.getString("product_sku"), rs.getString("product_name"),
+                    rs.getString("quantity"), plain(rs.getBigDecimal("unit_price")),
+                    plain(rs.getBigDecimal("discount")), rs.getString("tax_code"),
+                    plain(rs.getBigDecimal("item_tax_amount")), plain(rs.getBigDecimal("total_price")));
+            out.write('\n');
+        }
+
+        @Override
+        void endOrder() {
+        }
+
+        @Override
+        void flush() throws IOException {
+            out.flush();
+        }
+
+        private void writeFields(String... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeField(values[i]);
+            }
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+
+    /** One JSON object per order, with its items nested. */
+    private final class NdjsonRowWriter extends RowWriter {
+
+        private final JsonGenerator json;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Records are separated by the explicit newline below
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        void startOrder(ResultSet rs) throws SQLException, IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", rs.getLong("id"));
+            json.writeStringField("orderNumber", rs.getString("order_number"));
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            json.writeStringField("createdAt", createdAt != null ? createdAt.toLocalDateTime().toString() : null);
+            json.writeNumberField("customerId", rs.getLong("customer_id"));
+            json.writeStringField("customerName", rs.getString("customer_name"));
+            json.writeStringField("status", rs.getString("status"));
+            json.writeStringField("paymentStatus", rs.getString("payment_status"));
+            json.writeStringField("paymentMethod", rs.getString("payment_method"));
+            writeDecimal("subtotal", rs.getBigDecimal("subtotal"));
+            writeDecimal("discountAmount", rs.getBigDecimal("discount_amount"));
+            writeDecimal("taxAmount", rs.getBigDecimal("tax_amount"));
+            writeDecimal("totalAmount", rs.getBigDecimal("total_amount"));
+            json.writeArrayFieldStart("items");
+        }
+
+        @Override
+        void writeItem(ResultSet rs) throws SQLException, IOException {
+            long productId = rs.getLong("product_id");
+            if (rs.wasNull()) {
+                return;
+            }
+            json.writeStartObject();
+            json.writeNumberField("productId", productId);
+            json.writeStringField("productSku", rs.getString("product_sku"));
+            json.writeStringField("productName", rs.getString("product_name"));
+            json.writeNumberField("quantity", rs.getInt("quantity"));
+            writeDecimal("unitPrice", rs.getBigDecimal("unit_price"));
+            writeDecimal("discount", rs.getBigDecimal("discount"));
+            json.writeStringField("taxCode", rs.getString("tax_code"));
+            writeDecimal("taxAmount", rs.getBigDecimal("item_tax_amount"));
+            writeDecimal("totalPrice", rs.getBigDecimal("total_price"));
+            json.writeEndObject();
+        }
+
+        @Override
+        void endOrder() throws IOException {
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        void flush() throws IOException {
+            json.flush();
+        }
+
+        private void writeDecimal(String name, BigDecimal value) throws IOException {
+            if (value == null) {
+                json.writeNullField(name);
+            } else {
+                json.writeNumberField(name, value);
+            }
+        }
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : null;
+    }
+}
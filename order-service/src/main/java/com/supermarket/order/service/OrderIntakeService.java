@@ -0,0 +1,127 @@
+package com.supermarket.order.service;
+
+import com.supermarket.common.util.UniqueIdGenerator;
+import com.supermarket.order.dto.OrderIntakeMessage;
+import com.supermarket.order.dto.OrderIntakeResponse;
+import com.supermarket.order.dto.OrderRequest;
+import com.supermarket.order.dto.OrderResponse;
+import com.supermarket.order.repository.OrderIntakeRejectionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Asynchronous order intake for traffic peaks. Requests are validated and numbered up front,
+ * appended to a Kafka topic and acknowledged with 202; a bounded consumer pool then writes
+ * them at the rate the database can sustain. The topic absorbs bursts, and an order is only
+ * acknowledged once the broker has confirmed the append.
+ */
+@Service
+@Slf4j
+public class OrderIntakeService {
+
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_CREATED = "CREATED";
+    public static final String STATUS_REJECTED = "REJECTED";
+
+    private final OrderService orderService;
+    private final OrderIntakeRejectionRepository rejectionRepository;
+    private final KafkaTemplate<String, OrderIntakeMessage> kafkaTemplate;
+    private final UniqueIdGenerator idGenerator;
+    private final String topic;
+    private final long sendTimeoutMs;
+
+    public OrderIntakeService(
+            OrderService orderService,
+            OrderIntakeRejectionRepository rejectionRepository,
+            KafkaTemplate<String, OrderIntakeMessage> kafkaTemplate,
+            UniqueIdGenerator idGenerator,
+            @Value("${order.intake.topic:order-intake}") String topic,
+            @Value("${order.intake.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this.orderService = orderService;
+        this.rejectionRepository = rejectionRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.idGenerator = idGenerator;
+        this.topic = topic;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    public OrderIntakeResponse submit(OrderRequest request, String tenantId) {
+        orderService.validateOrder(request);
+
+        OrderIntakeMessage message = new OrderIntakeMessage();
+        message.setOrderNumber(idGenerator.next("ORD"));
+        message.setTenantId(tenantId);
+        message.setAcceptedAt(LocalDateTime.now());
+        message.setRequest(request);
+
+        try {
+            kafkaTemplate.send(topic, message.getOrderNumber(), message).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Order intake is unavailable, please retry", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Order intake interrupted", e);
+        }
+
+        OrderIntakeResponse response = new OrderIntakeResponse();
+        response.setOrderNumber(message.getOrderNumber());
+        response.setStatus(STATUS_QUEUED);
+        return response;
+    }
+
+    public OrderIntakeResponse getStatus(String orderNumber, String tenantId) {
+        OrderIntakeResponse response = new OrderIntakeResponse();
+        response.setOrderNumber(orderNumber);
+
+        Optional<OrderResponse> order = orderService.findOrderByNumber(orderNumber, tenantId);
+        if (order.isPresent()) {
+            response.setStatus(STATUS_CREATED);
+            response.setOrder(order.get());
+            return response;
+        }
+
+        rejectionRepository.findByOrderNumberAndTenantId(orderNumber, tenantId).ifPresentOrElse(
+                rejection -> {
+                    response.setStatus(STATUS_REJECTED);
+                    response.setReason(rejection.getReason());
+                },
+                () -> response.setStatus(STATUS_QUEUED));
+        return response;
+    }
+
+    /**
+     * Failures propagate to the container's error handler, which retries with backoff and then
+     * records a rejection and dead-letters the message. The order keeps the time it was accepted
+     * as its creation time, however long it waited in the topic.
+     */
+    @KafkaListener(topics = "${order.intake.topic:order-intake}", groupId = "order-service-intake",
+            concurrency = "${order.intake.consumers:4}")
+    public void consume(OrderIntakeMessage message) {
+        // Redelivery after a rebalance must not create the order twice
+        if (orderService.findOrderByNumber(message.getOrderNumber(), message.getTenantId()).isPresent()) {
+            log.debug("Order {} already persisted, skipping redelivery", message.getOrderNumber());
+            return;
+        }
+        try {
+            orderService.placeOrder(message.getRequest(), message.getTenantId(), message.getOrderNumber(),
+                    message.getAcceptedAt());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent redelivery won the unique (tenant_id, order_number) constraint
+            if (orderService.findOrderByNumber(message.getOrderNumber(), message.getTenantId()).isPresent()) {
+                log.debug("Order {} persisted concurrently, skipping redelivery", message.getOrderNumber());
+                return;
+            }
+            throw e;
+        }
+    }
+}
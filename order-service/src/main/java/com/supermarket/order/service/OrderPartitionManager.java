@@ -0,0 +1,173 @@
+package com.supermarket.order.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly range partitions of {@code orders} and {@code order_items} once they have
+ * been converted with {@code db/partition-orders.sql}: partitions are created ahead of time, and
+ * partitions past the retention window are moved, with their indexes, to the archive tablespace.
+ * They stay attached, so archived orders are still found by every lookup and list view. Moving a
+ * partition rewrites it under an exclusive lock on that partition only: new orders go to the
+ * current month and are not held up, while a lookup that has to scan the partition waits for
+ * the move. PostgreSQL does not compress the rows; any saving comes from where the tablespace
+ * lives, such as cheaper disks or a filesystem with compression.
+ *
+ * <p>Only the instance holding the maintenance advisory lock does any work. Does nothing while
+ * the tables are not partitioned.
+ */
+@Component
+@Slf4j
+public class OrderPartitionManager {
+
+    private static final List<String> TABLES = List.of("orders", "order_items");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("^(orders|order_items)_p(\\d{4})_(\\d{2})$");
+    private static final String MAINTENANCE_LOCK = "hashtext('order_partition_maintenance')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+    private final String archiveTablespace;
+
+    public OrderPartitionManager(
+            JdbcTemplate jdbcTemplate,
+            @Value("${order.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${order.partitions.archive-after-months:12}") int archiveAfterMonths,
+            @Value("${order.partitions.archive-tablespace:}") String archiveTablespace) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+        this.archiveTablespace = archiveTablespace;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    /**
+     * Holds a session advisory lock on a dedicated connection for the whole run; it is released
+     * when the run ends or, if the instance dies, when the connection closes.
+     */
+    @Scheduled(cron = "${order.partitions.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        jdbcTemplate.execute((Statement lockStatement) -> {
+            boolean locked;
+            try (ResultSet rs = lockStatement.executeQuery("SELECT pg_try_advisory_lock(" + MAINTENANCE_LOCK + ")")) {
+                locked = rs.next() && rs.getBoolean(1);
+            }
+            if (!locked) {
+                log.debug("Partition maintenance is running on another instance");
+                return null;
+            }
+            try {
+                maintainTables();
+            } finally {
+                lockStatement.execute("SELECT pg_advisory_unlock(" + MAINTENANCE_LOCK + ")");
+            }
+            return null;
+        });
+    }
+
+    private void maintainTables() {
+        for (String table : TABLES) {
+            if (!isPartitioned(table)) {
+                continue;
+            }
+            try {
+                createFuturePartitions(table);
+                archiveOldPartitions(table);
+            } catch (DataAccessException e) {
+                log.error("Partition maintenance failed for {}", table, e);
+            }
+        }
+    }
+
+    private void createFuturePartitions(String table) {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            LocalDate from = month.atDay(1);
+            LocalDate to = month.plusMonths(1).atDay(1);
+            // Identifiers are built from a fixed table list and a formatted date only
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(table, month) +
+                    " PARTITION OF " + table + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        }
+    }
+
+    private void archiveOldPartitions(String table) {
+        if (archiveTablespace == null || archiveTablespace.isBlank()) {
+            return;
+        }
+        YearMonth cutoff = YearMonth.now().minusMonths(archiveAfterMonths);
+        // Partitions already in the archive tablespace are skipped, so a run only moves new ones
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "LEFT JOIN pg_tablespace t ON t.oid = c.reltablespace " +
+                "WHERE p.relname = ? AND p.relnamespace = current_schema()::regnamespace " +
+                "AND t.spcname IS DISTINCT FROM ?",
+                String.class, table, archiveTablespace);
+
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)));
+            if (month.isBefore(cutoff)) {
+                archive(partition);
+            }
+        }
+    }
+
+    /**
+     * Moves a partition's indexes and then the partition itself, each its own statement, so the
+     * lock is held for one rewrite at a time. The table moves last: an interrupted run leaves it
+     * outside the archive tablespace and the next run finishes the job.
+     */
+    private void archive(String partition) {
+        String tablespace = quoteIdentifier(archiveTablespace);
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema() AND tablename = ?",
+                String.class, partition);
+        for (String index : indexes) {
+            jdbcTemplate.execute("ALTER INDEX " + quoteIdentifier(index) + " SET TABLESPACE " + tablespace);
+        }
+        jdbcTemplate.execute("ALTER TABLE " + partition + " SET TABLESPACE " + tablespace);
+        log.info("Moved partition {} and {} indexes to tablespace {}", partition, indexes.size(), archiveTablespace);
+    }
+
+    private boolean isPartitioned(String table) {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid " +
+                "WHERE c.relname = ? AND c.relnamespace = current_schema()::regnamespace)",
+                Boolean.class, table);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    private static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    private static String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
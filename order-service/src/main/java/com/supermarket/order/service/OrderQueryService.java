@@ -0,0 +1,252 @@
+package com.supermarket.order.service;
+
+import com.supermarket.order.dto.OrderSummaryPage;
+import com.supermarket.order.dto.OrderSummaryResponse;
+import com.supermarket.order.dto.ProductOrderLine;
+import com.supermarket.order.entity.OrderItem;
+import com.supermarket.order.entity.OrderSummary;
+import com.supermarket.order.repository.OrderItemRepository;
+import com.supermarket.order.repository.OrderSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Serves order lists from the {@code order_summaries} read model. Pages are addressed by an
+ * opaque keyset cursor over (createdAt, id) so that deep pages cost the same as the first, and
+ * totals fall back to a planner estimate once a tenant outgrows an exact count.
+ */
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class OrderQueryService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String SUMMARY_BACKFILL = "order_summaries";
+    private static final String CUSTOMER_INDEX = "idx_order_summaries_customer";
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int exactCountLimit;
+    private final boolean backfillOnStartup;
+
+    public OrderQueryService(
+            OrderSummaryRepository orderSummaryRepository,
+            OrderItemRepository orderItemRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${order.read-model.exact-count-limit:10000}") int exactCountLimit,
+            @Value("${order.read-model.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.exactCountLimit = exactCountLimit;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    public OrderSummaryPage listOrders(String tenantId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        List<OrderSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderSummaryRepository.findFirstPage(tenantId, limit + 1);
+        } else {
+            Cursor position = decodeCursor(cursor);
+            rows = orderSummaryRepository.findPageBefore(tenantId, position.createdAt(), position.id(), limit + 1);
+        }
+
+        OrderSummaryPage page = toPage(rows, limit);
+        if (cursor == null || cursor.isBlank()) {
+            applyCount(page, tenantId);
+        }
+        return page;
+    }
+
+    /**
+     * A customer's orders, newest first, with their items. Items for the whole page are loaded
+     * in one query rather than lazily per order.
+     */
+    public OrderSummaryPage getCustomerHistory(String tenantId, Long customerId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        List<OrderSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderSummaryRepository.findCustomerFirstPage(tenantId, customerId, limit + 1);
+        } else {
+            Cursor position = decodeCursor(cursor);
+            rows = orderSummaryRepository.findCustomerPageBefore(
+                    tenantId, customerId, position.createdAt(), position.id(), limit + 1);
+        }
+
+        OrderSummaryPage page = toPage(rows, limit);
+        if (page.getItems().isEmpty()) {
+            return page;
+        }
+
+        Map<Long, OrderSummaryResponse> byId = new HashMap<>();
+        LocalDateTime oldest = null;
+        LocalDateTime newest = null;
+        for (OrderSummaryResponse order : page.getItems()) {
+            order.setItems(new ArrayList<>());
+            byId.put(order.getId(), order);
+            oldest = oldest == null || order.getCreatedAt().isBefore(oldest) ? order.getCreatedAt() : oldest;
+            newest = newest == null || order.getCreatedAt().isAfter(newest) ? order.getCreatedAt() : newest;
+        }
+        for (OrderItem item : orderItemRepository.findByOrderIdsCreatedBetween(byId.keySet(), oldest, newest)) {
+            byId.get(item.getOrder().getId()).getItems().add(OrderService.mapItemToResponse(item));
+        }
+        return page;
+    }
+
+    /**
+     * Per-order spend on a product among orders placed in [from, to), e.g. to size the refunds
+     * of a recall.
+     */
+    public List<ProductOrderLine> getProductLines(String tenantId, Long productId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("'from' must be before 'to'");
+        }
+        return orderItemRepository.findProductLines(tenantId, productId, from, to);
+    }
+
+    private OrderSummaryPage toPage(List<OrderSummary> rows, int limit) {
+        // Queries fetch one extra row, which tells whether another page exists without a count
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+
+        OrderSummaryPage page = new OrderSummaryPage();
+        page.setItems(rows.stream().map(this::mapToResponse).collect(Collectors.toList()));
+        if (hasMore) {
+            OrderSummary last = rows.get(rows.size() - 1);
+            page.setNextCursor(encodeCursor(last.getCreatedAt(), last.getId()));
+        }
+        return page;
+    }
+
+    private void applyCount(OrderSummaryPage page, String tenantId) {
+        long counted = orderSummaryRepository.countUpTo(tenantId, exactCountLimit + 1);
+        if (counted <= exactCountLimit) {
+            page.setTotalCount(counted);
+            page.setCountEstimated(false);
+            return;
+        }
+        Long estimate = orderSummaryRepository.estimateCount(tenantId);
+        page.setTotalCount(estimate != null && estimate > exactCountLimit ? estimate : (long) exactCountLimit);
+        page.setCountEstimated(true);
+    }
+
+    /**
+     * Backfills summaries for orders written before the read model existed. Runs once per
+     * database: the first instance to take the advisory lock does the work and records a marker,
+     * and every later start, or a concurrent one, skips it. New orders maintain their summaries
+     * as they are written.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void prepareReadModel() {
+        if (!backfillOnStartup || !orderSummaryRepository.tryLockBackfill()) {
+            return;
+        }
+        orderSummaryRepository.createBackfillMarkers();
+        if (orderSummaryRepository.isBackfillCompleted(SUMMARY_BACKFILL)) {
+            return;
+        }
+        int inserted = orderSummaryRepository.backfillMissing();
+        orderSummaryRepository.markBackfillCompleted(SUMMARY_BACKFILL);
+        log.info("Backfilled {} order summaries", inserted);
+    }
+
+    /**
+     * Covering index for customer history: the key serves the keyset seek and the included
+     * columns let PostgreSQL answer the page with an index-only scan. Hibernate's index mapping
+     * cannot express INCLUDE, hence the explicit DDL. Built CONCURRENTLY, outside any
+     * transaction, so order writes continue while it builds; a build that was interrupted
+     * leaves an invalid index, which is dropped and rebuilt. The session advisory lock keeps
+     * a second instance from dropping an index that is still being built.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void createCustomerHistoryIndex() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                try (ResultSet locked = statement.executeQuery(
+                        "SELECT pg_try_advisory_lock(hashtext('" + CUSTOMER_INDEX + "'))")) {
+                    if (!locked.next() || !locked.getBoolean(1)) {
+                        return null;
+                    }
+                }
+                try {
+                    boolean invalid;
+                    try (ResultSet index = statement.executeQuery(
+                            "SELECT NOT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                            "WHERE c.relname = '" + CUSTOMER_INDEX + "' " +
+                            "AND c.relnamespace = to_regnamespace(current_schema())")) {
+                        invalid = index.next() && index.getBoolean(1);
+                    }
+                    if (invalid) {
+                        log.warn("Rebuilding invalid index {}", CUSTOMER_INDEX);
+                        statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + CUSTOMER_INDEX);
+                    }
+                    statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + CUSTOMER_INDEX + " ON order_summaries " +
+                            "(tenant_id, customer_id, created_at DESC, id DESC) " +
+                            "INCLUDE (order_number, customer_name, status, payment_status, total_amount, item_count, updated_at)");
+                } finally {
+                    statement.execute("SELECT pg_advisory_unlock(hashtext('" + CUSTOMER_INDEX + "'))");
+                }
+            }
+            return null;
+        });
+    }
+
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    private OrderSummaryResponse mapToResponse(OrderSummary summary) {
+        OrderSummaryResponse response = new OrderSummaryResponse();
+        response.setId(summary.getId());
+        response.setOrderNumber(summary.getOrderNumber());
+        response.setCustomerId(summary.getCustomerId());
+        response.setCustomerName(summary.getCustomerName());
+        response.setStatus(summary.getStatus());
+        response.setPaymentStatus(summary.getPaymentStatus());
+        response.setTotalAmount(summary.getTotalAmount());
+        response.setItemCount(summary.getItemCount());
+        response.setCreatedAt(summary.getCreatedAt());
+        response.setUpdatedAt(summary.getUpdatedAt());
+        return response;
+    }
+
+    private record Cursor(LocalDateTime createdAt, Long id) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.supermarket.order.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves {@code orders_seq} and {@code order_items_seq} past the highest existing id. Rows written
+ * while the tables still used IDENTITY columns would otherwise collide with the first ids handed
+ * out by the sequences. Runs before the web server and Kafka listeners start, after Hibernate has
+ * created the sequences. A sequence that is already past the highest id is left alone, and one
+ * that is behind is advanced with {@code nextval} rather than {@code setval}, so an instance
+ * drawing ids at the same time can never see it move backwards.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class OrderSequenceInitializer {
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_items_seq", "order_items");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void reseed() {
+        for (Map.Entry<String, String> sequence : SEQUENCES.entrySet()) {
+            // Identifiers come from the fixed map above; draws just enough blocks to pass max(id)
+            Long value = jdbcTemplate.queryForObject(
+                    "SELECT max(nextval('" + sequence.getKey() + "')) " +
+                    "FROM (SELECT COALESCE(max(id), 0) AS max_id FROM " + sequence.getValue() + ") m " +
+                    "JOIN pg_sequences s ON s.schemaname = current_schema() AND s.sequencename = '" + sequence.getKey() + "' " +
+                    "CROSS JOIN LATERAL generate_series(1, " +
+                    "CEIL((m.max_id - COALESCE(s.last_value, 0))::numeric / s.increment_by)::bigint) g " +
+                    "WHERE m.max_id > COALESCE(s.last_value, 0)",
+                    Long.class);
+            if (value != null) {
+                log.info("Sequence {} advanced to {}", sequence.getKey(), value);
+            }
+        }
+    }
+}
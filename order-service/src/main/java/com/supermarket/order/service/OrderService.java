@@ -1,46 +1,117 @@
 package com.supermarket.order.service;
 
+import com.supermarket.common.util.UniqueIdGenerator;
+import com.supermarket.order.dto.OrderItemRequest;
+import com.supermarket.order.dto.OrderItemResponse;
 import com.supermarket.order.dto.OrderRequest;
 import com.supermarket.order.dto.OrderResponse;
 import com.supermarket.order.entity.Order;
 import com.supermarket.order.entity.OrderItem;
+import com.supermarket.order.entity.OrderSummary;
+import com.supermarket.order.event.OrderStatusChangedEvent;
+import com.supermarket.order.exception.OrderStateConflictException;
+import com.supermarket.order.pricing.OrderTotals;
+import com.supermarket.order.pricing.OrderTotalsCalculator;
 import com.supermarket.order.repository.OrderRepository;
+import com.supermarket.order.repository.OrderSummaryRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.UUID;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class OrderService {
 
     private final OrderRepository orderRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderTotalsCalculator orderTotalsCalculator;
+    private final UniqueIdGenerator idGenerator;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public OrderService(OrderRepository orderRepository) {
+    public OrderService(OrderRepository orderRepository,
+                        OrderSummaryRepository orderSummaryRepository,
+                        OrderTotalsCalculator orderTotalsCalculator,
+                        UniqueIdGenerator idGenerator,
+                        ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.orderTotalsCalculator = orderTotalsCalculator;
+        this.idGenerator = idGenerator;
+        this.eventPublisher = eventPublisher;
     }
 
     public OrderResponse createOrder(OrderRequest request, String tenantId) {
+        return mapToResponseWithItems(placeOrder(request, tenantId));
+    }
+
+    public Order placeOrder(OrderRequest request, String tenantId) {
+        return placeOrder(request, tenantId, idGenerator.next("ORD"), null);
+    }
+
+    /**
+     * Persists an order under a number and creation time assigned earlier, e.g. when it was
+     * accepted by the intake queue before being written. A null {@code createdAt} means now.
+     */
+    public Order placeOrder(OrderRequest request, String tenantId, String orderNumber, LocalDateTime createdAt) {
         Order order = new Order();
         order.setTenantId(tenantId);
-        order.setOrderNumber("ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        order.setOrderNumber(orderNumber);
+        order.setCreatedAt(createdAt);
         order.setCustomerId(request.getCustomerId());
         order.setCustomerName(request.getCustomerName());
         order.setCustomerEmail(request.getCustomerEmail());
         order.setStatus("PENDING");
-        order.setSubtotal(request.getSubtotal());
-        order.setTaxAmount(request.getTaxAmount());
-        order.setDiscountAmount(request.getDiscountAmount());
-        order.setTotalAmount(request.getTotalAmount());
         order.setShippingAddress(request.getShippingAddress());
         order.setBillingAddress(request.getBillingAddress());
         order.setPaymentMethod(request.getPaymentMethod());
         order.setPaymentStatus("PENDING");
 
+        // Totals always come from the server-side calculation, never from the client
+        List<OrderItemRequest> lines = requireItems(request);
+        OrderTotals totals = orderTotalsCalculator.calculate(lines);
+        for (int i = 0; i < lines.size(); i++) {
+            order.addItem(toOrderItem(lines.get(i), totals, i));
+        }
+        order.setSubtotal(totals.getSubtotal());
+        order.setDiscountAmount(totals.getDiscountAmount());
+        order.setTaxAmount(totals.getTaxAmount());
+        order.setTotalAmount(totals.getTotalAmount());
+
+        // Header and items are inserted together at flush; sequence-assigned ids let Hibernate batch them
         Order saved = orderRepository.save(order);
-        return mapToResponse(saved);
+        orderSummaryRepository.save(toSummary(saved));
+        eventPublisher.publishEvent(toStatusEvent(saved, saved.getCreatedAt()));
+        return saved;
+    }
+
+    /**
+     * Rejects requests that could not be persisted, without touching the database.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void validateOrder(OrderRequest request) {
+        // Fails on unknown tax codes or amounts that overflow
+        orderTotalsCalculator.calculate(requireItems(request));
+    }
+
+    private static List<OrderItemRequest> requireItems(OrderRequest request) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new RuntimeException("Order requires at least one item");
+        }
+        return request.getItems();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderResponse> findOrderByNumber(String orderNumber, String tenantId) {
+        return findByOrderNumber(orderNumber, tenantId).map(this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
@@ -52,14 +123,14 @@ public class OrderService {
             throw new RuntimeException("Unauthorized access to order");
         }
         
-        return mapToResponse(order);
+        return mapToResponseWithItems(order);
     }
 
     @Transactional(readOnly = true)
     public OrderResponse getOrderByNumber(String orderNumber, String tenantId) {
-        Order order = orderRepository.findByOrderNumberAndTenantId(orderNumber, tenantId)
+        Order order = findByOrderNumber(orderNumber, tenantId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
-        return mapToResponse(order);
+        return mapToResponseWithItems(order);
     }
 
     @Transactional(readOnly = true)
@@ -69,35 +140,162 @@ public class OrderService {
     }
 
     public OrderResponse updateOrderStatus(Long id, String status, String tenantId) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
+        Set<String> from = OrderTransitions.orderSourcesOf(status);
+        if (from.isEmpty()) {
+            throw new RuntimeException("Invalid order status: " + status);
+        }
 
-        if (!order.getTenantId().equals(tenantId)) {
-            throw new RuntimeException("Unauthorized access to order");
+        int updated = "CANCELLED".equals(status)
+                ? orderRepository.cancel(id, tenantId, from, OrderTransitions.CAPTURED_PAYMENTS, LocalDateTime.now())
+                : orderRepository.transitionStatus(id, tenantId, status, from, LocalDateTime.now());
+        Order order = findForTenant(id, tenantId);
+        if (updated == 0 && !status.equals(order.getStatus())) {
+            throw statusConflict(order, status);
         }
 
-        order.setStatus(status);
-        Order saved = orderRepository.save(order);
-        return mapToResponse(saved);
+        // A repeat of a transition already applied is answered without a second event
+        if (updated > 0) {
+            onStatusChanged(order);
+        }
+        return mapToResponse(order);
     }
 
     public OrderResponse updatePaymentStatus(Long id, String paymentStatus, String transactionId, String tenantId) {
+        Set<String> from = OrderTransitions.paymentSourcesOf(paymentStatus);
+        if (from.isEmpty()) {
+            throw new RuntimeException("Invalid payment status: " + paymentStatus);
+        }
+
+        // A successful payment confirms an order that is still pending in the same statement
+        String confirmFrom = "PAID".equals(paymentStatus) ? "PENDING" : null;
+        int updated = orderRepository.transitionPaymentStatus(
+                id, tenantId, paymentStatus, from, transactionId, confirmFrom, LocalDateTime.now());
+        Order order = findForTenant(id, tenantId);
+        if (updated == 0 && !paymentStatus.equals(order.getPaymentStatus())) {
+            throw new OrderStateConflictException(
+                    "Cannot change payment status from " + order.getPaymentStatus() + " to " + paymentStatus);
+        }
+
+        if (updated > 0) {
+            onStatusChanged(order);
+        }
+        return mapToResponse(order);
+    }
+
+    public OrderResponse cancelCheckout(Long id, String tenantId) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = orderRepository.cancel(
+                id, tenantId, OrderTransitions.orderSourcesOf("CANCELLED"), OrderTransitions.CAPTURED_PAYMENTS, now);
+        if (updated > 0) {
+            // Leaves a captured payment untouched; only a pending one is marked failed
+            orderRepository.transitionPaymentStatus(
+                    id, tenantId, "FAILED", OrderTransitions.paymentSourcesOf("FAILED"), null, null, now);
+        }
+
+        Order order = findForTenant(id, tenantId);
+        if (updated == 0 && !"CANCELLED".equals(order.getStatus())) {
+            throw statusConflict(order, "CANCELLED");
+        }
+
+        if (updated > 0) {
+            onStatusChanged(order);
+        }
+        return mapToResponse(order);
+    }
+
+    private OrderStateConflictException statusConflict(Order order, String status) {
+        if ("CANCELLED".equals(status) && OrderTransitions.CAPTURED_PAYMENTS.contains(order.getPaymentStatus())) {
+            return new OrderStateConflictException("Cannot cancel an order with a captured payment; refund it first");
+        }
+        return new OrderStateConflictException("Cannot change order status from " + order.getStatus() + " to " + status);
+    }
+
+    private Order findForTenant(Long id, String tenantId) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
         if (!order.getTenantId().equals(tenantId)) {
             throw new RuntimeException("Unauthorized access to order");
         }
+        return order;
+    }
 
-        order.setPaymentStatus(paymentStatus);
-        order.setPaymentTransactionId(transactionId);
-        
-        if ("PAID".equals(paymentStatus)) {
-            order.setStatus("CONFIRMED");
+    /**
+     * Resolves the number through the unpartitioned summary table, which holds the order's exact
+     * creation time, so only the order's own partition is read. Orders without a summary fall
+     * back to searching every partition.
+     */
+    private Optional<Order> findByOrderNumber(String orderNumber, String tenantId) {
+        Optional<OrderSummary> summary = orderSummaryRepository.findByTenantIdAndOrderNumber(tenantId, orderNumber);
+        if (summary.isPresent()) {
+            return orderRepository.findByIdAndCreatedAt(summary.get().getId(), summary.get().getCreatedAt());
         }
-        
-        Order saved = orderRepository.save(order);
-        return mapToResponse(saved);
+        return orderRepository.findByOrderNumberAndTenantId(orderNumber, tenantId);
+    }
+
+    private OrderSummary toSummary(Order order) {
+        OrderSummary summary = new OrderSummary();
+        summary.setId(order.getId());
+        summary.setTenantId(order.getTenantId());
+        summary.setOrderNumber(order.getOrderNumber());
+        summary.setCustomerId(order.getCustomerId());
+        summary.setCustomerName(order.getCustomerName());
+        summary.setStatus(order.getStatus());
+        summary.setPaymentStatus(order.getPaymentStatus());
+        summary.setTotalAmount(order.getTotalAmount());
+        summary.setItemCount(order.getItems().size());
+        summary.setCreatedAt(order.getCreatedAt());
+        summary.setUpdatedAt(order.getUpdatedAt());
+        return summary;
+    }
+
+    // Keeps the list read model in step without loading it; runs in the caller's transaction
+    private void onStatusChanged(Order order) {
+        LocalDateTime now = LocalDateTime.now();
+        orderSummaryRepository.updateStatus(order.getId(), order.getStatus(), order.getPaymentStatus(), now);
+        eventPublisher.publishEvent(toStatusEvent(order, now));
+    }
+
+    private OrderStatusChangedEvent toStatusEvent(Order order, LocalDateTime changedAt) {
+        return new OrderStatusChangedEvent(order.getId(), order.getOrderNumber(), order.getTenantId(),
+                order.getStatus(), order.getPaymentStatus(), changedAt);
+    }
+
+    private OrderItem toOrderItem(OrderItemRequest request, OrderTotals totals, int line) {
+        OrderItem item = new OrderItem();
+        item.setProductId(request.getProductId());
+        item.setProductName(request.getProductName());
+        item.setProductSku(request.getProductSku());
+        item.setQuantity(request.getQuantity());
+        item.setUnitPrice(request.getUnitPrice());
+        item.setDiscount(totals.getLineDiscount(line));
+        item.setTotalPrice(totals.getLineTotal(line));
+        item.setTaxCode(totals.getTaxCode(line));
+        item.setTaxAmount(totals.getLineTax(line));
+        return item;
+    }
+
+    private OrderResponse mapToResponseWithItems(Order order) {
+        OrderResponse response = mapToResponse(order);
+        response.setItems(order.getItems().stream()
+                .map(OrderService::mapItemToResponse)
+                .collect(Collectors.toList()));
+        return response;
+    }
+
+    static OrderItemResponse mapItemToResponse(OrderItem item) {
+        OrderItemResponse response = new OrderItemResponse();
+        response.setId(item.getId());
+        response.setProductId(item.getProductId());
+        response.setProductName(item.getProductName());
+        response.setProductSku(item.getProductSku());
+        response.setQuantity(item.getQuantity());
+        response.setUnitPrice(item.getUnitPrice());
+        response.setTotalPrice(item.getTotalPrice());
+        response.setDiscount(item.getDiscount());
+        response.setTaxCode(item.getTaxCode());
+        response.setTaxAmount(item.getTaxAmount());
+        return response;
     }
 
     private OrderResponse mapToResponse(Order order) {
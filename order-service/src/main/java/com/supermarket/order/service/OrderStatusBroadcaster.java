@@ -0,0 +1,278 @@
+package com.supermarket.order.service;
+
+import com.supermarket.order.event.OrderStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fans order status changes out to Server-Sent Event subscribers, either for a whole tenant or
+ * for a single order. Events are taken from the order write path after commit and appended to a
+ * bounded queue per subscriber; a shared pool drains each queue with at most one thread at a
+ * time, so every subscriber sees changes in commit order and a slow client only delays itself.
+ * A client whose queue overflows, or whose send stays blocked past the send timeout, is dropped
+ * and can reconnect.
+ *
+ * <p>Subscribers may be connected to any instance, so each change is also sent to the
+ * {@code order.stream.topic} Kafka topic, keyed by order so that an order's changes stay in
+ * order. Every instance reads that topic in a consumer group of its own and delivers what other
+ * instances published; its own changes are delivered locally right away. Changes committed
+ * while an instance's consumer is down are not replayed to it, and clients re-read the current
+ * state when they reconnect. With {@code order.stream.fan-out=false} only changes made on the
+ * same instance are delivered.
+ */
+@Component
+@Slf4j
+public class OrderStatusBroadcaster {
+
+    private static final String ORIGIN_HEADER = "order-status-origin";
+
+    private final Map<String, TenantSubscribers> subscribers = new ConcurrentHashMap<>();
+    private final KafkaTemplate<String, OrderStatusChangedEvent> kafkaTemplate;
+    private final String topic;
+    private final boolean fanOut;
+    private final byte[] instanceId = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService senders;
+    private final long timeoutMs;
+    private final long sendTimeoutMs;
+    private final int maxSubscribersPerTenant;
+    private final int maxQueuedEvents;
+
+    public OrderStatusBroadcaster(
+            KafkaTemplate<String, OrderStatusChangedEvent> kafkaTemplate,
+            @Value("${order.stream.topic:order-status-changes}") String topic,
+            @Value("${order.stream.fan-out:true}") boolean fanOut,
+            @Value("${order.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${order.stream.heartbeat-ms:15000}") long heartbeatMs,
+            @Value("${order.stream.send-timeout-ms:10000}") long sendTimeoutMs,
+            @Value("${order.stream.max-subscribers-per-tenant:500}") int maxSubscribersPerTenant,
+            @Value("${order.stream.max-queued-events:256}") int maxQueuedEvents,
+            @Value("${order.stream.sender-threads:8}") int senderThreads) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.fanOut = fanOut;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.maxSubscribersPerTenant = maxSubscribersPerTenant;
+        this.maxQueuedEvents = maxQueuedEvents;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "order-status-heartbeat"));
+        this.senders = Executors.newFixedThreadPool(senderThreads, r -> daemon(r, "order-status-stream"));
+        // Comments keep proxies from closing idle connections and reveal clients that went away
+        scheduler.scheduleAtFixedRate(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers the subscriber before reading the current state, so no change committed in
+     * between is missed; the state from {@code initial} is then queued like any other event.
+     *
+     * @param orderId only changes of this order are delivered, or every change of the tenant if null
+     * @param initial supplies the current state to send first, or null to send nothing
+     */
+    public SseEmitter subscribe(String tenantId, Long orderId, Supplier<OrderStatusChangedEvent> initial) {
+        TenantSubscribers tenantSubscribers = subscribers.computeIfAbsent(tenantId, key -> new TenantSubscribers());
+        if (tenantSubscribers.count.incrementAndGet() > maxSubscribersPerTenant) {
+            tenantSubscribers.count.decrementAndGet();
+            throw new RuntimeException("Too many order status subscribers for tenant");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, orderId, tenantSubscribers);
+        tenantSubscribers.members.add(subscriber);
+
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::remove);
+        emitter.onError(error -> subscriber.remove());
+
+        if (initial != null) {
+            try {
+                enqueue(subscriber, statusEvent(initial.get()));
+            } catch (RuntimeException e) {
+                subscriber.remove();
+                throw e;
+            }
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        deliver(event);
+        if (!fanOut) {
+            return;
+        }
+        ProducerRecord<String, OrderStatusChangedEvent> record =
+                new ProducerRecord<>(topic, String.valueOf(event.getOrderId()), event);
+        record.headers().add(ORIGIN_HEADER, instanceId);
+        kafkaTemplate.send(record).whenComplete((result, e) -> {
+            if (e != null) {
+                log.warn("Could not fan out status change of order {}; subscribers on other instances miss it",
+                        event.getOrderId(), e);
+            }
+        });
+    }
+
+    // Every instance needs every change, so each one listens in a consumer group of its own
+    @KafkaListener(topics = "${order.stream.topic:order-status-changes}",
+            groupId = "order-status-stream-#{T(java.util.UUID).randomUUID()}",
+            autoStartup = "${order.stream.fan-out:true}",
+            properties = {
+                    "auto.offset.reset=latest",
+                    "spring.json.use.type.headers=false",
+                    "spring.json.value.default.type=com.supermarket.order.event.OrderStatusChangedEvent"})
+    public void onRemoteStatusChanged(ConsumerRecord<String, OrderStatusChangedEvent> record) {
+        Header origin = record.headers().lastHeader(ORIGIN_HEADER);
+        if (record.value() == null || (origin != null && Arrays.equals(origin.value(), instanceId))) {
+            return;
+        }
+        deliver(record.value());
+    }
+
+    private void deliver(OrderStatusChangedEvent event) {
+        TenantSubscribers tenantSubscribers = subscribers.get(event.getTenantId());
+        if (tenantSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : tenantSubscribers.members) {
+            if (subscriber.orderId == null || subscriber.orderId.equals(event.getOrderId())) {
+                enqueue(subscriber, statusEvent(event));
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder statusEvent(OrderStatusChangedEvent event) {
+        return SseEmitter.event()
+                .name("order-status")
+                .id(event.getOrderId() + ":" + event.getChangedAt())
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.queued.incrementAndGet() > maxQueuedEvents) {
+            log.debug("Dropping order status subscriber that fell {} events behind", maxQueuedEvents);
+            subscriber.fail(new IllegalStateException("Subscriber too slow"));
+            return;
+        }
+        subscriber.queue.add(event);
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        SseEmitter.SseEventBuilder event;
+        while ((event = subscriber.queue.poll()) != null) {
+            subscriber.queued.decrementAndGet();
+            if (subscriber.removed.get()) {
+                continue;
+            }
+            try {
+                subscriber.sendingSince = System.nanoTime();
+                subscriber.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                subscriber.fail(e);
+            } finally {
+                subscriber.sendingSince = 0;
+            }
+        }
+        subscriber.draining.set(false);
+        // An event queued after the last poll but before the flag was cleared still needs a drain
+        if (!subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void heartbeat() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(tenantSubscribers -> {
+            for (Subscriber subscriber : tenantSubscribers.members) {
+                long sendingSince = subscriber.sendingSince;
+                if (sendingSince != 0 && now - sendingSince > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)) {
+                    // Completing the emitter closes the response, which unblocks the stuck write
+                    subscriber.fail(new IllegalStateException("Send timed out"));
+                } else if (sendingSince == 0 && subscriber.queue.isEmpty()) {
+                    // Sent through the queue as well, so a dead client cannot block this thread
+                    enqueue(subscriber, SseEmitter.event().comment("keep-alive"));
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(tenantSubscribers -> tenantSubscribers.members.forEach(s -> s.emitter.complete()));
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static final class TenantSubscribers {
+        private final Set<Subscriber> members = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger count = new AtomicInteger();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long orderId;
+        private final TenantSubscribers tenant;
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter, Long orderId, TenantSubscribers tenant) {
+            this.emitter = emitter;
+            this.orderId = orderId;
+            this.tenant = tenant;
+        }
+
+        /** Idempotent, so the emitter callbacks and failed sends release the slot exactly once. */
+        private void remove() {
+            if (removed.compareAndSet(false, true)) {
+                tenant.members.remove(this);
+                tenant.count.decrementAndGet();
+            }
+        }
+
+        private void fail(Throwable cause) {
+            remove();
+            emitter.completeWithError(cause);
+        }
+    }
+}
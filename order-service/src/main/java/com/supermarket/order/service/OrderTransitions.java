@@ -0,0 +1,55 @@
+package com.supermarket.order.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allowed order and payment status transitions. Lookups go from target to permitted source
+ * states because that is what the conditional UPDATE needs in its WHERE clause.
+ *
+ * <p>Cancellation also depends on the payment: an order whose payment has been captured cannot be
+ * cancelled until it is refunded.
+ */
+final class OrderTransitions {
+
+    private static final Map<String, Set<String>> ORDER = Map.of(
+            "PENDING", Set.of("CONFIRMED", "CANCELLED"),
+            "CONFIRMED", Set.of("PROCESSING", "CANCELLED"),
+            "PROCESSING", Set.of("SHIPPED", "COMPLETED", "CANCELLED"),
+            "SHIPPED", Set.of("DELIVERED"),
+            "DELIVERED", Set.of("COMPLETED", "REFUNDED"),
+            "COMPLETED", Set.of("REFUNDED"));
+
+    private static final Map<String, Set<String>> PAYMENT = Map.of(
+            "PENDING", Set.of("PAID", "FAILED"),
+            "FAILED", Set.of("PENDING", "PAID"),
+            "PAID", Set.of("PARTIALLY_REFUNDED", "REFUNDED"),
+            "PARTIALLY_REFUNDED", Set.of("REFUNDED"));
+
+    static final Set<String> CAPTURED_PAYMENTS = Set.of("PAID", "PARTIALLY_REFUNDED");
+
+    private static final Map<String, Set<String>> ORDER_SOURCES = invert(ORDER);
+    private static final Map<String, Set<String>> PAYMENT_SOURCES = invert(PAYMENT);
+
+    private OrderTransitions() {
+    }
+
+    static Set<String> orderSourcesOf(String target) {
+        return ORDER_SOURCES.getOrDefault(target, Set.of());
+    }
+
+    static Set<String> paymentSourcesOf(String target) {
+        return PAYMENT_SOURCES.getOrDefault(target, Set.of());
+    }
+
+    private static Map<String, Set<String>> invert(Map<String, Set<String>> transitions) {
+        Map<String, Set<String>> sources = new HashMap<>();
+        transitions.forEach((from, targets) ->
+                targets.forEach(to -> sources.computeIfAbsent(to, key -> new HashSet<>()).add(from)));
+        sources.replaceAll((to, from) -> Collections.unmodifiableSet(from));
+        return Collections.unmodifiableMap(sources);
+    }
+}
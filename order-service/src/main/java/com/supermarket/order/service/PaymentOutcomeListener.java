@@ -0,0 +1,181 @@
+package com.supermarket.order.service;
+
+import com.supermarket.order.dto.PaymentOutcomeMessage;
+import com.supermarket.order.entity.Order;
+import com.supermarket.order.event.OrderStatusChangedEvent;
+import com.supermarket.order.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies payment outcomes from payment-service to orders, so payment status no longer waits
+ * for the client to report it. Each poll is handled as one batch in one transaction: updates
+ * are grouped by target status and sent as JDBC batches of the same conditional UPDATE that
+ * {@link OrderService#updatePaymentStatus} runs. Redelivered or stale outcomes match no row.
+ *
+ * <p>A record that could not be deserialized (the ErrorHandlingDeserializer leaves its value
+ * null) or lacks its order or tenant is reported by index through
+ * {@link BatchListenerFailedException}, after the records before it have been applied and
+ * committed; the error handler then dead-letters it and carries on with the rest. Any other
+ * failure rolls the batch back and the whole batch is retried.
+ */
+@Service
+@Slf4j
+public class PaymentOutcomeListener {
+
+    private static final String UPDATE_PAYMENT_STATUS =
+            "UPDATE orders SET payment_status = ?, " +
+            "payment_transaction_id = COALESCE(?, payment_transaction_id), " +
+            "status = CASE WHEN status = ? THEN 'CONFIRMED' ELSE status END, updated_at = ? " +
+            "WHERE (? <> 'PAID' OR status <> 'CANCELLED') AND id = ? AND tenant_id = ? AND payment_status IN ";
+
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(PaymentOutcomeListener.class);
+
+    private static final String UPDATE_SUMMARY =
+            "UPDATE order_summaries SET status = ?, payment_status = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public PaymentOutcomeListener(JdbcTemplate jdbcTemplate,
+                                  OrderRepository orderRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // payment-service types its records by its own class, so the target type is fixed here; the
+    // ErrorHandlingDeserializer passes these properties on to its JsonDeserializer delegate
+    @KafkaListener(topics = "${order.payment-outcomes.topic:payment-outcomes}",
+            groupId = "order-service-payment-outcomes",
+            concurrency = "${order.payment-outcomes.consumers:2}",
+            batch = "true",
+            properties = {
+                    "spring.json.use.type.headers=false",
+                    "spring.json.value.default.type=com.supermarket.order.dto.PaymentOutcomeMessage",
+                    "max.poll.records=${order.payment-outcomes.max-batch:500}"})
+    public void consume(List<ConsumerRecord<String, PaymentOutcomeMessage>> records) {
+        int firstMalformed = 0;
+        while (firstMalformed < records.size() && isComplete(records.get(firstMalformed).value())) {
+            firstMalformed++;
+        }
+        List<PaymentOutcomeMessage> messages = records.subList(0, firstMalformed).stream()
+                .map(ConsumerRecord::value)
+                .collect(Collectors.toList());
+        if (!messages.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> applyAll(messages));
+        }
+        if (firstMalformed < records.size()) {
+            // With the DeserializationException as cause the error handler skips the retries
+            DeserializationException cause = SerializationUtils.getExceptionFromHeader(records.get(firstMalformed),
+                    SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+            throw new BatchListenerFailedException("Malformed payment outcome", cause, firstMalformed);
+        }
+    }
+
+    private static boolean isComplete(PaymentOutcomeMessage message) {
+        return message != null && message.getOrderId() != null && message.getTenantId() != null;
+    }
+
+    private void applyAll(List<PaymentOutcomeMessage> messages) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> changed = new HashSet<>();
+        for (List<PaymentOutcomeMessage> round : rounds(messages)) {
+            changed.addAll(apply(round, now));
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        // Refresh the list read model and notify status streams, as single-order updates do
+        List<Order> orders = orderRepository.findAllById(changed);
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(UPDATE_SUMMARY, orders.stream()
+                .map(order -> new Object[]{order.getStatus(), order.getPaymentStatus(), timestamp, order.getId()})
+                .collect(Collectors.toList()));
+        for (Order order : orders) {
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), order.getOrderNumber(),
+                    order.getTenantId(), order.getStatus(), order.getPaymentStatus(), now));
+        }
+        log.debug("Applied {} payment outcomes to {} orders", messages.size(), orders.size());
+    }
+
+    /**
+     * Splits the batch so that no order appears twice in a round, keeping each order's outcomes
+     * in arrival order. A refund that follows its capture in the same poll then applies after it.
+     */
+    private List<List<PaymentOutcomeMessage>> rounds(List<PaymentOutcomeMessage> messages) {
+        List<List<PaymentOutcomeMessage>> rounds = new ArrayList<>();
+        Map<Long, Integer> seen = new HashMap<>();
+        for (PaymentOutcomeMessage message : messages) {
+            int round = seen.merge(message.getOrderId(), 1, Integer::sum) - 1;
+            if (round == rounds.size()) {
+                rounds.add(new ArrayList<>());
+            }
+            rounds.get(round).add(message);
+        }
+        return rounds;
+    }
+
+    /** Runs one batched UPDATE per target status; returns the orders that changed. */
+    private Set<Long> apply(List<PaymentOutcomeMessage> round, LocalDateTime now) {
+        Map<String, List<PaymentOutcomeMessage>> byStatus = new LinkedHashMap<>();
+        for (PaymentOutcomeMessage message : round) {
+            if (OrderTransitions.paymentSourcesOf(message.getPaymentStatus()).isEmpty()) {
+                log.warn("Ignoring payment outcome {} for order {}", message.getPaymentStatus(), message.getOrderId());
+                continue;
+            }
+            byStatus.computeIfAbsent(message.getPaymentStatus(), status -> new ArrayList<>()).add(message);
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(now);
+        Set<Long> changed = new HashSet<>();
+        byStatus.forEach((status, updates) -> {
+            // Source states come from the fixed transition table, never from the message
+            String sql = UPDATE_PAYMENT_STATUS + OrderTransitions.paymentSourcesOf(status).stream()
+                    .map(source -> "'" + source + "'")
+                    .collect(Collectors.joining(", ", "(", ")"));
+            String confirmFrom = "PAID".equals(status) ? "PENDING" : null;
+            int[] counts = jdbcTemplate.batchUpdate(sql, updates.stream()
+                    .map(update -> new Object[]{status, update.getTransactionId(), confirmFrom, timestamp,
+                            status, update.getOrderId(), update.getTenantId()})
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                    changed.add(updates.get(i).getOrderId());
+                } else if ("PAID".equals(status)) {
+                    log.warn("Payment {} captured for order {} that can no longer take it, e.g. cancelled; it needs a refund",
+                            updates.get(i).getTransactionId(), updates.get(i).getOrderId());
+                }
+            }
+        });
+        return changed;
+    }
+}
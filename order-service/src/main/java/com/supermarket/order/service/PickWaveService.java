@@ -0,0 +1,149 @@
+package com.supermarket.order.service;
+
+import com.supermarket.common.dto.ApiResponse;
+import com.supermarket.order.client.InventoryClient;
+import com.supermarket.order.client.ProductClient;
+import com.supermarket.order.dto.PickWavePlan;
+import com.supermarket.order.entity.Order;
+import com.supermarket.order.entity.OrderItem;
+import com.supermarket.order.fulfilment.PickLine;
+import com.supermarket.order.fulfilment.PickOrder;
+import com.supermarket.order.fulfilment.PickWavePlanner;
+import com.supermarket.order.repository.OrderItemRepository;
+import com.supermarket.order.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Plans pick waves over the tenant's oldest pending orders. Product locations come from
+ * inventory-service and categories from product-service; when either is unavailable the plan
+ * is still produced, with the affected lines falling back to category or an unlocated zone.
+ *
+ * <p>Not transactional: the order reads commit before the remote lookups start.
+ */
+@Service
+@Slf4j
+public class PickWaveService {
+
+    private static final String PENDING = "PENDING";
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository itemRepository;
+    private final InventoryClient inventoryClient;
+    private final ProductClient productClient;
+    private final PickWavePlanner planner;
+    private final int maxOrders;
+
+    public PickWaveService(
+            OrderRepository orderRepository,
+            OrderItemRepository itemRepository,
+            InventoryClient inventoryClient,
+            ProductClient productClient,
+            PickWavePlanner planner,
+            @Value("${order.pick-waves.max-orders:2000}") int maxOrders) {
+        this.orderRepository = orderRepository;
+        this.itemRepository = itemRepository;
+        this.inventoryClient = inventoryClient;
+        this.productClient = productClient;
+        this.planner = planner;
+        this.maxOrders = maxOrders;
+    }
+
+    public PickWavePlan planWaves(String tenantId, Integer waveSize) {
+        List<Order> orders = orderRepository.findByTenantIdAndStatus(tenantId, PENDING,
+                PageRequest.of(0, maxOrders, Sort.by("createdAt", "id"))).getContent();
+        if (orders.isEmpty()) {
+            return planner.plan(List.of(), waveSize);
+        }
+
+        Map<Long, List<OrderItem>> itemsByOrder = itemRepository.findByOrderIdsCreatedBetween(
+                        orders.stream().map(Order::getId).collect(Collectors.toList()),
+                        orders.get(0).getCreatedAt(),
+                        orders.get(orders.size() - 1).getCreatedAt())
+                .stream()
+                .collect(Collectors.groupingBy(item -> item.getOrder().getId()));
+
+        List<Long> productIds = itemsByOrder.values().stream()
+                .flatMap(List::stream)
+                .map(OrderItem::getProductId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, String> locations = findLocations(productIds, tenantId);
+        Map<Long, String> categories = findCategories(productIds, tenantId);
+
+        List<PickOrder> pickOrders = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            List<OrderItem> items = itemsByOrder.getOrDefault(order.getId(), List.of());
+            if (items.isEmpty()) {
+                continue;
+            }
+            List<PickLine> lines = new ArrayList<>(items.size());
+            for (OrderItem item : items) {
+                lines.add(new PickLine(item.getProductId(), item.getProductSku(), item.getProductName(),
+                        item.getQuantity(), locations.get(item.getProductId()), categories.get(item.getProductId())));
+            }
+            pickOrders.add(new PickOrder(order.getId(), order.getOrderNumber(), lines));
+        }
+
+        PickWavePlan plan = planner.plan(pickOrders, waveSize);
+        if (plan.isBudgetExhausted()) {
+            log.warn("Pick wave planning for tenant {} ran out of time budget after {} ms; " +
+                    "remaining orders were waved in arrival order", tenantId, plan.getPlanningMillis());
+        }
+        return plan;
+    }
+
+    /** Location of each product, taken from the stock record with the most available quantity. */
+    private Map<Long, String> findLocations(List<Long> productIds, String tenantId) {
+        Map<Long, String> locations = new HashMap<>();
+        Map<Long, Integer> available = new HashMap<>();
+        try {
+            ApiResponse<List<Map<String, Object>>> response = inventoryClient.getInventoryByProducts(productIds, tenantId);
+            if (response == null || response.getData() == null) {
+                return locations;
+            }
+            for (Map<String, Object> stock : response.getData()) {
+                Object location = stock.get("location");
+                if (stock.get("productId") == null || location == null) {
+                    continue;
+                }
+                Long productId = ((Number) stock.get("productId")).longValue();
+                int quantity = stock.get("availableQuantity") instanceof Number number ? number.intValue() : 0;
+                if (!locations.containsKey(productId) || quantity > available.get(productId)) {
+                    locations.put(productId, location.toString());
+                    available.put(productId, quantity);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not load product locations for pick waves: {}", e.getMessage());
+        }
+        return locations;
+    }
+
+    private Map<Long, String> findCategories(List<Long> productIds, String tenantId) {
+        Map<Long, String> categories = new HashMap<>();
+        try {
+            ApiResponse<List<Map<String, Object>>> response = productClient.getProductsByIds(productIds, tenantId);
+            if (response == null || response.getData() == null) {
+                return categories;
+            }
+            for (Map<String, Object> product : response.getData()) {
+                if (product.get("id") != null && product.get("category") != null) {
+                    categories.put(((Number) product.get("id")).longValue(), product.get("category").toString());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not load product categories for pick waves: {}", e.getMessage());
+        }
+        return categories;
+    }
+}
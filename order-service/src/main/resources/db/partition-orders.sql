@@ -0,0 +1,63 @@
+-- One-time conversion of orders and order_items to monthly range partitions on created_at.
+-- Run in a maintenance window with order-service stopped. Afterwards OrderPartitionManager
+-- keeps creating future partitions and archives old ones.
+--
+-- Partitioned tables need the partition key in every unique constraint, so primary keys become
+-- (id, created_at) and order_items carries its order's created_at. Items no longer have a foreign
+-- key to orders; they are always written through the Order aggregate.
+
+BEGIN;
+
+UPDATE orders SET created_at = COALESCE(updated_at, now()) WHERE created_at IS NULL;
+
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS created_at timestamp(6);
+UPDATE order_items i SET created_at = o.created_at
+FROM orders o
+WHERE i.order_id = o.id AND i.created_at IS NULL;
+
+ALTER TABLE order_items RENAME TO order_items_legacy;
+ALTER TABLE orders RENAME TO orders_legacy;
+
+CREATE TABLE orders (
+    LIKE orders_legacy INCLUDING DEFAULTS,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE order_items (
+    LIKE order_items_legacy INCLUDING DEFAULTS,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Monthly partitions from the oldest order up to three months ahead, plus a safety net
+DO $$
+DECLARE
+    m date := date_trunc('month', COALESCE((SELECT min(created_at) FROM orders_legacy), now()));
+    last_month date := date_trunc('month', now() + interval '3 months');
+BEGIN
+    WHILE m <= last_month LOOP
+        EXECUTE format('CREATE TABLE orders_p%s PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                       to_char(m, 'YYYY_MM'), m, m + interval '1 month');
+        EXECUTE format('CREATE TABLE order_items_p%s PARTITION OF order_items FOR VALUES FROM (%L) TO (%L)',
+                       to_char(m, 'YYYY_MM'), m, m + interval '1 month');
+        m := m + interval '1 month';
+    END LOOP;
+END $$;
+
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE order_items_default PARTITION OF order_items DEFAULT;
+
+INSERT INTO orders SELECT * FROM orders_legacy;
+INSERT INTO order_items SELECT * FROM order_items_legacy;
+
+CREATE UNIQUE INDEX idx_orders_order_number_created ON orders (order_number, created_at);
+CREATE INDEX idx_orders_order_number ON orders (order_number);
+CREATE INDEX idx_orders_tenant_created ON orders (tenant_id, created_at);
+CREATE INDEX idx_order_items_order_id ON order_items (order_id);
+
+DROP TABLE order_items_legacy;
+DROP TABLE orders_legacy;
+
+COMMIT;
+
+ANALYZE orders;
+ANALYZE order_items;
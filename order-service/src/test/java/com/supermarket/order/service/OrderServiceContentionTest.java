@@ -0,0 +1,159 @@
+package com.supermarket.order.service;
+
+import com.supermarket.order.dto.OrderItemRequest;
+import com.supermarket.order.dto.OrderRequest;
+import com.supermarket.order.dto.OrderResponse;
+import com.supermarket.order.entity.OrderSummary;
+import com.supermarket.order.event.OrderStatusChangedEvent;
+import com.supermarket.order.exception.OrderStateConflictException;
+import com.supermarket.order.repository.OrderSummaryRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Races a payment capture against a cancellation on the same order in PostgreSQL, where the
+ * conditional UPDATEs decide the winner: exactly one of them applies and the other is refused
+ * with a conflict (409), whichever reaches the row first.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.kafka.listener.auto-startup=false",
+                "spring.kafka.admin.auto-create=false",
+                "order.stream.fan-out=false",
+                "eureka.client.enabled=false",
+                "keycloak.enabled=false",
+                "order.read-model.backfill-on-startup=false"
+        })
+@Testcontainers
+@RecordApplicationEvents
+class OrderServiceContentionTest {
+
+    private static final String TENANT = "contention";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static ExecutorService executor;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeAll
+    static void startExecutor() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterAll
+    static void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @RepeatedTest(25)
+    void paymentAndCancellationRaceHasExactlyOneWinner() throws Exception {
+        Long orderId = orderService.placeOrder(request(), TENANT).getId();
+        CyclicBarrier start = new CyclicBarrier(2);
+
+        Future<OrderResponse> payment = executor.submit(awaiting(start,
+                () -> orderService.updatePaymentStatus(orderId, "PAID", "tx-" + orderId, TENANT)));
+        Future<OrderResponse> cancellation = executor.submit(awaiting(start,
+                () -> orderService.updateOrderStatus(orderId, "CANCELLED", TENANT)));
+
+        Throwable paymentFailure = failureOf(payment);
+        Throwable cancellationFailure = failureOf(cancellation);
+
+        assertThat(paymentFailure == null ^ cancellationFailure == null)
+                .as("exactly one of payment and cancellation succeeds")
+                .isTrue();
+        Throwable conflict = paymentFailure != null ? paymentFailure : cancellationFailure;
+        assertThat(conflict).isInstanceOf(OrderStateConflictException.class);
+
+        OrderResponse order = orderService.getOrderById(orderId, TENANT);
+        if (paymentFailure == null) {
+            assertThat(order.getStatus()).isEqualTo("CONFIRMED");
+            assertThat(order.getPaymentStatus()).isEqualTo("PAID");
+        } else {
+            assertThat(order.getStatus()).isEqualTo("CANCELLED");
+            assertThat(order.getPaymentStatus()).isEqualTo("PENDING");
+        }
+
+        OrderSummary summary = orderSummaryRepository.findById(orderId).orElseThrow();
+        assertThat(summary.getStatus()).isEqualTo(order.getStatus());
+        assertThat(summary.getPaymentStatus()).isEqualTo(order.getPaymentStatus());
+    }
+
+    @Test
+    void repeatedTransitionPublishesOneEvent() {
+        Long orderId = orderService.placeOrder(request(), TENANT).getId();
+
+        orderService.updatePaymentStatus(orderId, "PAID", "tx-" + orderId, TENANT);
+        orderService.updatePaymentStatus(orderId, "PAID", "tx-" + orderId, TENANT);
+
+        List<OrderStatusChangedEvent> published = events.stream(OrderStatusChangedEvent.class)
+                .filter(event -> event.getOrderId().equals(orderId))
+                .toList();
+        // One for placing the order, one for the payment; the repeat is answered without an event
+        assertThat(published).hasSize(2);
+        assertThat(published.get(1).getPaymentStatus()).isEqualTo("PAID");
+    }
+
+    private static <T> Callable<T> awaiting(CyclicBarrier start, Callable<T> action) {
+        return () -> {
+            start.await();
+            return action.call();
+        };
+    }
+
+    private static Throwable failureOf(Future<?> future) throws InterruptedException {
+        try {
+            future.get();
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+    }
+
+    private static OrderRequest request() {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(1L);
+        item.setProductName("Milk");
+        item.setProductSku("MILK-1L");
+        item.setQuantity(2);
+        item.setUnitPrice(new BigDecimal("1.25"));
+
+        OrderRequest request = new OrderRequest();
+        request.setCustomerId(1L);
+        request.setCustomerName("Contention Test");
+        request.setPaymentMethod("CARD");
+        request.setItems(List.of(item));
+        return request;
+    }
+}
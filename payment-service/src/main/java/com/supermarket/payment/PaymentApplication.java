@@ -1,13 +1,19 @@
 package com.supermarket.payment;
 
+import com.supermarket.common.util.NodeIdLease;
+import com.supermarket.common.util.UniqueIdGenerator;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableFeignClients
+@EnableScheduling
+@Import({UniqueIdGenerator.class, NodeIdLease.class})
 public class PaymentApplication {
 
     public static void main(String[] args) {
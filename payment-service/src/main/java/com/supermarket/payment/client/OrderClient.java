@@ -0,0 +1,21 @@
+package com.supermarket.payment.client;
+
+import com.supermarket.common.dto.ApiResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+import java.util.Map;
+
+@FeignClient(name = "order-service")
+public interface OrderClient {
+
+    @GetMapping("/api/orders/product-lines")
+    ApiResponse<List<Map<String, Object>>> getProductLines(
+            @RequestParam("productId") Long productId,
+            @RequestParam("from") String from,
+            @RequestParam("to") String to,
+            @RequestHeader("X-Tenant-ID") String tenantId);
+}
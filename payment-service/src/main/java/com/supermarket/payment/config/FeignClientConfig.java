@@ -0,0 +1,26 @@
+package com.supermarket.payment.config;
+
+import feign.RequestInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+@Configuration
+public class FeignClientConfig {
+
+    /**
+     * Forwards the caller's bearer token so downstream services authorize the same principal.
+     */
+    @Bean
+    public RequestInterceptor bearerTokenForwardingInterceptor() {
+        return template -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication instanceof JwtAuthenticationToken jwt && !template.headers().containsKey(HttpHeaders.AUTHORIZATION)) {
+                template.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwt.getToken().getTokenValue());
+            }
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.supermarket.payment.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaConfig {
+
+    @Bean
+    public NewTopic gatewayConfigTopic(@Value("${payment.gateway-cache.topic:payment-gateway-config}") String topic) {
+        return TopicBuilder.name(topic).partitions(1).build();
+    }
+
+    @Bean
+    public NewTopic paymentOutcomeTopic(
+            @Value("${payment.outcomes.topic:payment-outcomes}") String topic,
+            @Value("${payment.outcomes.partitions:12}") int partitions) {
+        return TopicBuilder.name(topic).partitions(partitions).build();
+    }
+}
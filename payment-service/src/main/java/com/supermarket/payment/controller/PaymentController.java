@@ -22,9 +22,11 @@ public class PaymentController {
     @PostMapping
     public ResponseEntity<ApiResponse<PaymentResponse>> processPayment(
             @Valid @RequestBody PaymentRequest request,
-            @RequestHeader("X-Tenant-ID") String tenantId) {
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         
-        PaymentResponse response = paymentService.processPayment(request, tenantId);
+        // A replay returns the original payment with the same status code
+        PaymentResponse response = paymentService.processPayment(request, tenantId, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new ApiResponse<>(true, "Payment processed", response, null));
     }
@@ -43,7 +45,10 @@ public class PaymentController {
             @PathVariable Long orderId,
             @RequestHeader("X-Tenant-ID") String tenantId) {
         
-        PaymentResponse response = paymentService.getPaymentByOrderId(orderId, tenantId);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Payment retrieved", response, null));
+        // 404 lets callers such as the checkout saga tell "never charged" apart from a failure
+        return paymentService.findPaymentByOrderId(orderId, tenantId)
+                .map(response -> ResponseEntity.ok(new ApiResponse<>(true, "Payment retrieved", response, null)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse<>(false, "Payment not found", null, "PAYMENT_NOT_FOUND")));
     }
 }
@@ -1,6 +1,7 @@
 package com.supermarket.payment.controller;
 
 import com.supermarket.common.dto.ApiResponse;
+import com.supermarket.payment.dto.GatewayHealthResponse;
 import com.supermarket.payment.entity.PaymentGatewayConfig;
 import com.supermarket.payment.service.PaymentGatewayConfigService;
 import org.springframework.http.HttpStatus;
@@ -83,6 +84,14 @@ public class PaymentGatewayConfigController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Enabled gateways retrieved", gateways, null));
     }
 
+    @GetMapping("/health")
+    public ResponseEntity<ApiResponse<List<GatewayHealthResponse>>> getGatewayHealth(
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        List<GatewayHealthResponse> health = paymentGatewayConfigService.getGatewayHealth(tenantId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Gateway health retrieved", health, null));
+    }
+
     @GetMapping("/check/{gatewayCode}")
     public ResponseEntity<ApiResponse<Map<String, Boolean>>> checkGatewayEnabled(
             @PathVariable String gatewayCode,
@@ -0,0 +1,87 @@
+package com.supermarket.payment.controller;
+
+import com.supermarket.common.dto.ApiResponse;
+import com.supermarket.payment.dto.RefundJobItemResponse;
+import com.supermarket.payment.dto.RefundJobRequest;
+import com.supermarket.payment.dto.RefundJobResponse;
+import com.supermarket.payment.service.RefundJobService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/payments/refund-jobs")
+public class RefundJobController {
+
+    private final RefundJobService refundJobService;
+
+    public RefundJobController(RefundJobService refundJobService) {
+        this.refundJobService = refundJobService;
+    }
+
+    /** Accepts the job and runs it in the background; poll the job for progress. */
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<RefundJobResponse>> createJob(
+            @Valid @RequestBody RefundJobRequest request,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        RefundJobResponse response = refundJobService.createJob(request, tenantId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(new ApiResponse<>(true, "Refund job accepted", response, null));
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<Page<RefundJobResponse>>> getJobs(
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            @PageableDefault(size = 20) Pageable pageable) {
+
+        Page<RefundJobResponse> jobs = refundJobService.getJobs(tenantId, pageable);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Refund jobs retrieved", jobs, null));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<RefundJobResponse>> getJob(
+            @PathVariable Long id,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        RefundJobResponse response = refundJobService.getJob(id, tenantId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Refund job retrieved", response, null));
+    }
+
+    @GetMapping("/{id}/items")
+    public ResponseEntity<ApiResponse<Page<RefundJobItemResponse>>> getItems(
+            @PathVariable Long id,
+            @RequestParam(required = false) String status,
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            @PageableDefault(size = 100, sort = "id") Pageable pageable) {
+
+        Page<RefundJobItemResponse> items = refundJobService.getItems(id, status, tenantId, pageable);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Refund job items retrieved", items, null));
+    }
+
+    @PostMapping("/{id}/pause")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<RefundJobResponse>> pauseJob(
+            @PathVariable Long id,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        RefundJobResponse response = refundJobService.pauseJob(id, tenantId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Refund job paused", response, null));
+    }
+
+    @PostMapping("/{id}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<RefundJobResponse>> resumeJob(
+            @PathVariable Long id,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        RefundJobResponse response = refundJobService.resumeJob(id, tenantId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Refund job resumed", response, null));
+    }
+}
@@ -0,0 +1,64 @@
+package com.supermarket.payment.controller;
+
+import com.supermarket.common.dto.ApiResponse;
+import com.supermarket.payment.dto.SettlementReconciliationResponse;
+import com.supermarket.payment.entity.SettlementReport;
+import com.supermarket.payment.settlement.SettlementReconciler;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/payments/settlements")
+public class SettlementController {
+
+    private final SettlementReconciler settlementReconciler;
+
+    public SettlementController(SettlementReconciler settlementReconciler) {
+        this.settlementReconciler = settlementReconciler;
+    }
+
+    /**
+     * Reconciles the settlement file sent as the raw request body ({@code text/csv}, optionally
+     * with {@code Content-Encoding: gzip}). The body is read as a stream, never buffered whole.
+     */
+    @PostMapping(value = "/reconcile", consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    public ResponseEntity<ApiResponse<SettlementReconciliationResponse>> reconcile(
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String gatewayCode,
+            HttpServletRequest request) throws IOException {
+
+        boolean gzipped = "gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+        SettlementReconciliationResponse response = settlementReconciler.reconcile(
+                tenantId, date, gatewayCode, request.getInputStream(), gzipped);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Settlement reconciled", response, null));
+    }
+
+    @GetMapping("/reports/{reportId}")
+    public void downloadReport(
+            @PathVariable String reportId,
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            HttpServletResponse response) throws IOException {
+
+        SettlementReport report = settlementReconciler.findReport(tenantId, reportId).orElse(null);
+        if (report == null) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Report not found");
+            return;
+        }
+        response.setContentType("application/gzip");
+        response.setContentLengthLong(report.getSizeBytes());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"settlement-" + reportId + ".csv.gz\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        settlementReconciler.copyReport(report, response.getOutputStream());
+        response.flushBuffer();
+    }
+}
@@ -0,0 +1,21 @@
+package com.supermarket.payment.dto;
+
+public class GatewayHealthResponse {
+
+    private String gatewayCode;
+    private boolean enabled;
+    private String circuitState;
+    private double latencyMs;
+    private double errorRate;
+
+    public String getGatewayCode() { return gatewayCode; }
+    public void setGatewayCode(String gatewayCode) { this.gatewayCode = gatewayCode; }
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getCircuitState() { return circuitState; }
+    public void setCircuitState(String circuitState) { this.circuitState = circuitState; }
+    public double getLatencyMs() { return latencyMs; }
+    public void setLatencyMs(double latencyMs) { this.latencyMs = latencyMs; }
+    public double getErrorRate() { return errorRate; }
+    public void setErrorRate(double errorRate) { this.errorRate = errorRate; }
+}
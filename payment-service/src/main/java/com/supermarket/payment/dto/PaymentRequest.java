@@ -18,6 +18,9 @@ public class PaymentRequest {
     @NotNull
     private String paymentMethod;
 
+    /** Gateway to charge through; the tenant's default enabled gateway when absent. */
+    private String gatewayCode;
+
     public Long getOrderId() { return orderId; }
     public void setOrderId(Long orderId) { this.orderId = orderId; }
     public String getOrderNumber() { return orderNumber; }
@@ -26,4 +29,6 @@ public class PaymentRequest {
     public void setAmount(BigDecimal amount) { this.amount = amount; }
     public String getPaymentMethod() { return paymentMethod; }
     public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+    public String getGatewayCode() { return gatewayCode; }
+    public void setGatewayCode(String gatewayCode) { this.gatewayCode = gatewayCode; }
 }
@@ -12,6 +12,9 @@ public class PaymentResponse {
     private String orderNumber;
     private BigDecimal amount;
     private String paymentMethod;
+    private String gatewayCode;
+    private BigDecimal feeAmount;
+    private BigDecimal refundedAmount;
     private String status;
     private String gatewayResponse;
     private LocalDateTime processedAt;
@@ -31,6 +34,12 @@ public class PaymentResponse {
     public void setAmount(BigDecimal amount) { this.amount = amount; }
     public String getPaymentMethod() { return paymentMethod; }
     public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+    public String getGatewayCode() { return gatewayCode; }
+    public void setGatewayCode(String gatewayCode) { this.gatewayCode = gatewayCode; }
+    public BigDecimal getFeeAmount() { return feeAmount; }
+    public void setFeeAmount(BigDecimal feeAmount) { this.feeAmount = feeAmount; }
+    public BigDecimal getRefundedAmount() { return refundedAmount; }
+    public void setRefundedAmount(BigDecimal refundedAmount) { this.refundedAmount = refundedAmount; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
     public String getGatewayResponse() { return gatewayResponse; }
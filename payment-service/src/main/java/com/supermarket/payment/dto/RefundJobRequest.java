@@ -0,0 +1,51 @@
+package com.supermarket.payment.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+
+/**
+ * Selects the payments to refund. PRODUCT refunds what each order spent on the product among
+ * orders placed in [fromDate, toDate); ORDER_RANGE and DATE_RANGE refund the remaining balance
+ * of every payment for orders fromOrderId..toOrderId or taken in [fromDate, toDate).
+ */
+public class RefundJobRequest {
+
+    @NotNull
+    private String selectionType;
+
+    private Long productId;
+
+    private Long fromOrderId;
+
+    private Long toOrderId;
+
+    private LocalDateTime fromDate;
+
+    private LocalDateTime toDate;
+
+    /** Only refund payments taken through this gateway. */
+    private String gatewayCode;
+
+    @NotBlank
+    @Size(max = 500)
+    private String reason;
+
+    public String getSelectionType() { return selectionType; }
+    public void setSelectionType(String selectionType) { this.selectionType = selectionType; }
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public Long getFromOrderId() { return fromOrderId; }
+    public void setFromOrderId(Long fromOrderId) { this.fromOrderId = fromOrderId; }
+    public Long getToOrderId() { return toOrderId; }
+    public void setToOrderId(Long toOrderId) { this.toOrderId = toOrderId; }
+    public LocalDateTime getFromDate() { return fromDate; }
+    public void setFromDate(LocalDateTime fromDate) { this.fromDate = fromDate; }
+    public LocalDateTime getToDate() { return toDate; }
+    public void setToDate(LocalDateTime toDate) { this.toDate = toDate; }
+    public String getGatewayCode() { return gatewayCode; }
+    public void setGatewayCode(String gatewayCode) { this.gatewayCode = gatewayCode; }
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+}
@@ -0,0 +1,75 @@
+package com.supermarket.payment.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class RefundJobResponse {
+
+    private Long id;
+    private String selectionType;
+    private Long productId;
+    private Long fromOrderId;
+    private Long toOrderId;
+    private LocalDateTime fromDate;
+    private LocalDateTime toDate;
+    private String gatewayCode;
+    private String reason;
+    private String status;
+    private String message;
+    private int totalItems;
+    private BigDecimal totalAmount;
+    private long pending;
+    private long inFlight;
+    private long refunded;
+    private long failed;
+    private long skipped;
+    private BigDecimal refundedAmount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getSelectionType() { return selectionType; }
+    public void setSelectionType(String selectionType) { this.selectionType = selectionType; }
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public Long getFromOrderId() { return fromOrderId; }
+    public void setFromOrderId(Long fromOrderId) { this.fromOrderId = fromOrderId; }
+    public Long getToOrderId() { return toOrderId; }
+    public void setToOrderId(Long toOrderId) { this.toOrderId = toOrderId; }
+    public LocalDateTime getFromDate() { return fromDate; }
+    public void setFromDate(LocalDateTime fromDate) { this.fromDate = fromDate; }
+    public LocalDateTime getToDate() { return toDate; }
+    public void setToDate(LocalDateTime toDate) { this.toDate = toDate; }
+    public String getGatewayCode() { return gatewayCode; }
+    public void setGatewayCode(String gatewayCode) { this.gatewayCode = gatewayCode; }
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    public int getTotalItems() { return totalItems; }
+    public void setTotalItems(int totalItems) { this.totalItems = totalItems; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    public long getPending() { return pending; }
+    public void setPending(long pending) { this.pending = pending; }
+    public long getInFlight() { return inFlight; }
+    public void setInFlight(long inFlight) { this.inFlight = inFlight; }
+    public long getRefunded() { return refunded; }
+    public void setRefunded(long refunded) { this.refunded = refunded; }
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+    public long getSkipped() { return skipped; }
+    public void setSkipped(long skipped) { this.skipped = skipped; }
+    public BigDecimal getRefundedAmount() { return refundedAmount; }
+    public void setRefundedAmount(BigDecimal refundedAmount) { this.refundedAmount = refundedAmount; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
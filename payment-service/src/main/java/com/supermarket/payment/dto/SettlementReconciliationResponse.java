@@ -0,0 +1,38 @@
+package com.supermarket.payment.dto;
+
+import java.time.LocalDate;
+
+public class SettlementReconciliationResponse {
+
+    private String reportId;
+    private LocalDate settlementDate;
+    private String gatewayCode;
+    private long settlementRecords;
+    private long invalidLines;
+    private long matched;
+    private long amountMismatches;
+    private long duplicates;
+    private long missingInSettlement;
+    private long missingInPayments;
+
+    public String getReportId() { return reportId; }
+    public void setReportId(String reportId) { this.reportId = reportId; }
+    public LocalDate getSettlementDate() { return settlementDate; }
+    public void setSettlementDate(LocalDate settlementDate) { this.settlementDate = settlementDate; }
+    public String getGatewayCode() { return gatewayCode; }
+    public void setGatewayCode(String gatewayCode) { this.gatewayCode = gatewayCode; }
+    public long getSettlementRecords() { return settlementRecords; }
+    public void setSettlementRecords(long settlementRecords) { this.settlementRecords = settlementRecords; }
+    public long getInvalidLines() { return invalidLines; }
+    public void setInvalidLines(long invalidLines) { this.invalidLines = invalidLines; }
+    public long getMatched() { return matched; }
+    public void setMatched(long matched) { this.matched = matched; }
+    public long getAmountMismatches() { return amountMismatches; }
+    public void setAmountMismatches(long amountMismatches) { this.amountMismatches = amountMismatches; }
+    public long getDuplicates() { return duplicates; }
+    public void setDuplicates(long duplicates) { this.duplicates = duplicates; }
+    public long getMissingInSettlement() { return missingInSettlement; }
+    public void setMissingInSettlement(long missingInSettlement) { this.missingInSettlement = missingInSettlement; }
+    public long getMissingInPayments() { return missingInPayments; }
+    public void setMissingInPayments(long missingInPayments) { this.missingInPayments = missingInPayments; }
+}
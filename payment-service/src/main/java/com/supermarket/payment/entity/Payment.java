@@ -7,7 +7,12 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        // Nulls are distinct, so payments sent without a key are not constrained
+        @Index(name = "uk_payments_idempotency", columnList = "tenantId, orderId, idempotencyKey", unique = true),
+        @Index(name = "idx_payments_tenant_created", columnList = "tenantId, createdAt"),
+        @Index(name = "idx_payments_status_updated", columnList = "status, updatedAt")
+})
 public class Payment {
 
     @Id
@@ -31,6 +36,15 @@ public class Payment {
     @Column(nullable = false)
     private String paymentMethod;
 
+    private String gatewayCode;
+
+    private String idempotencyKey;
+
+    private BigDecimal feeAmount;
+
+    /** Sum of refunds issued or in flight; null means none. */
+    private BigDecimal refundedAmount;
+
     @Column(nullable = false)
     private String status;
 
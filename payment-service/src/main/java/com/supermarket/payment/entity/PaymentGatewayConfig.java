@@ -40,9 +40,22 @@ public class PaymentGatewayConfig {
     @Column(nullable = false)
     private String currency = "USD";
 
+    /** Percentage of the payment amount charged by the provider. */
     @Column(nullable = false)
     private double transactionFee = 0.0;
 
+    /** Adapter that talks to this gateway; null means the built-in simulator. */
+    private String provider;
+
+    /** Per-call timeout; null uses payment.gateway.timeout-ms. */
+    private Integer timeoutMs;
+
+    /** Bulkhead size; null uses payment.gateway.max-concurrent. */
+    private Integer maxConcurrentCalls;
+
+    /** Refunds per second sent to this gateway; null uses payment.refunds.rate-per-second. */
+    private Double refundRatePerSecond;
+
     @Column(length = 1000)
     private String description;
 
@@ -0,0 +1,43 @@
+package com.supermarket.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A payment outcome waiting to be published. Written in the transaction that changes the
+ * payment and deleted once Kafka has acknowledged it, so an outcome is never lost between the
+ * commit and the send.
+ */
+@Data
+@Entity
+@Table(name = "payment_outcome_outbox")
+public class PaymentOutcomeOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long paymentId;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private String tenantId;
+
+    private String transactionId;
+
+    /** In order-service's vocabulary, see {@link com.supermarket.payment.event.PaymentOutcomeEvent}. */
+    @Column(nullable = false)
+    private String paymentStatus;
+
+    private BigDecimal amount;
+
+    private BigDecimal refundedAmount;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,86 @@
+package com.supermarket.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A bulk refund over a selection of payments. The selection is resolved into
+ * {@link RefundJobItem}s when the job is created; item states are the job's checkpoint.
+ */
+@Data
+@Entity
+@Table(name = "refund_jobs", indexes = {
+        @Index(name = "idx_refund_jobs_tenant", columnList = "tenantId, id")
+})
+public class RefundJob {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String PAUSED = "PAUSED";
+    public static final String COMPLETED = "COMPLETED";
+
+    public static final String BY_PRODUCT = "PRODUCT";
+    public static final String BY_ORDER_RANGE = "ORDER_RANGE";
+    public static final String BY_DATE_RANGE = "DATE_RANGE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String tenantId;
+
+    @Column(nullable = false)
+    private String selectionType;
+
+    private Long productId;
+
+    private Long fromOrderId;
+
+    private Long toOrderId;
+
+    private LocalDateTime fromDate;
+
+    private LocalDateTime toDate;
+
+    private String gatewayCode;
+
+    @Column(nullable = false, length = 500)
+    private String reason;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(length = 1000)
+    private String message;
+
+    private int totalItems;
+
+    private BigDecimal totalAmount;
+
+    /** Identifies the run holding the lease; a run that loses it stops at its next page. */
+    private String runId;
+
+    private LocalDateTime leaseUntil;
+
+    private LocalDateTime completedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,64 @@
+package com.supermarket.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One payment to refund within a {@link RefundJob}. IN_FLIGHT means the amount is booked on the
+ * payment and the gateway call may have been made; such items are retried under the same
+ * refund reference.
+ */
+@Data
+@Entity
+@Table(name = "refund_job_items", indexes = {
+        @Index(name = "uk_refund_job_items_payment", columnList = "jobId, paymentId", unique = true),
+        @Index(name = "idx_refund_job_items_job_status", columnList = "jobId, status, id")
+})
+public class RefundJobItem {
+
+    public static final String PENDING = "PENDING";
+    public static final String IN_FLIGHT = "IN_FLIGHT";
+    public static final String REFUNDED = "REFUNDED";
+    public static final String FAILED = "FAILED";
+    public static final String SKIPPED = "SKIPPED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobId;
+
+    @Column(nullable = false)
+    private Long paymentId;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private String transactionId;
+
+    private String gatewayCode;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private String refundReference;
+
+    @Column(nullable = false)
+    private String status;
+
+    private int attempts;
+
+    @Column(length = 1000)
+    private String message;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,40 @@
+package com.supermarket.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A finished settlement reconciliation report. The gzipped CSV itself is stored in
+ * {@link SettlementReportChunk}s, so any instance can serve it.
+ */
+@Data
+@Entity
+@Table(name = "settlement_reports", indexes = {
+        @Index(name = "idx_settlement_reports_created", columnList = "createdAt")
+})
+public class SettlementReport {
+
+    @Id
+    private String reportId;
+
+    @Column(nullable = false)
+    private String tenantId;
+
+    private LocalDate settlementDate;
+
+    private String gatewayCode;
+
+    /** Size of the gzipped report. */
+    @Column(nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,26 @@
+package com.supermarket.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/** One piece of a stored report, so a report is written and read without holding it whole. */
+@Data
+@Entity
+@Table(name = "settlement_report_chunks", indexes = {
+        @Index(name = "uk_settlement_report_chunks", columnList = "reportId, chunkIndex", unique = true)
+})
+public class SettlementReportChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String reportId;
+
+    @Column(nullable = false)
+    private Integer chunkIndex;
+
+    @Column(nullable = false)
+    private byte[] data;
+}
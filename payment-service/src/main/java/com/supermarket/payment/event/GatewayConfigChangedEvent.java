@@ -0,0 +1,20 @@
+package com.supermarket.payment.event;
+
+/**
+ * A tenant's gateway configuration changed. Published locally after the change commits and
+ * relayed over Kafka so that every instance drops its cached copy.
+ */
+public class GatewayConfigChangedEvent {
+
+    private String tenantId;
+
+    public GatewayConfigChangedEvent() {
+    }
+
+    public GatewayConfigChangedEvent(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+}
@@ -0,0 +1,38 @@
+package com.supermarket.payment.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The payment state an order should reflect, published to Kafka keyed by order id whenever a
+ * payment settles or is refunded. {@code paymentStatus} uses order-service's vocabulary: PAID,
+ * FAILED, PARTIALLY_REFUNDED or REFUNDED.
+ */
+public class PaymentOutcomeEvent {
+
+    private Long paymentId;
+    private Long orderId;
+    private String tenantId;
+    private String transactionId;
+    private String paymentStatus;
+    private BigDecimal amount;
+    private BigDecimal refundedAmount;
+    private LocalDateTime occurredAt;
+
+    public Long getPaymentId() { return paymentId; }
+    public void setPaymentId(Long paymentId) { this.paymentId = paymentId; }
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+    public String getTransactionId() { return transactionId; }
+    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
+    public String getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public BigDecimal getRefundedAmount() { return refundedAmount; }
+    public void setRefundedAmount(BigDecimal refundedAmount) { this.refundedAmount = refundedAmount; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
@@ -0,0 +1,5 @@
+package com.supermarket.payment.event;
+
+/** A payment outcome was written to the outbox and can be relayed once committed. */
+public class PaymentOutcomeQueuedEvent {
+}
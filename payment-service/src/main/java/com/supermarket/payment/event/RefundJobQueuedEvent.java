@@ -0,0 +1,13 @@
+package com.supermarket.payment.event;
+
+/** A refund job was created and should start once its items are committed. */
+public class RefundJobQueuedEvent {
+
+    private final Long jobId;
+
+    public RefundJobQueuedEvent(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public Long getJobId() { return jobId; }
+}
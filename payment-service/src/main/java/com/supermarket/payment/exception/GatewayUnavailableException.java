@@ -0,0 +1,13 @@
+package com.supermarket.payment.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** No gateway can take the payment right now because their circuits are open. */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class GatewayUnavailableException extends RuntimeException {
+
+    public GatewayUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.supermarket.payment.gateway;
+
+/** A gateway call that did not produce an answer. */
+public class GatewayCallException extends RuntimeException {
+
+    public enum Reason { BUSY, TIMEOUT, ERROR }
+
+    private final Reason reason;
+
+    public GatewayCallException(Reason reason, String message, Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,122 @@
+package com.supermarket.payment.gateway;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs gateway calls off the caller's thread with a per-gateway timeout and bulkhead. Each
+ * gateway gets its own permit pool, so a slow provider can only tie up its own share of threads;
+ * calls beyond the limit are rejected after a short wait instead of queueing behind it.
+ *
+ * <p>Threads come from one unbounded cached pool; the bulkheads are what bound it.
+ */
+@Component
+public class GatewayCallExecutor {
+
+    private final ExecutorService threads;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final long permitWaitMs;
+
+    public GatewayCallExecutor(@Value("${payment.gateway.permit-wait-ms:100}") long permitWaitMs) {
+        this.permitWaitMs = permitWaitMs;
+        AtomicInteger counter = new AtomicInteger();
+        this.threads = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "payment-gateway-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Calls the gateway and waits at most {@code timeout} for its answer. A timed-out call is
+     * interrupted; whether the provider acted on it is left to settlement reconciliation.
+     *
+     * @param maxConcurrent bulkhead size; a changed value resizes the gateway's bulkhead
+     */
+    public <T> T execute(String gateway, Duration timeout, int maxConcurrent, Callable<T> call) {
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(gateway, key -> new Bulkhead(maxConcurrent));
+        bulkhead.resize(maxConcurrent);
+        try {
+            if (!bulkhead.tryAcquire(permitWaitMs, TimeUnit.MILLISECONDS)) {
+                throw new GatewayCallException(GatewayCallException.Reason.BUSY,
+                        "Gateway " + gateway + " is at its concurrency limit", null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GatewayCallException(GatewayCallException.Reason.ERROR, "Interrupted waiting for gateway", e);
+        }
+
+        Future<T> future;
+        try {
+            future = threads.submit(() -> {
+                try {
+                    return call.call();
+                } finally {
+                    // Held until the call actually ends, so abandoned calls still count against the limit
+                    bulkhead.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            throw new GatewayCallException(GatewayCallException.Reason.ERROR, "Gateway call rejected", e);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new GatewayCallException(GatewayCallException.Reason.TIMEOUT,
+                    "Gateway " + gateway + " timed out after " + timeout.toMillis() + " ms", e);
+        } catch (ExecutionException e) {
+            throw new GatewayCallException(GatewayCallException.Reason.ERROR,
+                    "Gateway " + gateway + " failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new GatewayCallException(GatewayCallException.Reason.ERROR, "Interrupted waiting for gateway", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        threads.shutdownNow();
+    }
+
+    /**
+     * Semaphore whose limit follows the gateway config. Shrinking takes permits away as they are
+     * released, so calls already running finish and only new ones see the lower limit.
+     */
+    private static final class Bulkhead extends Semaphore {
+
+        private int limit;
+
+        private Bulkhead(int limit) {
+            super(limit);
+            this.limit = limit;
+        }
+
+        synchronized void resize(int newLimit) {
+            int delta = newLimit - limit;
+            if (delta > 0) {
+                release(delta);
+            } else if (delta < 0) {
+                reducePermits(-delta);
+            }
+            limit = newLimit;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.supermarket.payment.gateway;
+
+import java.math.BigDecimal;
+
+public class GatewayCharge {
+
+    private final String transactionId;
+    private final Long orderId;
+    private final String orderNumber;
+    private final BigDecimal amount;
+    private final String currency;
+    private final String paymentMethod;
+
+    public GatewayCharge(String transactionId, Long orderId, String orderNumber, BigDecimal amount,
+                         String currency, String paymentMethod) {
+        this.transactionId = transactionId;
+        this.orderId = orderId;
+        this.orderNumber = orderNumber;
+        this.amount = amount;
+        this.currency = currency;
+        this.paymentMethod = paymentMethod;
+    }
+
+    public String getTransactionId() { return transactionId; }
+    public Long getOrderId() { return orderId; }
+    public String getOrderNumber() { return orderNumber; }
+    public BigDecimal getAmount() { return amount; }
+    public String getCurrency() { return currency; }
+    public String getPaymentMethod() { return paymentMethod; }
+}
@@ -0,0 +1,54 @@
+package com.supermarket.payment.gateway;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces calls to each gateway to a configured rate. Callers are spaced evenly, and a gateway
+ * left idle may bank up to one second of calls as a burst. Limits apply per instance.
+ */
+@Component
+public class GatewayRateLimiter {
+
+    private static final long BURST_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, Pacer> pacers = new ConcurrentHashMap<>();
+
+    /**
+     * Blocks until the gateway may be called again.
+     *
+     * @throws GatewayCallException with reason BUSY if interrupted while waiting
+     */
+    public void acquire(String gateway, double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            return;
+        }
+        long wait = pacers.computeIfAbsent(gateway, g -> new Pacer()).reserve(permitsPerSecond, System.nanoTime());
+        if (wait <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GatewayCallException(GatewayCallException.Reason.BUSY,
+                    "Interrupted while waiting for gateway " + gateway, e);
+        }
+    }
+
+    private static final class Pacer {
+
+        private long nextFree = Long.MIN_VALUE;
+
+        /** Takes the next slot and returns how long to wait for it, in nanoseconds. */
+        synchronized long reserve(double permitsPerSecond, long now) {
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+            long slot = Math.max(nextFree, now - BURST_NANOS);
+            nextFree = slot + interval;
+            return slot - now;
+        }
+    }
+}
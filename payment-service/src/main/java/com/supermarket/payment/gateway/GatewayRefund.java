@@ -0,0 +1,27 @@
+package com.supermarket.payment.gateway;
+
+import java.math.BigDecimal;
+
+public class GatewayRefund {
+
+    private final String refundReference;
+    private final String transactionId;
+    private final BigDecimal amount;
+    private final String currency;
+    private final String reason;
+
+    public GatewayRefund(String refundReference, String transactionId, BigDecimal amount, String currency, String reason) {
+        this.refundReference = refundReference;
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.currency = currency;
+        this.reason = reason;
+    }
+
+    /** Stable across retries of the same refund; providers deduplicate on it. */
+    public String getRefundReference() { return refundReference; }
+    public String getTransactionId() { return transactionId; }
+    public BigDecimal getAmount() { return amount; }
+    public String getCurrency() { return currency; }
+    public String getReason() { return reason; }
+}
@@ -0,0 +1,23 @@
+package com.supermarket.payment.gateway;
+
+public class GatewayResult {
+
+    private final boolean approved;
+    private final String message;
+
+    private GatewayResult(boolean approved, String message) {
+        this.approved = approved;
+        this.message = message;
+    }
+
+    public static GatewayResult approved(String message) {
+        return new GatewayResult(true, message);
+    }
+
+    public static GatewayResult declined(String message) {
+        return new GatewayResult(false, message);
+    }
+
+    public boolean isApproved() { return approved; }
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,190 @@
+package com.supermarket.payment.gateway;
+
+import com.supermarket.payment.entity.PaymentGatewayConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the health of each gateway and picks the one a payment should go through.
+ *
+ * <p>Latency and error rate are exponentially weighted moving averages. Each sample weighs at
+ * least as much as in a {@code min-samples} window, and more when it follows a gap
+ * ({@code alpha = 1 - e^(-dt/window)}), so a quiet gateway's history still fades with time.
+ * Gateways are ranked by latency, inflated by their error rate; one that has not been measured
+ * yet ranks first so it gets measured. The score of a gateway that is not being used decays
+ * with the same window, so one that lost its traffic after a bad spell is tried again later
+ * instead of being starved.
+ *
+ * <p>Each gateway also has a circuit breaker. It opens after a run of consecutive failures or
+ * when the error rate crosses a threshold, rejects calls while open, and after the open period
+ * lets a single payment through as a probe (half-open): success closes it, failure reopens it.
+ * A gateway due for a probe is preferred so that recovery is noticed promptly. Declines are
+ * successful calls; only timeouts and errors count as failures.
+ */
+@Component
+public class GatewayRouter {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final Map<String, Health> gateways = new ConcurrentHashMap<>();
+    private final double windowNanos;
+    private final int consecutiveFailures;
+    private final double errorRateThreshold;
+    private final int minSamples;
+    private final double sampleAlpha;
+    private final long openNanos;
+    private final double errorPenalty;
+
+    public GatewayRouter(
+            @Value("${payment.routing.window-ms:30000}") long windowMs,
+            @Value("${payment.routing.consecutive-failures:5}") int consecutiveFailures,
+            @Value("${payment.routing.error-rate-threshold:0.5}") double errorRateThreshold,
+            @Value("${payment.routing.min-samples:20}") int minSamples,
+            @Value("${payment.routing.open-ms:15000}") long openMs,
+            @Value("${payment.routing.error-penalty:10}") double errorPenalty) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.consecutiveFailures = consecutiveFailures;
+        this.errorRateThreshold = errorRateThreshold;
+        this.minSamples = minSamples;
+        this.sampleAlpha = 2.0 / (minSamples + 1);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.errorPenalty = errorPenalty;
+    }
+
+    /**
+     * Healthiest candidate whose circuit admits a call, or null when every circuit is open.
+     * Candidates are tried in order on ties.
+     */
+    public PaymentGatewayConfig choose(List<PaymentGatewayConfig> candidates) {
+        long now = System.nanoTime();
+        for (PaymentGatewayConfig candidate : candidates) {
+            if (health(candidate.getGatewayCode()).tryProbe(now)) {
+                return candidate;
+            }
+        }
+
+        PaymentGatewayConfig best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (PaymentGatewayConfig candidate : candidates) {
+            double score = health(candidate.getGatewayCode()).score(now);
+            if (score < bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /** Whether a call to this specific gateway may go ahead. */
+    public boolean allow(String gatewayCode) {
+        Health health = health(gatewayCode);
+        long now = System.nanoTime();
+        return health.tryProbe(now) || health.score(now) < Double.MAX_VALUE;
+    }
+
+    public void recordSuccess(String gatewayCode, long latencyNanos) {
+        health(gatewayCode).record(System.nanoTime(), latencyNanos, false);
+    }
+
+    public void recordFailure(String gatewayCode, long latencyNanos) {
+        health(gatewayCode).record(System.nanoTime(), latencyNanos, true);
+    }
+
+    public Snapshot snapshot(String gatewayCode) {
+        return health(gatewayCode).snapshot();
+    }
+
+    private Health health(String gatewayCode) {
+        return gateways.computeIfAbsent(gatewayCode, key -> new Health());
+    }
+
+    /** Point-in-time view of a gateway's health. */
+    public record Snapshot(State state, double latencyMs, double errorRate) {
+    }
+
+    private final class Health {
+
+        private State state = State.CLOSED;
+        private double latencyNanos = Double.NaN;
+        private double errorRate;
+        private long lastSample;
+        private int failuresInRow;
+        private int samplesSinceClose;
+        private long openUntil;
+        private long probeStarted;
+        private boolean probing;
+
+        /**
+         * Starts a half-open probe if the open period is over and no probe is running. A probe
+         * whose outcome never arrives is abandoned after another open period.
+         */
+        synchronized boolean tryProbe(long now) {
+            if (state == State.CLOSED || now - openUntil < 0) {
+                return false;
+            }
+            if (probing && now - probeStarted < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probing = true;
+            probeStarted = now;
+            return true;
+        }
+
+        /** Ranking score, lower is better; MAX_VALUE while the circuit rejects calls. */
+        synchronized double score(long now) {
+            if (state != State.CLOSED) {
+                return Double.MAX_VALUE;
+            }
+            if (Double.isNaN(latencyNanos)) {
+                return 0;
+            }
+            double idleDecay = Math.exp(-(now - lastSample) / windowNanos);
+            return latencyNanos * idleDecay * (1 + errorPenalty * errorRate * idleDecay);
+        }
+
+        synchronized void record(long now, long latency, boolean failed) {
+            if (Double.isNaN(latencyNanos)) {
+                latencyNanos = latency;
+                errorRate = failed ? 1 : 0;
+            } else {
+                double alpha = Math.max(sampleAlpha, 1 - Math.exp(-(now - lastSample) / windowNanos));
+                latencyNanos += alpha * (latency - latencyNanos);
+                errorRate += alpha * ((failed ? 1 : 0) - errorRate);
+            }
+            lastSample = now;
+            failuresInRow = failed ? failuresInRow + 1 : 0;
+            samplesSinceClose++;
+
+            if (state == State.HALF_OPEN) {
+                probing = false;
+                if (failed) {
+                    open(now);
+                } else {
+                    state = State.CLOSED;
+                    errorRate = 0;
+                    samplesSinceClose = 0;
+                }
+            } else if (state == State.CLOSED && failed && (failuresInRow >= consecutiveFailures
+                    || (samplesSinceClose >= minSamples && errorRate >= errorRateThreshold))) {
+                open(now);
+            }
+        }
+
+        private void open(long now) {
+            state = State.OPEN;
+            openUntil = now + openNanos;
+        }
+
+        synchronized Snapshot snapshot() {
+            return new Snapshot(state,
+                    Double.isNaN(latencyNanos) ? 0 : latencyNanos / TimeUnit.MILLISECONDS.toNanos(1),
+                    errorRate);
+        }
+    }
+}
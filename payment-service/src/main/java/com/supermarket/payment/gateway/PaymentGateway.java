@@ -0,0 +1,35 @@
+package com.supermarket.payment.gateway;
+
+import com.supermarket.payment.entity.PaymentGatewayConfig;
+
+import java.util.Optional;
+
+/**
+ * Adapter to a payment provider. Implementations are Spring beans, selected by matching
+ * {@link #provider()} against {@link PaymentGatewayConfig#getProvider()}. Calls run through
+ * {@link GatewayCallExecutor}, which cancels them by interruption on timeout, so blocking
+ * implementations must respond to interrupts.
+ */
+public interface PaymentGateway {
+
+    String provider();
+
+    /**
+     * Charges the payment. A declined payment is a normal result; exceptions mean the provider
+     * could not be reached or answered with an error.
+     */
+    GatewayResult charge(GatewayCharge charge, PaymentGatewayConfig config) throws Exception;
+
+    /**
+     * Looks up the outcome of an earlier charge that went unanswered. Empty if the provider has
+     * no record of the transaction; exceptions mean it could not tell, and the lookup is retried.
+     */
+    Optional<GatewayResult> findCharge(String transactionId, PaymentGatewayConfig config) throws Exception;
+
+    /**
+     * Refunds part or all of a captured payment. A rejected refund is a normal result, as for
+     * charges. The same {@link GatewayRefund#getRefundReference()} may be sent again after an
+     * unanswered call and must not refund twice.
+     */
+    GatewayResult refund(GatewayRefund refund, PaymentGatewayConfig config) throws Exception;
+}
@@ -0,0 +1,33 @@
+package com.supermarket.payment.gateway;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Looks up the {@link PaymentGateway} adapter for a provider name. */
+@Component
+public class PaymentGatewayRegistry {
+
+    private final Map<String, PaymentGateway> gateways;
+
+    public PaymentGatewayRegistry(List<PaymentGateway> gateways) {
+        Map<String, PaymentGateway> byProvider = new HashMap<>();
+        for (PaymentGateway gateway : gateways) {
+            PaymentGateway previous = byProvider.put(gateway.provider().toUpperCase(), gateway);
+            if (previous != null) {
+                throw new IllegalStateException("Two payment gateways registered for provider " + gateway.provider());
+            }
+        }
+        this.gateways = Map.copyOf(byProvider);
+    }
+
+    public PaymentGateway get(String provider) {
+        PaymentGateway gateway = gateways.get(provider.toUpperCase());
+        if (gateway == null) {
+            throw new RuntimeException("No payment gateway adapter for provider " + provider);
+        }
+        return gateway;
+    }
+}
@@ -0,0 +1,102 @@
+package com.supermarket.payment.gateway;
+
+import com.supermarket.payment.entity.PaymentGatewayConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for a payment provider, for development and load tests. Latency is drawn from
+ * a log-normal distribution fitted to the configured median and 99th percentile, which gives
+ * the long right tail real providers show. A share of calls can be declined, fail with an
+ * error, or hang long enough to hit the gateway timeout. Recent charge outcomes are kept in
+ * memory for {@link #findCharge}; a charge that failed or was interrupted is never recorded.
+ */
+@Component
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    public static final String PROVIDER = "SIMULATOR";
+
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326;
+    private static final int REMEMBERED_CHARGES = 100_000;
+
+    private final double mu;
+    private final double sigma;
+    private final boolean latencyEnabled;
+    private final double declineRate;
+    private final double errorRate;
+    private final double hangRate;
+    private final long hangMs;
+    private final Map<String, GatewayResult> charges = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, GatewayResult> eldest) {
+                    return size() > REMEMBERED_CHARGES;
+                }
+            });
+
+    public SimulatedPaymentGateway(
+            @Value("${payment.simulator.latency-median-ms:0}") double latencyMedianMs,
+            @Value("${payment.simulator.latency-p99-ms:0}") double latencyP99Ms,
+            @Value("${payment.simulator.decline-rate:0}") double declineRate,
+            @Value("${payment.simulator.error-rate:0}") double errorRate,
+            @Value("${payment.simulator.hang-rate:0}") double hangRate,
+            @Value("${payment.simulator.hang-ms:60000}") long hangMs) {
+        if (latencyP99Ms < latencyMedianMs) {
+            throw new IllegalArgumentException("Simulator p99 latency must not be below the median");
+        }
+        this.latencyEnabled = latencyMedianMs > 0;
+        this.mu = latencyEnabled ? Math.log(latencyMedianMs) : 0;
+        this.sigma = latencyEnabled ? (Math.log(Math.max(latencyP99Ms, latencyMedianMs)) - mu) / Z_99 : 0;
+        this.declineRate = declineRate;
+        this.errorRate = errorRate;
+        this.hangRate = hangRate;
+        this.hangMs = hangMs;
+    }
+
+    @Override
+    public String provider() {
+        return PROVIDER;
+    }
+
+    @Override
+    public GatewayResult charge(GatewayCharge charge, PaymentGatewayConfig config) throws Exception {
+        GatewayResult result = simulate() ? GatewayResult.approved("Payment processed successfully")
+                : GatewayResult.declined("Payment declined (simulated)");
+        charges.put(charge.getTransactionId(), result);
+        return result;
+    }
+
+    @Override
+    public Optional<GatewayResult> findCharge(String transactionId, PaymentGatewayConfig config) {
+        return Optional.ofNullable(charges.get(transactionId));
+    }
+
+    @Override
+    public GatewayResult refund(GatewayRefund refund, PaymentGatewayConfig config) throws Exception {
+        return simulate() ? GatewayResult.approved("Refund processed successfully")
+                : GatewayResult.declined("Refund rejected (simulated)");
+    }
+
+    /** Waits out a simulated call; true if it is approved, false if declined. */
+    private boolean simulate() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < hangRate) {
+            Thread.sleep(hangMs);
+        } else if (latencyEnabled) {
+            Thread.sleep(Math.round(Math.exp(mu + sigma * random.nextGaussian())));
+        }
+
+        double outcome = random.nextDouble();
+        if (outcome < errorRate) {
+            throw new IllegalStateException("Simulated gateway error");
+        }
+        return outcome >= errorRate + declineRate;
+    }
+}
@@ -0,0 +1,23 @@
+package com.supermarket.payment.repository;
+
+import com.supermarket.payment.entity.PaymentOutcomeOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PaymentOutcomeOutboxRepository extends JpaRepository<PaymentOutcomeOutbox, Long> {
+
+    /** Oldest first, so each order's outcomes are sent in the order they were recorded. */
+    List<PaymentOutcomeOutbox> findAllByOrderByIdAsc(Pageable page);
+
+    /**
+     * Transaction-scoped advisory lock, so only one instance relays at a time and outcomes of
+     * one order cannot overtake each other.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('payment_outcome_relay'))", nativeQuery = true)
+    boolean tryLockRelay();
+}
@@ -1,9 +1,20 @@
 package com.supermarket.payment.repository;
 
 import com.supermarket.payment.entity.Payment;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,5 +22,62 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
     Optional<Payment> findByTransactionIdAndTenantId(String transactionId, String tenantId);
     
-    Optional<Payment> findByOrderIdAndTenantId(Long orderId, String tenantId);
+    // An order can have several attempts (e.g. a retry after a decline); the latest one counts
+    Optional<Payment> findFirstByOrderIdAndTenantIdOrderByIdDesc(Long orderId, String tenantId);
+
+    Optional<Payment> findByTenantIdAndOrderIdAndIdempotencyKey(String tenantId, Long orderId, String idempotencyKey);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = :status, p.gatewayResponse = :gatewayResponse, " +
+           "p.processedAt = :processedAt, p.updatedAt = :processedAt " +
+           "WHERE p.id = :id AND p.status = 'PROCESSING'")
+    int completeProcessing(@Param("id") Long id,
+                           @Param("status") String status,
+                           @Param("gatewayResponse") String gatewayResponse,
+                           @Param("processedAt") LocalDateTime processedAt);
+
+    /** PROCESSING payments last changed before the cutoff, longest-waiting first. */
+    List<Payment> findByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(String status, LocalDateTime cutoff, Pageable page);
+
+    /** Moves an unresolved PROCESSING payment to the back of the recovery queue. */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Payment p SET p.updatedAt = :now WHERE p.id = :id AND p.status = 'PROCESSING'")
+    int touchProcessing(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Books a refund against the payment before it is sent, so concurrent refunds cannot exceed
+     * what was captured. The status is left alone until the gateway approves, see
+     * {@link #settleRefund}. Returns 0 if the payment is not refundable or too little is left.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Payment p SET p.refundedAmount = COALESCE(p.refundedAmount, 0) + :amount, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.status IN ('SUCCESS', 'PARTIALLY_REFUNDED') " +
+           "AND p.amount - COALESCE(p.refundedAmount, 0) >= :amount")
+    int reserveRefund(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    /** Locks the payment row until the caller's transaction ends. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.id = :id")
+    Optional<Payment> findByIdForUpdate(@Param("id") Long id);
+
+    /** Records a refund the gateway approved as PARTIALLY_REFUNDED or REFUNDED. */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :status, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.status IN ('SUCCESS', 'PARTIALLY_REFUNDED')")
+    int settleRefund(@Param("id") Long id, @Param("status") String status, @Param("now") LocalDateTime now);
+
+    /**
+     * Takes back a refund booked by {@link #reserveRefund} that the gateway rejected. The status
+     * only ever reflects approved refunds, so it stays as it is.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Payment p SET p.refundedAmount = p.refundedAmount - :amount, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.refundedAmount >= :amount")
+    int releaseRefund(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    List<Payment> findByTenantIdAndOrderIdInAndStatusIn(String tenantId, Collection<Long> orderIds, Collection<String> statuses);
 }
@@ -0,0 +1,61 @@
+package com.supermarket.payment.repository;
+
+import com.supermarket.payment.entity.RefundJobItem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RefundJobItemRepository extends JpaRepository<RefundJobItem, Long> {
+
+    Page<RefundJobItem> findByJobId(Long jobId, Pageable pageable);
+
+    Page<RefundJobItem> findByJobIdAndStatus(Long jobId, String status, Pageable pageable);
+
+    /** Keyset page of unfinished items, in id order. */
+    List<RefundJobItem> findByJobIdAndStatusInAndIdGreaterThanOrderByIdAsc(
+            Long jobId, Collection<String> statuses, Long afterId, Pageable pageable);
+
+    /** Whether a refund of the payment other than {@code itemId}, from any job, is in flight. */
+    boolean existsByPaymentIdAndStatusAndIdNot(Long paymentId, String status, Long itemId);
+
+    /** Rows of (status, item count, amount). */
+    @Query("SELECT i.status, COUNT(i), SUM(i.amount) FROM RefundJobItem i WHERE i.jobId = :jobId GROUP BY i.status")
+    List<Object[]> summarize(@Param("jobId") Long jobId);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE RefundJobItem i SET i.status = 'IN_FLIGHT', i.attempts = i.attempts + 1, i.updatedAt = :now " +
+           "WHERE i.id = :id AND i.status = 'PENDING'")
+    int markInFlight(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE RefundJobItem i SET i.attempts = i.attempts + 1, i.updatedAt = :now " +
+           "WHERE i.id = :id AND i.status = 'IN_FLIGHT'")
+    int markRetry(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /** Settles an in-flight item; 0 if another run already did. */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE RefundJobItem i SET i.status = :status, i.message = :message, i.updatedAt = :now " +
+           "WHERE i.id = :id AND i.status = 'IN_FLIGHT'")
+    int complete(@Param("id") Long id,
+                 @Param("status") String status,
+                 @Param("message") String message,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE RefundJobItem i SET i.message = :message, i.updatedAt = :now WHERE i.id = :id")
+    int note(@Param("id") Long id, @Param("message") String message, @Param("now") LocalDateTime now);
+}
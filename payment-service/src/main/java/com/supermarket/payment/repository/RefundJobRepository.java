@@ -0,0 +1,66 @@
+package com.supermarket.payment.repository;
+
+import com.supermarket.payment.entity.RefundJob;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefundJobRepository extends JpaRepository<RefundJob, Long> {
+
+    Optional<RefundJob> findByIdAndTenantId(Long id, String tenantId);
+
+    Page<RefundJob> findByTenantIdOrderByIdDesc(String tenantId, Pageable pageable);
+
+    /**
+     * Starts a run: a queued or paused job, or a running one whose lease has lapsed. Commits on
+     * its own, as it is called from after-commit listeners where the finished transaction is
+     * still bound and cannot be joined.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("UPDATE RefundJob j SET j.status = 'RUNNING', j.runId = :runId, j.leaseUntil = :leaseUntil, " +
+           "j.message = NULL, j.updatedAt = :now " +
+           "WHERE j.id = :id AND (j.status IN ('QUEUED', 'PAUSED') OR (j.status = 'RUNNING' AND j.leaseUntil < :now))")
+    int claim(@Param("id") Long id,
+              @Param("runId") String runId,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE RefundJob j SET j.leaseUntil = :leaseUntil, j.updatedAt = :now " +
+           "WHERE j.id = :id AND j.runId = :runId AND j.status = 'RUNNING'")
+    int renewLease(@Param("id") Long id,
+                   @Param("runId") String runId,
+                   @Param("now") LocalDateTime now,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE RefundJob j SET j.status = :status, j.message = :message, j.leaseUntil = NULL, " +
+           "j.completedAt = :completedAt, j.updatedAt = :now " +
+           "WHERE j.id = :id AND j.runId = :runId AND j.status = 'RUNNING'")
+    int finish(@Param("id") Long id,
+               @Param("runId") String runId,
+               @Param("status") String status,
+               @Param("message") String message,
+               @Param("completedAt") LocalDateTime completedAt,
+               @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE RefundJob j SET j.status = 'PAUSED', j.message = 'Paused on request', j.leaseUntil = NULL, " +
+           "j.updatedAt = :now " +
+           "WHERE j.id = :id AND j.tenantId = :tenantId AND j.status IN ('QUEUED', 'RUNNING')")
+    int pause(@Param("id") Long id, @Param("tenantId") String tenantId, @Param("now") LocalDateTime now);
+}
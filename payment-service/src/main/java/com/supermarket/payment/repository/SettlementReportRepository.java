@@ -0,0 +1,13 @@
+package com.supermarket.payment.repository;
+
+import com.supermarket.payment.entity.SettlementReport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SettlementReportRepository extends JpaRepository<SettlementReport, String> {
+
+    Optional<SettlementReport> findByReportIdAndTenantId(String reportId, String tenantId);
+}
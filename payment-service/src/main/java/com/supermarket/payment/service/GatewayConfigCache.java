@@ -0,0 +1,122 @@
+package com.supermarket.payment.service;
+
+import com.supermarket.payment.entity.PaymentGatewayConfig;
+import com.supermarket.payment.event.GatewayConfigChangedEvent;
+import com.supermarket.payment.repository.PaymentGatewayConfigRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of each tenant's gateway configuration, so the payment path does not query
+ * {@code payment_gateway_configs}. A tenant's gateways are loaded together on first use and
+ * dropped when a change commits, locally and, through a Kafka broadcast, on every other
+ * instance. Entries also expire after a TTL in case a broadcast is missed.
+ *
+ * <p>Cached entities are shared between threads and must be treated as read-only.
+ */
+@Component
+@Slf4j
+public class GatewayConfigCache {
+
+    private final PaymentGatewayConfigRepository repository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String topic;
+    private final long ttlMs;
+    private final Map<String, TenantGateways> tenants = new ConcurrentHashMap<>();
+
+    public GatewayConfigCache(
+            PaymentGatewayConfigRepository repository,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${payment.gateway-cache.topic:payment-gateway-config}") String topic,
+            @Value("${payment.gateway-cache.ttl-ms:300000}") long ttlMs) {
+        this.repository = repository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.ttlMs = ttlMs;
+    }
+
+    /** All of the tenant's gateways, oldest first. */
+    public List<PaymentGatewayConfig> getAll(String tenantId) {
+        return get(tenantId).all;
+    }
+
+    /** The tenant's enabled gateways, oldest first. */
+    public List<PaymentGatewayConfig> getEnabled(String tenantId) {
+        return get(tenantId).enabled;
+    }
+
+    public Optional<PaymentGatewayConfig> getByCode(String gatewayCode, String tenantId) {
+        return Optional.ofNullable(get(tenantId).byCode.get(gatewayCode));
+    }
+
+    public void invalidate(String tenantId) {
+        tenants.remove(tenantId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConfigChanged(GatewayConfigChangedEvent event) {
+        invalidate(event.getTenantId());
+        kafkaTemplate.send(topic, event.getTenantId(), event).whenComplete((result, e) -> {
+            if (e != null) {
+                log.warn("Could not broadcast gateway config change for tenant {}; other instances " +
+                        "will pick it up within {} ms", event.getTenantId(), ttlMs, e);
+            }
+        });
+    }
+
+    // Every instance needs every change, so each one listens in a consumer group of its own
+    @KafkaListener(topics = "${payment.gateway-cache.topic:payment-gateway-config}",
+            groupId = "payment-gateway-config-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void onRemoteConfigChanged(GatewayConfigChangedEvent event) {
+        invalidate(event.getTenantId());
+    }
+
+    private TenantGateways get(String tenantId) {
+        long now = System.currentTimeMillis();
+        TenantGateways cached = tenants.get(tenantId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached;
+        }
+        // compute() serialises the load with invalidate(), so a load that read stale rows is
+        // removed by the invalidation that follows it rather than overwriting it
+        return tenants.compute(tenantId, (key, current) ->
+                current != null && current.expiresAt > now ? current : load(key, now));
+    }
+
+    private TenantGateways load(String tenantId, long now) {
+        List<PaymentGatewayConfig> all = repository.findByTenantId(tenantId).stream()
+                .sorted(Comparator.comparing(PaymentGatewayConfig::getId))
+                .collect(Collectors.toUnmodifiableList());
+        return new TenantGateways(all, now + ttlMs);
+    }
+
+    private static final class TenantGateways {
+
+        final List<PaymentGatewayConfig> all;
+        final List<PaymentGatewayConfig> enabled;
+        final Map<String, PaymentGatewayConfig> byCode;
+        final long expiresAt;
+
+        TenantGateways(List<PaymentGatewayConfig> all, long expiresAt) {
+            this.all = all;
+            this.enabled = all.stream().filter(PaymentGatewayConfig::isEnabled)
+                    .collect(Collectors.toUnmodifiableList());
+            this.byCode = all.stream().collect(Collectors.toUnmodifiableMap(
+                    PaymentGatewayConfig::getGatewayCode, Function.identity()));
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,20 +1,35 @@
 package com.supermarket.payment.service;
 
+import com.supermarket.payment.dto.GatewayHealthResponse;
 import com.supermarket.payment.entity.PaymentGatewayConfig;
+import com.supermarket.payment.event.GatewayConfigChangedEvent;
+import com.supermarket.payment.gateway.GatewayRouter;
 import com.supermarket.payment.repository.PaymentGatewayConfigRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class PaymentGatewayConfigService {
 
     private final PaymentGatewayConfigRepository paymentGatewayConfigRepository;
-
-    public PaymentGatewayConfigService(PaymentGatewayConfigRepository paymentGatewayConfigRepository) {
+    private final GatewayConfigCache gatewayConfigCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GatewayRouter gatewayRouter;
+
+    public PaymentGatewayConfigService(PaymentGatewayConfigRepository paymentGatewayConfigRepository,
+                                       GatewayConfigCache gatewayConfigCache,
+                                       ApplicationEventPublisher eventPublisher,
+                                       GatewayRouter gatewayRouter) {
         this.paymentGatewayConfigRepository = paymentGatewayConfigRepository;
+        this.gatewayConfigCache = gatewayConfigCache;
+        this.eventPublisher = eventPublisher;
+        this.gatewayRouter = gatewayRouter;
     }
 
     public PaymentGatewayConfig createGateway(PaymentGatewayConfig config, String tenantId) {
@@ -23,7 +38,9 @@ public class PaymentGatewayConfigService {
         }
 
         config.setTenantId(tenantId);
-        return paymentGatewayConfigRepository.save(config);
+        PaymentGatewayConfig saved = paymentGatewayConfigRepository.save(config);
+        eventPublisher.publishEvent(new GatewayConfigChangedEvent(tenantId));
+        return saved;
     }
 
     public PaymentGatewayConfig updateGateway(Long id, PaymentGatewayConfig config, String tenantId) {
@@ -43,8 +60,14 @@ public class PaymentGatewayConfigService {
         existing.setTransactionFee(config.getTransactionFee());
         existing.setDescription(config.getDescription());
         existing.setEnabled(config.isEnabled());
-
-        return paymentGatewayConfigRepository.save(existing);
+        existing.setProvider(config.getProvider());
+        existing.setTimeoutMs(config.getTimeoutMs());
+        existing.setMaxConcurrentCalls(config.getMaxConcurrentCalls());
+        existing.setRefundRatePerSecond(config.getRefundRatePerSecond());
+
+        PaymentGatewayConfig saved = paymentGatewayConfigRepository.save(existing);
+        eventPublisher.publishEvent(new GatewayConfigChangedEvent(tenantId));
+        return saved;
     }
 
     public PaymentGatewayConfig enableGateway(String gatewayCode, String tenantId) {
@@ -52,7 +75,9 @@ public class PaymentGatewayConfigService {
                 .orElseThrow(() -> new RuntimeException("Payment gateway not found"));
         
         config.setEnabled(true);
-        return paymentGatewayConfigRepository.save(config);
+        PaymentGatewayConfig saved = paymentGatewayConfigRepository.save(config);
+        eventPublisher.publishEvent(new GatewayConfigChangedEvent(tenantId));
+        return saved;
     }
 
     public PaymentGatewayConfig disableGateway(String gatewayCode, String tenantId) {
@@ -60,27 +85,56 @@ public class PaymentGatewayConfigService {
                 .orElseThrow(() -> new RuntimeException("Payment gateway not found"));
         
         config.setEnabled(false);
-        return paymentGatewayConfigRepository.save(config);
+        PaymentGatewayConfig saved = paymentGatewayConfigRepository.save(config);
+        eventPublisher.publishEvent(new GatewayConfigChangedEvent(tenantId));
+        return saved;
     }
 
-    @Transactional(readOnly = true)
+    // Reads are served from GatewayConfigCache and need no transaction
+
+    @Transactional(propagation = Propagation.SUPPORTS)
     public PaymentGatewayConfig getGatewayByCode(String gatewayCode, String tenantId) {
-        return paymentGatewayConfigRepository.findByGatewayCodeAndTenantId(gatewayCode, tenantId)
+        return gatewayConfigCache.getByCode(gatewayCode, tenantId)
                 .orElseThrow(() -> new RuntimeException("Payment gateway not found"));
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<PaymentGatewayConfig> getAllGateways(String tenantId) {
-        return paymentGatewayConfigRepository.findByTenantId(tenantId);
+        return gatewayConfigCache.getAll(tenantId);
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<PaymentGatewayConfig> getEnabledGateways(String tenantId) {
-        return paymentGatewayConfigRepository.findByTenantIdAndEnabledTrue(tenantId);
+        return gatewayConfigCache.getEnabled(tenantId);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public PaymentGatewayConfig getEnabledGateway(String gatewayCode, String tenantId) {
+        return gatewayConfigCache.getByCode(gatewayCode, tenantId)
+                .filter(PaymentGatewayConfig::isEnabled)
+                .orElseThrow(() -> new RuntimeException("Payment gateway " + gatewayCode + " is not enabled"));
+    }
+
+    /** Routing health of the tenant's gateways as seen by this instance. */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<GatewayHealthResponse> getGatewayHealth(String tenantId) {
+        return gatewayConfigCache.getAll(tenantId).stream()
+                .map(config -> {
+                    GatewayRouter.Snapshot snapshot = gatewayRouter.snapshot(config.getGatewayCode());
+                    GatewayHealthResponse response = new GatewayHealthResponse();
+                    response.setGatewayCode(config.getGatewayCode());
+                    response.setEnabled(config.isEnabled());
+                    response.setCircuitState(snapshot.state().name());
+                    response.setLatencyMs(snapshot.latencyMs());
+                    response.setErrorRate(snapshot.errorRate());
+                    return response;
+                })
+                .collect(Collectors.toList());
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean isGatewayEnabled(String gatewayCode, String tenantId) {
-        return paymentGatewayConfigRepository.findByGatewayCodeAndTenantId(gatewayCode, tenantId)
+        return gatewayConfigCache.getByCode(gatewayCode, tenantId)
                 .map(PaymentGatewayConfig::isEnabled)
                 .orElse(false);
     }
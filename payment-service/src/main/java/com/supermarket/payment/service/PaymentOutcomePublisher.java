@@ -0,0 +1,176 @@
+package com.supermarket.payment.service;
+
+import com.supermarket.payment.entity.Payment;
+import com.supermarket.payment.entity.PaymentOutcomeOutbox;
+import com.supermarket.payment.event.PaymentOutcomeEvent;
+import com.supermarket.payment.event.PaymentOutcomeQueuedEvent;
+import com.supermarket.payment.repository.PaymentOutcomeOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tells order-service about settled payments and refunds. Events are keyed by order id, so all
+ * outcomes of one order land on one partition and are consumed in the order they happened.
+ *
+ * <p>{@link #publish} only writes the outcome to an outbox table, in the caller's transaction.
+ * A relay sends the outbox in id order and deletes what Kafka acknowledged; it runs right
+ * after each commit and on a fixed delay, which picks up whatever a failed send or a crash left
+ * behind. Delivery is at least once; order-service ignores outcomes it has already applied.
+ */
+@Component
+@Slf4j
+public class PaymentOutcomePublisher {
+
+    private static final Map<String, String> ORDER_PAYMENT_STATUS = Map.of(
+            "SUCCESS", "PAID",
+            "FAILED", "FAILED",
+            "PARTIALLY_REFUNDED", "PARTIALLY_REFUNDED",
+            "REFUNDED", "REFUNDED");
+
+    private final PaymentOutcomeOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final String topic;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final ExecutorService relayThread;
+    private final AtomicBoolean relayPending = new AtomicBoolean();
+
+    public PaymentOutcomePublisher(
+            PaymentOutcomeOutboxRepository outboxRepository,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${payment.outcomes.topic:payment-outcomes}") String topic,
+            @Value("${payment.outcomes.relay-batch-size:500}") int batchSize,
+            @Value("${payment.outcomes.send-timeout-ms:30000}") long sendTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.relayThread = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "payment-outcome-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Queues the payment's current state for order-service; must run in the transaction that set it. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(Payment payment) {
+        String paymentStatus = ORDER_PAYMENT_STATUS.get(payment.getStatus());
+        if (paymentStatus == null) {
+            return;
+        }
+        PaymentOutcomeOutbox outcome = new PaymentOutcomeOutbox();
+        outcome.setPaymentId(payment.getId());
+        outcome.setOrderId(payment.getOrderId());
+        outcome.setTenantId(payment.getTenantId());
+        outcome.setTransactionId(payment.getTransactionId());
+        outcome.setPaymentStatus(paymentStatus);
+        outcome.setAmount(payment.getAmount());
+        outcome.setRefundedAmount(payment.getRefundedAmount());
+        outcome.setOccurredAt(LocalDateTime.now());
+        outboxRepository.save(outcome);
+        eventPublisher.publishEvent(new PaymentOutcomeQueuedEvent());
+    }
+
+    /** Relays off the committing thread; outcomes queued while a relay is pending share it. */
+    @TransactionalEventListener
+    public void onOutcomeQueued(PaymentOutcomeQueuedEvent event) {
+        if (relayPending.compareAndSet(false, true)) {
+            relayThread.execute(() -> {
+                relayPending.set(false);
+                relay();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outcomes.relay-interval-ms:5000}")
+    public void relay() {
+        try {
+            Integer sent;
+            do {
+                sent = transactionTemplate.execute(status -> relayBatch());
+            } while (sent != null && sent == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Relaying payment outcomes failed; will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sends one batch and deletes the longest acknowledged prefix of it. Anything after a failed
+     * send stays queued, so no outcome of an order is ever sent after a later one.
+     */
+    private int relayBatch() {
+        if (!outboxRepository.tryLockRelay()) {
+            return 0;
+        }
+        List<PaymentOutcomeOutbox> batch = outboxRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize));
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (PaymentOutcomeOutbox outcome : batch) {
+            sends.add(kafkaTemplate.send(topic, String.valueOf(outcome.getOrderId()), toEvent(outcome)));
+        }
+
+        List<Long> acknowledged = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                sends.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                PaymentOutcomeOutbox outcome = batch.get(i);
+                log.error("Could not publish {} outcome of payment {} for order {}",
+                        outcome.getPaymentStatus(), outcome.getTransactionId(), outcome.getOrderId(), e);
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                break;
+            }
+            acknowledged.add(batch.get(i).getId());
+        }
+        outboxRepository.deleteAllByIdInBatch(acknowledged);
+        return acknowledged.size();
+    }
+
+    private static PaymentOutcomeEvent toEvent(PaymentOutcomeOutbox outcome) {
+        PaymentOutcomeEvent event = new PaymentOutcomeEvent();
+        event.setPaymentId(outcome.getPaymentId());
+        event.setOrderId(outcome.getOrderId());
+        event.setTenantId(outcome.getTenantId());
+        event.setTransactionId(outcome.getTransactionId());
+        event.setPaymentStatus(outcome.getPaymentStatus());
+        event.setAmount(outcome.getAmount());
+        event.setRefundedAmount(outcome.getRefundedAmount());
+        event.setOccurredAt(outcome.getOccurredAt());
+        return event;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        relayThread.shutdownNow();
+    }
+}
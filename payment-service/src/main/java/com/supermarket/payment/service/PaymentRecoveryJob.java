@@ -0,0 +1,59 @@
+package com.supermarket.payment.service;
+
+import com.supermarket.payment.entity.Payment;
+import com.supermarket.payment.repository.PaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Settles payments whose charge went unanswered and that are still PROCESSING, by asking the
+ * gateway what became of them. Only payments untouched for {@code stuck-after-ms} are picked,
+ * well past any gateway timeout, so charges still in flight are left alone. Instances may run
+ * this concurrently; settling a payment is a conditional update, so only one publishes it.
+ */
+@Component
+@Slf4j
+public class PaymentRecoveryJob {
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentService paymentService;
+    private final long stuckAfterMs;
+    private final int batchSize;
+
+    public PaymentRecoveryJob(PaymentRepository paymentRepository,
+                              PaymentService paymentService,
+                              @Value("${payment.recovery.stuck-after-ms:120000}") long stuckAfterMs,
+                              @Value("${payment.recovery.batch-size:100}") int batchSize) {
+        this.paymentRepository = paymentRepository;
+        this.paymentService = paymentService;
+        this.stuckAfterMs = stuckAfterMs;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.recovery.interval-ms:60000}")
+    public void recoverStuckPayments() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(stuckAfterMs, ChronoUnit.MILLIS);
+        List<Payment> stuck = paymentRepository.findByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                "PROCESSING", cutoff, PageRequest.of(0, batchSize));
+        int recovered = 0;
+        for (Payment payment : stuck) {
+            try {
+                if (paymentService.recoverProcessing(payment)) {
+                    recovered++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not recover payment {}", payment.getTransactionId(), e);
+            }
+        }
+        if (!stuck.isEmpty()) {
+            log.info("Recovered {} of {} payments stuck in PROCESSING", recovered, stuck.size());
+        }
+    }
+}
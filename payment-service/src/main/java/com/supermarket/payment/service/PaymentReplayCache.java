@@ -0,0 +1,49 @@
+package com.supermarket.payment.service;
+
+import com.supermarket.payment.dto.PaymentResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recently finished payments by idempotency key, so a retry that lands on the same instance is
+ * answered without a database round trip. Only a fast path: the unique index on
+ * {@code payments} is what actually prevents a second charge.
+ *
+ * <p>Only payments in a status they can never leave are kept. A successful payment can still
+ * be refunded, on any instance, so it is always read from the database.
+ */
+@Component
+public class PaymentReplayCache {
+
+    private static final Set<String> FINAL_STATUSES = Set.of("FAILED", "REFUNDED");
+
+    private final Map<String, PaymentResponse> responses;
+
+    public PaymentReplayCache(@Value("${payment.idempotency.cache-size:10000}") int maxEntries) {
+        this.responses = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PaymentResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    static String key(String tenantId, Long orderId, String idempotencyKey) {
+        return tenantId + '|' + orderId + '|' + idempotencyKey;
+    }
+
+    public synchronized PaymentResponse get(String key) {
+        return responses.get(key);
+    }
+
+    /** Ignored unless the payment's status is final. */
+    public synchronized void put(String key, PaymentResponse response) {
+        if (FINAL_STATUSES.contains(response.getStatus())) {
+            responses.put(key, response);
+        }
+    }
+}
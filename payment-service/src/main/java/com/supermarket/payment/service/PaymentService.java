@@ -1,50 +1,282 @@
 package com.supermarket.payment.service;
 
+import com.supermarket.common.util.UniqueIdGenerator;
 import com.supermarket.payment.dto.PaymentRequest;
 import com.supermarket.payment.dto.PaymentResponse;
 import com.supermarket.payment.entity.Payment;
+import com.supermarket.payment.entity.PaymentGatewayConfig;
+import com.supermarket.payment.exception.GatewayUnavailableException;
+import com.supermarket.payment.exception.IdempotencyKeyConflictException;
+import com.supermarket.payment.gateway.GatewayCallException;
+import com.supermarket.payment.gateway.GatewayCallExecutor;
+import com.supermarket.payment.gateway.GatewayCharge;
+import com.supermarket.payment.gateway.GatewayRateLimiter;
+import com.supermarket.payment.gateway.GatewayRefund;
+import com.supermarket.payment.gateway.GatewayResult;
+import com.supermarket.payment.gateway.GatewayRouter;
+import com.supermarket.payment.gateway.PaymentGateway;
+import com.supermarket.payment.gateway.PaymentGatewayRegistry;
+import com.supermarket.payment.gateway.SimulatedPaymentGateway;
 import com.supermarket.payment.repository.PaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 @Transactional
+@Slf4j
 public class PaymentService {
 
+    private static final String DEFAULT_GATEWAY = "default";
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final PaymentRepository paymentRepository;
+    private final UniqueIdGenerator idGenerator;
+    private final PaymentGatewayConfigService gatewayConfigService;
+    private final PaymentGatewayRegistry gatewayRegistry;
+    private final GatewayCallExecutor gatewayCallExecutor;
+    private final PaymentReplayCache replayCache;
+    private final GatewayRouter gatewayRouter;
+    private final GatewayRateLimiter gatewayRateLimiter;
+    private final PaymentOutcomePublisher outcomePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration gatewayTimeout;
+    private final int gatewayMaxConcurrent;
+    private final double refundRatePerSecond;
 
-    public PaymentService(PaymentRepository paymentRepository) {
+    public PaymentService(PaymentRepository paymentRepository,
+                          UniqueIdGenerator idGenerator,
+                          PaymentGatewayConfigService gatewayConfigService,
+                          PaymentGatewayRegistry gatewayRegistry,
+                          GatewayCallExecutor gatewayCallExecutor,
+                          PaymentReplayCache replayCache,
+                          GatewayRouter gatewayRouter,
+                          GatewayRateLimiter gatewayRateLimiter,
+                          PaymentOutcomePublisher outcomePublisher,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${payment.gateway.timeout-ms:5000}") long gatewayTimeoutMs,
+                          @Value("${payment.gateway.max-concurrent:50}") int gatewayMaxConcurrent,
+                          @Value("${payment.refunds.rate-per-second:20}") double refundRatePerSecond) {
         this.paymentRepository = paymentRepository;
+        this.idGenerator = idGenerator;
+        this.gatewayConfigService = gatewayConfigService;
+        this.gatewayRegistry = gatewayRegistry;
+        this.gatewayCallExecutor = gatewayCallExecutor;
+        this.replayCache = replayCache;
+        this.gatewayRouter = gatewayRouter;
+        this.gatewayRateLimiter = gatewayRateLimiter;
+        this.outcomePublisher = outcomePublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gatewayTimeout = Duration.ofMillis(gatewayTimeoutMs);
+        this.gatewayMaxConcurrent = gatewayMaxConcurrent;
+        this.refundRatePerSecond = refundRatePerSecond;
     }
 
-    public PaymentResponse processPayment(PaymentRequest request, String tenantId) {
+    /**
+     * Records the payment as PROCESSING, calls the gateway, then records the result. Each write
+     * commits on its own and no connection is held while the gateway is working, so pool size
+     * no longer caps payment throughput at pool / gateway latency.
+     *
+     * <p>With an idempotency key, a repeat of the request for the same tenant and order returns
+     * the original payment instead of charging again. A repeat that arrives while the first
+     * attempt is still at the gateway gets the PROCESSING payment back.
+     *
+     * <p>A charge that timed out or failed in flight may still have been taken, so the payment
+     * stays PROCESSING until {@link #recoverProcessing} learns the outcome from the gateway.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PaymentResponse processPayment(PaymentRequest request, String tenantId, String idempotencyKey) {
+        String replayKey = null;
+        if (idempotencyKey != null) {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+                throw new RuntimeException("Idempotency key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+            }
+            replayKey = PaymentReplayCache.key(tenantId, request.getOrderId(), idempotencyKey);
+            PaymentResponse cached = replayCache.get(replayKey);
+            if (cached != null) {
+                checkSameRequest(cached.getAmount(), cached.getPaymentMethod(), request);
+                return cached;
+            }
+            Optional<Payment> existing = paymentRepository.findByTenantIdAndOrderIdAndIdempotencyKey(
+                    tenantId, request.getOrderId(), idempotencyKey);
+            if (existing.isPresent()) {
+                return replay(existing.get(), request, replayKey);
+            }
+        }
+
+        PaymentGatewayConfig gatewayConfig = routeGateway(request.getGatewayCode(), tenantId);
+        PaymentGateway gateway = gatewayRegistry.get(providerOf(gatewayConfig));
+
         Payment payment = new Payment();
         payment.setTenantId(tenantId);
-        payment.setTransactionId("TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        payment.setTransactionId(idGenerator.next("TXN"));
         payment.setOrderId(request.getOrderId());
         payment.setOrderNumber(request.getOrderNumber());
         payment.setAmount(request.getAmount());
         payment.setPaymentMethod(request.getPaymentMethod());
+        payment.setGatewayCode(gatewayConfig.getGatewayCode());
+        payment.setIdempotencyKey(idempotencyKey);
+        payment.setFeeAmount(request.getAmount()
+                .multiply(BigDecimal.valueOf(gatewayConfig.getTransactionFee()))
+                .divide(HUNDRED, 2, RoundingMode.HALF_UP));
         payment.setStatus("PROCESSING");
-        
-        // Simulate payment processing
-        boolean success = simulatePaymentProcessing(request);
-        
-        if (success) {
-            payment.setStatus("SUCCESS");
-            payment.setGatewayResponse("Payment processed successfully");
-        } else {
-            payment.setStatus("FAILED");
-            payment.setGatewayResponse("Payment failed");
+        Payment saved;
+        try {
+            saved = paymentRepository.save(payment);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key inserted first
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            Payment winner = paymentRepository.findByTenantIdAndOrderIdAndIdempotencyKey(
+                    tenantId, request.getOrderId(), idempotencyKey).orElseThrow(() -> e);
+            return replay(winner, request, replayKey);
+        }
+
+        GatewayCharge charge = new GatewayCharge(saved.getTransactionId(), saved.getOrderId(),
+                saved.getOrderNumber(), saved.getAmount(), gatewayConfig.getCurrency(), saved.getPaymentMethod());
+        String status;
+        String gatewayResponse;
+        long started = System.nanoTime();
+        try {
+            GatewayResult result = gatewayCallExecutor.execute(gatewayConfig.getGatewayCode(),
+                    timeoutOf(gatewayConfig), maxConcurrentOf(gatewayConfig),
+                    () -> gateway.charge(charge, gatewayConfig));
+            gatewayRouter.recordSuccess(gatewayConfig.getGatewayCode(), System.nanoTime() - started);
+            status = result.isApproved() ? "SUCCESS" : "FAILED";
+            gatewayResponse = result.getMessage();
+        } catch (GatewayCallException e) {
+            if (e.getReason() != GatewayCallException.Reason.BUSY) {
+                gatewayRouter.recordFailure(gatewayConfig.getGatewayCode(), System.nanoTime() - started);
+                log.warn("Outcome of gateway call for {} unknown ({}): {}",
+                        saved.getTransactionId(), e.getReason(), e.getMessage());
+                return mapToResponse(saved);
+            }
+            // A full bulkhead says nothing about the provider itself, and the charge was never sent
+            log.warn("Gateway call for {} rejected: {}", saved.getTransactionId(), e.getMessage());
+            status = "FAILED";
+            gatewayResponse = e.getMessage();
+        }
+
+        complete(saved, status, gatewayResponse);
+        PaymentResponse response = mapToResponse(saved);
+        if (replayKey != null) {
+            replayCache.put(replayKey, response);
+        }
+        return response;
+    }
+
+    /**
+     * Settles a payment left PROCESSING by an unanswered charge, from the gateway's own record
+     * of it. A charge the gateway never received failed. Returns false if the gateway could not
+     * tell; the payment then stays PROCESSING and goes to the back of the recovery queue.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean recoverProcessing(Payment payment) {
+        PaymentGatewayConfig gatewayConfig = gatewayOf(payment.getTenantId(), payment.getGatewayCode());
+        String code = gatewayConfig.getGatewayCode();
+        PaymentGateway gateway = gatewayRegistry.get(providerOf(gatewayConfig));
+
+        Optional<GatewayResult> found = null;
+        if (gatewayRouter.allow(code)) {
+            long started = System.nanoTime();
+            try {
+                found = gatewayCallExecutor.execute(code, timeoutOf(gatewayConfig), maxConcurrentOf(gatewayConfig),
+                        () -> gateway.findCharge(payment.getTransactionId(), gatewayConfig));
+                gatewayRouter.recordSuccess(code, System.nanoTime() - started);
+            } catch (GatewayCallException e) {
+                if (e.getReason() != GatewayCallException.Reason.BUSY) {
+                    gatewayRouter.recordFailure(code, System.nanoTime() - started);
+                }
+                log.debug("Could not look up payment {} at gateway {}: {}", payment.getTransactionId(), code, e.getMessage());
+            }
+        }
+        if (found == null) {
+            paymentRepository.touchProcessing(payment.getId(), LocalDateTime.now());
+            return false;
+        }
+
+        String status = found.map(result -> result.isApproved() ? "SUCCESS" : "FAILED").orElse("FAILED");
+        String gatewayResponse = found.map(GatewayResult::getMessage).orElse("Not received by the gateway");
+        log.info("Recovered payment {} as {}", payment.getTransactionId(), status);
+        complete(payment, status, gatewayResponse);
+        return true;
+    }
+
+    /**
+     * Records the outcome of a PROCESSING payment and, in the same transaction, queues it for
+     * order-service if this call settled it.
+     */
+    private void complete(Payment payment, String status, String gatewayResponse) {
+        LocalDateTime processedAt = LocalDateTime.now();
+        payment.setStatus(status);
+        payment.setGatewayResponse(gatewayResponse);
+        payment.setProcessedAt(processedAt);
+        payment.setUpdatedAt(processedAt);
+        transactionTemplate.executeWithoutResult(tx -> {
+            if (paymentRepository.completeProcessing(payment.getId(), status, gatewayResponse, processedAt) > 0) {
+                outcomePublisher.publish(payment);
+            }
+        });
+    }
+
+    /**
+     * Sends a refund to the gateway that took the payment, paced to the gateway's refund rate.
+     * Bookkeeping is left to the caller; a {@link GatewayCallException} means the outcome is
+     * unknown and the refund may be sent again under the same reference.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public GatewayResult refundAtGateway(String tenantId, String gatewayCode, String refundReference,
+                                         String transactionId, BigDecimal amount, String reason) {
+        PaymentGatewayConfig gatewayConfig = gatewayOf(tenantId, gatewayCode);
+        String code = gatewayConfig.getGatewayCode();
+        PaymentGateway gateway = gatewayRegistry.get(providerOf(gatewayConfig));
+        GatewayRefund refund = new GatewayRefund(refundReference, transactionId, amount, gatewayConfig.getCurrency(), reason);
+
+        // Checked first, so refunds to a gateway with an open circuit do not use up its rate
+        if (!gatewayRouter.allow(code)) {
+            throw new GatewayUnavailableException("Payment gateway " + code + " is temporarily unavailable");
+        }
+        gatewayRateLimiter.acquire(code, refundRateOf(gatewayConfig));
+        long started = System.nanoTime();
+        try {
+            GatewayResult result = gatewayCallExecutor.execute(code, timeoutOf(gatewayConfig),
+                    maxConcurrentOf(gatewayConfig), () -> gateway.refund(refund, gatewayConfig));
+            gatewayRouter.recordSuccess(code, System.nanoTime() - started);
+            return result;
+        } catch (GatewayCallException e) {
+            if (e.getReason() != GatewayCallException.Reason.BUSY) {
+                gatewayRouter.recordFailure(code, System.nanoTime() - started);
+            }
+            throw e;
+        }
+    }
+
+    private PaymentResponse replay(Payment payment, PaymentRequest request, String replayKey) {
+        checkSameRequest(payment.getAmount(), payment.getPaymentMethod(), request);
+        PaymentResponse response = mapToResponse(payment);
+        replayCache.put(replayKey, response);
+        return response;
+    }
+
+    private void checkSameRequest(BigDecimal amount, String paymentMethod, PaymentRequest request) {
+        if (amount.compareTo(request.getAmount()) != 0 || !paymentMethod.equals(request.getPaymentMethod())) {
+            throw new IdempotencyKeyConflictException(
+                    "Idempotency key was already used for a different payment of order " + request.getOrderId());
         }
-        
-        payment.setProcessedAt(LocalDateTime.now());
-        
-        Payment saved = paymentRepository.save(payment);
-        return mapToResponse(saved);
     }
 
     @Transactional(readOnly = true)
@@ -61,14 +293,70 @@ public class PaymentService {
 
     @Transactional(readOnly = true)
     public PaymentResponse getPaymentByOrderId(Long orderId, String tenantId) {
-        Payment payment = paymentRepository.findByOrderIdAndTenantId(orderId, tenantId)
+        Payment payment = paymentRepository.findFirstByOrderIdAndTenantIdOrderByIdDesc(orderId, tenantId)
                 .orElseThrow(() -> new RuntimeException("Payment not found"));
         return mapToResponse(payment);
     }
 
-    private boolean simulatePaymentProcessing(PaymentRequest request) {
-        // Simulate payment gateway processing
-        return true;
+    @Transactional(readOnly = true)
+    public Optional<PaymentResponse> findPaymentByOrderId(Long orderId, String tenantId) {
+        return paymentRepository.findFirstByOrderIdAndTenantIdOrderByIdDesc(orderId, tenantId)
+                .map(this::mapToResponse);
+    }
+
+    /**
+     * The requested gateway if its circuit admits the call, otherwise the healthiest of the
+     * tenant's enabled gateways.
+     */
+    private PaymentGatewayConfig routeGateway(String gatewayCode, String tenantId) {
+        if (gatewayCode != null) {
+            PaymentGatewayConfig config = gatewayConfigService.getEnabledGateway(gatewayCode, tenantId);
+            if (!gatewayRouter.allow(gatewayCode)) {
+                throw new GatewayUnavailableException("Payment gateway " + gatewayCode + " is temporarily unavailable");
+            }
+            return config;
+        }
+        List<PaymentGatewayConfig> enabled = gatewayConfigService.getEnabledGateways(tenantId);
+        PaymentGatewayConfig chosen = gatewayRouter.choose(enabled.isEmpty() ? List.of(defaultGateway(tenantId)) : enabled);
+        if (chosen == null) {
+            throw new GatewayUnavailableException("No payment gateway is currently available");
+        }
+        return chosen;
+    }
+
+    /** The gateway a payment went through, including disabled ones. */
+    private PaymentGatewayConfig gatewayOf(String tenantId, String gatewayCode) {
+        // Payments taken before gateways were configurable went through the simulator
+        return gatewayCode == null || DEFAULT_GATEWAY.equals(gatewayCode)
+                ? defaultGateway(tenantId)
+                : gatewayConfigService.getGatewayByCode(gatewayCode, tenantId);
+    }
+
+    /** Tenants without a configured gateway keep going through the simulator, as before. */
+    private PaymentGatewayConfig defaultGateway(String tenantId) {
+        PaymentGatewayConfig config = new PaymentGatewayConfig();
+        config.setTenantId(tenantId);
+        config.setGatewayCode(DEFAULT_GATEWAY);
+        config.setGatewayName("Built-in simulator");
+        config.setProvider(SimulatedPaymentGateway.PROVIDER);
+        config.setEnabled(true);
+        return config;
+    }
+
+    private String providerOf(PaymentGatewayConfig config) {
+        return config.getProvider() != null ? config.getProvider() : SimulatedPaymentGateway.PROVIDER;
+    }
+
+    private Duration timeoutOf(PaymentGatewayConfig config) {
+        return config.getTimeoutMs() != null ? Duration.ofMillis(config.getTimeoutMs()) : gatewayTimeout;
+    }
+
+    private int maxConcurrentOf(PaymentGatewayConfig config) {
+        return config.getMaxConcurrentCalls() != null ? config.getMaxConcurrentCalls() : gatewayMaxConcurrent;
+    }
+
+    private double refundRateOf(PaymentGatewayConfig config) {
+        return config.getRefundRatePerSecond() != null ? config.getRefundRatePerSecond() : refundRatePerSecond;
     }
 
     private PaymentResponse mapToResponse(Payment payment) {
@@ -80,6 +368,9 @@ public class PaymentService {
         response.setOrderNumber(payment.getOrderNumber());
         response.setAmount(payment.getAmount());
         response.setPaymentMethod(payment.getPaymentMethod());
+        response.setGatewayCode(payment.getGatewayCode());
+        response.setFeeAmount(payment.getFeeAmount());
+        response.setRefundedAmount(payment.getRefundedAmount());
         response.setStatus(payment.getStatus());
         response.setGatewayResponse(payment.getGatewayResponse());
         response.setProcessedAt(payment.getProcessedAt());
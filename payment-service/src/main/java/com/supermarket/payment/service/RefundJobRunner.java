@@ -0,0 +1,244 @@
+package com.supermarket.payment.service;
+
+import com.supermarket.payment.entity.RefundJob;
+import com.supermarket.payment.entity.RefundJobItem;
+import com.supermarket.payment.event.RefundJobQueuedEvent;
+import com.supermarket.payment.gateway.GatewayResult;
+import com.supermarket.payment.repository.PaymentRepository;
+import com.supermarket.payment.repository.RefundJobItemRepository;
+import com.supermarket.payment.repository.RefundJobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Works through a refund job's items in parallel. Each item books its amount on the payment
+ * and turns IN_FLIGHT in one transaction before the gateway is called, and settles once the
+ * gateway answers, so item states always say how far the job got. Calls without an answer
+ * leave the item IN_FLIGHT to be sent again, under the same refund reference, on a later pass
+ * or run.
+ *
+ * <p>A run holds a lease on the job, renewed page by page. Pausing the job or another instance
+ * taking over a lapsed lease stops the run at its next page.
+ */
+@Component
+@Slf4j
+public class RefundJobRunner {
+
+    private static final List<String> UNFINISHED = List.of(RefundJobItem.PENDING, RefundJobItem.IN_FLIGHT);
+
+    private enum Pass { DONE, UNRESOLVED, STOPPED }
+
+    private final RefundJobRepository jobRepository;
+    private final RefundJobItemRepository itemRepository;
+    private final PaymentRepository paymentRepository;
+    private final PaymentService paymentService;
+    private final PaymentOutcomePublisher outcomePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int pageSize;
+    private final long leaseMs;
+    private final int maxPasses;
+    private final long retryDelayMs;
+    private final ExecutorService jobThreads;
+    private final ExecutorService workers;
+
+    public RefundJobRunner(
+            RefundJobRepository jobRepository,
+            RefundJobItemRepository itemRepository,
+            PaymentRepository paymentRepository,
+            PaymentService paymentService,
+            PaymentOutcomePublisher outcomePublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${payment.refunds.page-size:200}") int pageSize,
+            @Value("${payment.refunds.lease-ms:300000}") long leaseMs,
+            @Value("${payment.refunds.max-passes:3}") int maxPasses,
+            @Value("${payment.refunds.retry-delay-ms:5000}") long retryDelayMs,
+            @Value("${payment.refunds.max-running-jobs:2}") int maxRunningJobs,
+            @Value("${payment.refunds.workers:16}") int workers) {
+        this.jobRepository = jobRepository;
+        this.itemRepository = itemRepository;
+        this.paymentRepository = paymentRepository;
+        this.paymentService = paymentService;
+        this.outcomePublisher = outcomePublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pageSize = pageSize;
+        this.leaseMs = leaseMs;
+        this.maxPasses = maxPasses;
+        this.retryDelayMs = retryDelayMs;
+        this.jobThreads = Executors.newFixedThreadPool(maxRunningJobs, daemon("refund-job"));
+        this.workers = Executors.newFixedThreadPool(workers, daemon("refund-worker"));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobQueued(RefundJobQueuedEvent event) {
+        start(event.getJobId());
+    }
+
+    /** Claims the job and runs it in the background; false if it cannot be claimed. */
+    public boolean start(Long jobId) {
+        String runId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        if (jobRepository.claim(jobId, runId, now, now.plus(leaseMs, ChronoUnit.MILLIS)) == 0) {
+            return false;
+        }
+        jobThreads.execute(() -> run(jobId, runId));
+        return true;
+    }
+
+    private void run(Long jobId, String runId) {
+        try {
+            RefundJob job = jobRepository.findById(jobId).orElseThrow(() -> new RuntimeException("Refund job not found"));
+            for (int pass = 1; ; pass++) {
+                Pass result = runPass(job, runId);
+                if (result == Pass.STOPPED) {
+                    log.info("Refund job {} stopped after losing its lease", jobId);
+                    return;
+                }
+                if (result == Pass.DONE) {
+                    LocalDateTime now = LocalDateTime.now();
+                    jobRepository.finish(jobId, runId, RefundJob.COMPLETED, null, now, now);
+                    log.info("Refund job {} completed", jobId);
+                    return;
+                }
+                if (pass >= maxPasses) {
+                    jobRepository.finish(jobId, runId, RefundJob.PAUSED,
+                            "Some refunds got no answer from the gateway; resume to retry them", null, LocalDateTime.now());
+                    log.warn("Refund job {} paused with unresolved items after {} passes", jobId, pass);
+                    return;
+                }
+                Thread.sleep(retryDelayMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            jobRepository.finish(jobId, runId, RefundJob.PAUSED, "Interrupted by shutdown", null, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Refund job {} failed", jobId, e);
+            jobRepository.finish(jobId, runId, RefundJob.PAUSED, "Stopped by error: " + e.getMessage(), null, LocalDateTime.now());
+        }
+    }
+
+    /** Goes over every unfinished item once, a page at a time. */
+    private Pass runPass(RefundJob job, String runId) {
+        boolean unresolved = false;
+        long afterId = 0;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            if (jobRepository.renewLease(job.getId(), runId, now, now.plus(leaseMs, ChronoUnit.MILLIS)) == 0) {
+                return Pass.STOPPED;
+            }
+            List<RefundJobItem> page = itemRepository.findByJobIdAndStatusInAndIdGreaterThanOrderByIdAsc(
+                    job.getId(), UNFINISHED, afterId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                return unresolved ? Pass.UNRESOLVED : Pass.DONE;
+            }
+
+            List<CompletableFuture<Boolean>> futures = new ArrayList<>(page.size());
+            for (RefundJobItem item : page) {
+                futures.add(CompletableFuture.supplyAsync(() -> process(job, item), workers));
+            }
+            for (CompletableFuture<Boolean> future : futures) {
+                if (!future.join()) {
+                    unresolved = true;
+                }
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    /** Refunds one item; false if its outcome is still open. */
+    private boolean process(RefundJob job, RefundJobItem item) {
+        try {
+            if (RefundJobItem.PENDING.equals(item.getStatus())) {
+                Boolean booked = transactionTemplate.execute(status -> book(item));
+                if (!Boolean.TRUE.equals(booked)) {
+                    return true;
+                }
+            } else if (itemRepository.markRetry(item.getId(), LocalDateTime.now()) == 0) {
+                return true;
+            }
+
+            GatewayResult result = paymentService.refundAtGateway(job.getTenantId(), item.getGatewayCode(),
+                    item.getRefundReference(), item.getTransactionId(), item.getAmount(), job.getReason());
+            if (result.isApproved()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (itemRepository.complete(item.getId(), RefundJobItem.REFUNDED, result.getMessage(), LocalDateTime.now()) > 0) {
+                        settle(item);
+                    }
+                });
+            } else {
+                transactionTemplate.executeWithoutResult(status -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    if (itemRepository.complete(item.getId(), RefundJobItem.FAILED, result.getMessage(), now) > 0) {
+                        paymentRepository.releaseRefund(item.getPaymentId(), item.getAmount(), now);
+                    }
+                });
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // Gateway busy, unreachable or timed out: the refund may or may not have happened
+            log.warn("Refund {} of job {} unresolved: {}", item.getRefundReference(), job.getId(), e.getMessage());
+            itemRepository.note(item.getId(), e.getMessage(), LocalDateTime.now());
+            return false;
+        }
+    }
+
+    /**
+     * Moves the payment to PARTIALLY_REFUNDED, or to REFUNDED once the approved refunds cover it.
+     * The payment row is locked first, so the check for other refunds in flight sees any that
+     * settled concurrently; a booked amount that could still be released never counts as refunded.
+     */
+    private void settle(RefundJobItem item) {
+        paymentRepository.findByIdForUpdate(item.getPaymentId()).ifPresent(payment -> {
+            boolean othersInFlight = itemRepository.existsByPaymentIdAndStatusAndIdNot(
+                    payment.getId(), RefundJobItem.IN_FLIGHT, item.getId());
+            boolean covered = payment.getRefundedAmount() != null
+                    && payment.getRefundedAmount().compareTo(payment.getAmount()) >= 0;
+            String status = covered && !othersInFlight ? "REFUNDED" : "PARTIALLY_REFUNDED";
+            if (paymentRepository.settleRefund(payment.getId(), status, LocalDateTime.now()) > 0) {
+                paymentRepository.findById(payment.getId()).ifPresent(outcomePublisher::publish);
+            }
+        });
+    }
+
+    /** Books the refund on the payment; false if nothing is left to refund. */
+    private Boolean book(RefundJobItem item) {
+        LocalDateTime now = LocalDateTime.now();
+        if (itemRepository.markInFlight(item.getId(), now) == 0) {
+            return false;
+        }
+        if (paymentRepository.reserveRefund(item.getPaymentId(), item.getAmount(), now) == 0) {
+            itemRepository.complete(item.getId(), RefundJobItem.SKIPPED, "Payment has too little left to refund", now);
+            return false;
+        }
+        return true;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobThreads.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,335 @@
+package com.supermarket.payment.service;
+
+import com.supermarket.common.dto.ApiResponse;
+import com.supermarket.payment.client.OrderClient;
+import com.supermarket.payment.dto.RefundJobItemResponse;
+import com.supermarket.payment.dto.RefundJobRequest;
+import com.supermarket.payment.dto.RefundJobResponse;
+import com.supermarket.payment.entity.Payment;
+import com.supermarket.payment.entity.RefundJob;
+import com.supermarket.payment.entity.RefundJobItem;
+import com.supermarket.payment.event.RefundJobQueuedEvent;
+import com.supermarket.payment.repository.PaymentRepository;
+import com.supermarket.payment.repository.RefundJobItemRepository;
+import com.supermarket.payment.repository.RefundJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates and tracks bulk refund jobs. Creating a job resolves its selection into one item per
+ * payment in the same transaction, so the set of refunds is fixed up front and the job can be
+ * paused, resumed or picked up by another instance without re-running the selection.
+ */
+@Service
+@Transactional
+@Slf4j
+public class RefundJobService {
+
+    static final List<String> REFUNDABLE = List.of("SUCCESS", "PARTIALLY_REFUNDED");
+
+    private static final int LOOKUP_CHUNK = 1000;
+
+    private static final String INSERT_ITEM =
+            "INSERT INTO refund_job_items (job_id, payment_id, order_id, transaction_id, gateway_code, amount, " +
+            "refund_reference, status, attempts, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    // Selects every refundable payment in range with its remaining balance
+    private static final String INSERT_SELECTED =
+            "INSERT INTO refund_job_items (job_id, payment_id, order_id, transaction_id, gateway_code, amount, " +
+            "refund_reference, status, attempts, created_at, updated_at) " +
+            "SELECT ?, p.id, p.order_id, p.transaction_id, p.gateway_code, p.amount - COALESCE(p.refunded_amount, 0), " +
+            "'RFD-' || ? || '-' || p.id, 'PENDING', 0, ?, ? " +
+            "FROM payments p " +
+            "WHERE p.tenant_id = ? AND p.status IN ('SUCCESS', 'PARTIALLY_REFUNDED') " +
+            "AND p.amount > COALESCE(p.refunded_amount, 0) " +
+            "AND (CAST(? AS VARCHAR) IS NULL OR p.gateway_code = ?) AND ";
+
+    private final RefundJobRepository jobRepository;
+    private final RefundJobItemRepository itemRepository;
+    private final PaymentRepository paymentRepository;
+    private final OrderClient orderClient;
+    private final RefundJobRunner runner;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxItems;
+
+    public RefundJobService(RefundJobRepository jobRepository,
+                            RefundJobItemRepository itemRepository,
+                            PaymentRepository paymentRepository,
+                            OrderClient orderClient,
+                            RefundJobRunner runner,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${payment.refunds.max-items:100000}") int maxItems) {
+        this.jobRepository = jobRepository;
+        this.itemRepository = itemRepository;
+        this.paymentRepository = paymentRepository;
+        this.orderClient = orderClient;
+        this.runner = runner;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Creates the job and its items, then starts it once they are committed. The order-service
+     * lookup for product selections runs before any transaction is opened.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RefundJobResponse createJob(RefundJobRequest request, String tenantId) {
+        validate(request);
+        Map<Long, BigDecimal> productSpend = RefundJob.BY_PRODUCT.equals(request.getSelectionType())
+                ? fetchProductSpend(request, tenantId) : null;
+
+        RefundJob created = transactionTemplate.execute(status -> {
+            RefundJob job = new RefundJob();
+            job.setTenantId(tenantId);
+            job.setSelectionType(request.getSelectionType());
+            job.setProductId(request.getProductId());
+            job.setFromOrderId(request.getFromOrderId());
+            job.setToOrderId(request.getToOrderId());
+            job.setFromDate(request.getFromDate());
+            job.setToDate(request.getToDate());
+            job.setGatewayCode(request.getGatewayCode());
+            job.setReason(request.getReason());
+            job.setStatus(RefundJob.QUEUED);
+            job = jobRepository.save(job);
+
+            int items = productSpend != null ? insertProductItems(job, productSpend) : insertSelectedItems(job);
+            if (items > maxItems) {
+                throw new RuntimeException("Selection matches more than " + maxItems + " payments; narrow it down");
+            }
+            if (items == 0) {
+                throw new RuntimeException("Selection matches no refundable payments");
+            }
+            job.setTotalItems(items);
+            job.setTotalAmount(jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(SUM(amount), 0) FROM refund_job_items WHERE job_id = ?", BigDecimal.class, job.getId()));
+            eventPublisher.publishEvent(new RefundJobQueuedEvent(job.getId()));
+            return job;
+        });
+
+        log.info("Created refund job {} for tenant {}: {} payments, {} total",
+                created.getId(), tenantId, created.getTotalItems(), created.getTotalAmount());
+        return mapToResponse(created);
+    }
+
+    @Transactional(readOnly = true)
+    public RefundJobResponse getJob(Long id, String tenantId) {
+        return mapToResponse(findJob(id, tenantId));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<RefundJobResponse> getJobs(String tenantId, Pageable pageable) {
+        return jobRepository.findByTenantIdOrderByIdDesc(tenantId, pageable).map(this::mapToResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<RefundJobItemResponse> getItems(Long id, String status, String tenantId, Pageable pageable) {
+        RefundJob job = findJob(id, tenantId);
+        Page<RefundJobItem> items = status != null
+                ? itemRepository.findByJobIdAndStatus(job.getId(), status, pageable)
+                : itemRepository.findByJobId(job.getId(), pageable);
+        return items.map(this::mapItemToResponse);
+    }
+
+    /** Restarts a paused job, or one whose runner stopped renewing its lease. */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RefundJobResponse resumeJob(Long id, String tenantId) {
+        RefundJob job = findJob(id, tenantId);
+        if (RefundJob.COMPLETED.equals(job.getStatus())) {
+            throw new RuntimeException("Refund job is already completed");
+        }
+        if (!runner.start(job.getId())) {
+            throw new RuntimeException("Refund job is still running");
+        }
+        return getJob(id, tenantId);
+    }
+
+    /** Stops the job after the items already in progress; it can be resumed later. */
+    public RefundJobResponse pauseJob(Long id, String tenantId) {
+        if (jobRepository.pause(id, tenantId, LocalDateTime.now()) == 0) {
+            RefundJob job = findJob(id, tenantId);
+            throw new RuntimeException("Refund job is " + job.getStatus().toLowerCase() + " and cannot be paused");
+        }
+        return getJob(id, tenantId);
+    }
+
+    private RefundJob findJob(Long id, String tenantId) {
+        return jobRepository.findByIdAndTenantId(id, tenantId)
+                .orElseThrow(() -> new RuntimeException("Refund job not found"));
+    }
+
+    private void validate(RefundJobRequest request) {
+        String type = request.getSelectionType();
+        if (RefundJob.BY_PRODUCT.equals(type)) {
+            if (request.getProductId() == null) {
+                throw new RuntimeException("A product selection requires productId");
+            }
+            validateDates(request);
+        } else if (RefundJob.BY_ORDER_RANGE.equals(type)) {
+            if (request.getFromOrderId() == null || request.getToOrderId() == null
+                    || request.getFromOrderId() > request.getToOrderId()) {
+                throw new RuntimeException("An order range requires fromOrderId <= toOrderId");
+            }
+        } else if (RefundJob.BY_DATE_RANGE.equals(type)) {
+            validateDates(request);
+        } else {
+            throw new RuntimeException("Unknown selection type: " + type);
+        }
+    }
+
+    private void validateDates(RefundJobRequest request) {
+        if (request.getFromDate() == null || request.getToDate() == null
+                || !request.getFromDate().isBefore(request.getToDate())) {
+            throw new RuntimeException("The selection requires fromDate before toDate");
+        }
+    }
+
+    /** What each order spent on the product, as order-service recorded it. */
+    private Map<Long, BigDecimal> fetchProductSpend(RefundJobRequest request, String tenantId) {
+        ApiResponse<List<Map<String, Object>>> response = orderClient.getProductLines(request.getProductId(),
+                request.getFromDate().toString(), request.getToDate().toString(), tenantId);
+        Map<Long, BigDecimal> spend = new LinkedHashMap<>();
+        if (response != null && response.getData() != null) {
+            for (Map<String, Object> line : response.getData()) {
+                Long orderId = ((Number) line.get("orderId")).longValue();
+                spend.put(orderId, new BigDecimal(String.valueOf(line.get("amount"))));
+            }
+        }
+        if (spend.size() > maxItems) {
+            throw new RuntimeException("Selection matches more than " + maxItems + " orders; narrow it down");
+        }
+        return spend;
+    }
+
+    private int insertSelectedItems(RefundJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        // One row past the limit tells an oversized selection apart from one that just fits
+        if (RefundJob.BY_ORDER_RANGE.equals(job.getSelectionType())) {
+            return jdbcTemplate.update(INSERT_SELECTED + "p.order_id BETWEEN ? AND ? ORDER BY p.id LIMIT ?",
+                    job.getId(), job.getId(), timestamp, timestamp, job.getTenantId(),
+                    job.getGatewayCode(), job.getGatewayCode(), job.getFromOrderId(), job.getToOrderId(), maxItems + 1);
+        }
+        return jdbcTemplate.update(INSERT_SELECTED + "p.created_at >= ? AND p.created_at < ? ORDER BY p.id LIMIT ?",
+                job.getId(), job.getId(), timestamp, timestamp, job.getTenantId(),
+                job.getGatewayCode(), job.getGatewayCode(),
+                Timestamp.valueOf(job.getFromDate()), Timestamp.valueOf(job.getToDate()), maxItems + 1);
+    }
+
+    /**
+     * Refunds the product's share of each order, capped at what is left on the payment. Orders
+     * with several captured payments refund against the latest.
+     */
+    private int insertProductItems(RefundJob job, Map<Long, BigDecimal> spend) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> orderIds = new ArrayList<>(spend.keySet());
+        int inserted = 0;
+        for (int from = 0; from < orderIds.size(); from += LOOKUP_CHUNK) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + LOOKUP_CHUNK, orderIds.size()));
+            Map<Long, Payment> byOrder = paymentRepository
+                    .findByTenantIdAndOrderIdInAndStatusIn(job.getTenantId(), chunk, REFUNDABLE).stream()
+                    .filter(payment -> job.getGatewayCode() == null || job.getGatewayCode().equals(payment.getGatewayCode()))
+                    .collect(Collectors.toMap(Payment::getOrderId, Function.identity(),
+                            (a, b) -> a.getId() > b.getId() ? a : b));
+
+            List<Object[]> rows = new ArrayList<>();
+            for (Long orderId : chunk) {
+                Payment payment = byOrder.get(orderId);
+                if (payment == null) {
+                    continue;
+                }
+                BigDecimal refundable = payment.getAmount().subtract(
+                        payment.getRefundedAmount() != null ? payment.getRefundedAmount() : BigDecimal.ZERO);
+                BigDecimal amount = spend.get(orderId).min(refundable);
+                if (amount.signum() <= 0) {
+                    continue;
+                }
+                rows.add(new Object[]{job.getId(), payment.getId(), orderId, payment.getTransactionId(),
+                        payment.getGatewayCode(), amount, "RFD-" + job.getId() + "-" + payment.getId(), now, now});
+            }
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ITEM, rows);
+                inserted += rows.size();
+            }
+        }
+        return inserted;
+    }
+
+    private RefundJobResponse mapToResponse(RefundJob job) {
+        RefundJobResponse response = new RefundJobResponse();
+        response.setId(job.getId());
+        response.setSelectionType(job.getSelectionType());
+        response.setProductId(job.getProductId());
+        response.setFromOrderId(job.getFromOrderId());
+        response.setToOrderId(job.getToOrderId());
+        response.setFromDate(job.getFromDate());
+        response.setToDate(job.getToDate());
+        response.setGatewayCode(job.getGatewayCode());
+        response.setReason(job.getReason());
+        response.setStatus(job.getStatus());
+        response.setMessage(job.getMessage());
+        response.setTotalItems(job.getTotalItems());
+        response.setTotalAmount(job.getTotalAmount());
+        response.setRefundedAmount(BigDecimal.ZERO);
+        for (Object[] row : itemRepository.summarize(job.getId())) {
+            String status = (String) row[0];
+            long count = ((Number) row[1]).longValue();
+            switch (status) {
+                case RefundJobItem.PENDING -> response.setPending(count);
+                case RefundJobItem.IN_FLIGHT -> response.setInFlight(count);
+                case RefundJobItem.REFUNDED -> {
+                    response.setRefunded(count);
+                    response.setRefundedAmount((BigDecimal) row[2]);
+                }
+                case RefundJobItem.FAILED -> response.setFailed(count);
+                case RefundJobItem.SKIPPED -> response.setSkipped(count);
+                default -> log.warn("Refund job {} has items in unknown status {}", job.getId(), status);
+            }
+        }
+        response.setCreatedAt(job.getCreatedAt());
+        response.setUpdatedAt(job.getUpdatedAt());
+        response.setCompletedAt(job.getCompletedAt());
+        return response;
+    }
+
+    private RefundJobItemResponse mapItemToResponse(RefundJobItem item) {
+        RefundJobItemResponse response = new RefundJobItemResponse();
+        response.setId(item.getId());
+        response.setPaymentId(item.getPaymentId());
+        response.setOrderId(item.getOrderId());
+        response.setTransactionId(item.getTransactionId());
+        response.setGatewayCode(item.getGatewayCode());
+        response.setAmount(item.getAmount());
+        response.setRefundReference(item.getRefundReference());
+        response.setStatus(item.getStatus());
+        response.setAttempts(item.getAttempts());
+        response.setMessage(item.getMessage());
+        response.setUpdatedAt(item.getUpdatedAt());
+        return response;
+    }
+}
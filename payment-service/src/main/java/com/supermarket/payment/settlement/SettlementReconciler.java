@@ -0,0 +1,340 @@
+package com.supermarket.payment.settlement;
+
+import com.supermarket.payment.dto.SettlementReconciliationResponse;
+import com.supermarket.payment.entity.SettlementReport;
+import com.supermarket.payment.repository.SettlementReportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reconciles a gateway settlement file against the payments of one day.
+ *
+ * <p>The file ({@code transaction_id,amount[,...]}, optional header) is streamed into an
+ * external sort by transaction id, and the day's settled payments are streamed from a
+ * server-side cursor in the same order; the two sorted streams are then merge-joined, so memory
+ * use is bounded by the sort chunk size however large the day is. Every record lands in the
+ * report as one of {@link Result}. The report is gzipped into the work directory, then stored in
+ * the database in chunks so that any instance can serve it by id, and deleted after the
+ * retention period.
+ */
+@Service
+@Slf4j
+public class SettlementReconciler {
+
+    public enum Result { MATCHED, AMOUNT_MISMATCH, DUPLICATE, MISSING_IN_SETTLEMENT, MISSING_IN_PAYMENTS }
+
+    private static final int MAX_TRANSACTION_ID_LENGTH = 255;
+    private static final int REPORT_CHUNK_SIZE = 256 * 1024;
+
+    // COLLATE "C" orders ids by code point, matching the settlement sort
+    private static final String PAYMENTS_SQL =
+            "SELECT transaction_id, amount, order_id FROM payments " +
+            "WHERE tenant_id = ? AND created_at >= ? AND created_at < ? " +
+            "AND status IN ('SUCCESS', 'PARTIALLY_REFUNDED', 'REFUNDED') " +
+            "AND (CAST(? AS VARCHAR) IS NULL OR gateway_code = ?) " +
+            "ORDER BY transaction_id COLLATE \"C\"";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate reportJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate writeTransactionTemplate;
+    private final SettlementReportRepository reportRepository;
+    private final int sortChunkSize;
+    private final Path workDir;
+    private final Duration reportRetention;
+
+    public SettlementReconciler(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            SettlementReportRepository reportRepository,
+            @Value("${payment.settlement.fetch-size:5000}") int fetchSize,
+            @Value("${payment.settlement.sort-chunk-size:250000}") int sortChunkSize,
+            @Value("${payment.settlement.work-dir:${java.io.tmpdir}}") String workDir,
+            @Value("${payment.settlement.report-retention:P30D}") Duration reportRetention) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // Report chunks are large, so only a few are fetched at a time
+        this.reportJdbcTemplate = new JdbcTemplate(dataSource);
+        this.reportJdbcTemplate.setFetchSize(4);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.writeTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.reportRepository = reportRepository;
+        this.sortChunkSize = sortChunkSize;
+        this.workDir = Paths.get(workDir);
+        this.reportRetention = reportRetention;
+    }
+
+    public SettlementReconciliationResponse reconcile(String tenantId, LocalDate date, String gatewayCode,
+                                                      InputStream settlementFile, boolean gzipped) throws IOException {
+        Files.createDirectories(workDir);
+
+        SettlementReconciliationResponse summary = new SettlementReconciliationResponse();
+        summary.setReportId(UUID.randomUUID().toString());
+        summary.setSettlementDate(date);
+        summary.setGatewayCode(gatewayCode);
+
+        Path partial = Files.createTempFile(workDir, "report", ".partial");
+        try (SettlementSorter sorter = new SettlementSorter(sortChunkSize, workDir)) {
+            readSettlementFile(gzipped ? new GZIPInputStream(settlementFile, 64 * 1024) : settlementFile, sorter, summary);
+
+            try (Writer report = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(partial), 64 * 1024), StandardCharsets.UTF_8))) {
+                report.write("result,transaction_id,payment_amount,settled_amount,order_id\n");
+                MergeJoin join = new MergeJoin(sorter.sorted(), report, summary);
+                Timestamp from = Timestamp.valueOf(date.atStartOfDay());
+                Timestamp to = Timestamp.valueOf(date.plusDays(1).atStartOfDay());
+                try {
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(PAYMENTS_SQL,
+                            rs -> join.payment(rs.getString(1), rs.getBigDecimal(2), rs.getLong(3)),
+                            tenantId, from, to, gatewayCode, gatewayCode));
+                    join.finish();
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+            store(tenantId, summary, partial);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+
+        log.info("Reconciled {} settlement records for tenant {} on {}: {} matched, {} mismatched, {} duplicate, " +
+                        "{} missing in settlement, {} missing in payments",
+                summary.getSettlementRecords(), tenantId, date, summary.getMatched(), summary.getAmountMismatches(),
+                summary.getDuplicates(), summary.getMissingInSettlement(), summary.getMissingInPayments());
+        return summary;
+    }
+
+    /** A finished report of the tenant, if it exists and has not expired. */
+    public Optional<SettlementReport> findReport(String tenantId, String reportId) {
+        try {
+            UUID.fromString(reportId);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        return reportRepository.findByReportIdAndTenantId(reportId, tenantId);
+    }
+
+    /** Writes the gzipped report to {@code out}, a few chunks at a time. */
+    public void copyReport(SettlementReport report, OutputStream out) throws IOException {
+        try {
+            transactionTemplate.executeWithoutResult(status -> reportJdbcTemplate.query(
+                    "SELECT data FROM settlement_report_chunks WHERE report_id = ? ORDER BY chunk_index",
+                    rs -> {
+                        try {
+                            out.write(rs.getBytes(1));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    },
+                    report.getReportId()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Scheduled(cron = "${payment.settlement.report-cleanup-cron:0 30 4 * * *}")
+    public void deleteExpiredReports() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(reportRetention));
+        Integer deleted = writeTransactionTemplate.execute(status -> {
+            reportJdbcTemplate.update("DELETE FROM settlement_report_chunks WHERE report_id IN " +
+                    "(SELECT report_id FROM settlement_reports WHERE created_at < ?)", cutoff);
+            return reportJdbcTemplate.update("DELETE FROM settlement_reports WHERE created_at < ?", cutoff);
+        });
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} settlement reports older than {}", deleted, reportRetention);
+        }
+    }
+
+    /** Copies the finished report into the database; it becomes visible only once complete. */
+    private void store(String tenantId, SettlementReconciliationResponse summary, Path file) throws IOException {
+        SettlementReport report = new SettlementReport();
+        report.setReportId(summary.getReportId());
+        report.setTenantId(tenantId);
+        report.setSettlementDate(summary.getSettlementDate());
+        report.setGatewayCode(summary.getGatewayCode());
+        report.setSizeBytes(Files.size(file));
+
+        try (InputStream in = Files.newInputStream(file)) {
+            writeTransactionTemplate.executeWithoutResult(status -> {
+                byte[] buffer = new byte[REPORT_CHUNK_SIZE];
+                int index = 0;
+                try {
+                    int read;
+                    while ((read = in.readNBytes(buffer, 0, buffer.length)) > 0) {
+                        reportJdbcTemplate.update(
+                                "INSERT INTO settlement_report_chunks (report_id, chunk_index, data) VALUES (?, ?, ?)",
+                                report.getReportId(), index++, Arrays.copyOf(buffer, read));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                reportRepository.save(report);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void readSettlementFile(InputStream in, SettlementSorter sorter, SettlementReconciliationResponse summary)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        long records = 0;
+        long invalid = 0;
+        boolean first = true;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            boolean header = first;
+            first = false;
+            if (line.isBlank()) {
+                continue;
+            }
+            int comma = line.indexOf(',');
+            int end = comma < 0 ? -1 : line.indexOf(',', comma + 1);
+            String transactionId = comma < 0 ? "" : unquote(line.substring(0, comma));
+            String amount = comma < 0 ? "" : unquote(end < 0 ? line.substring(comma + 1) : line.substring(comma + 1, end));
+            try {
+                if (transactionId.isEmpty() || transactionId.length() > MAX_TRANSACTION_ID_LENGTH) {
+                    throw new NumberFormatException("invalid transaction id");
+                }
+                sorter.add(new SettlementRecord(transactionId, new BigDecimal(amount)));
+                records++;
+            } catch (NumberFormatException e) {
+                // A first line that does not parse is taken to be the header
+                if (!header) {
+                    invalid++;
+                }
+            }
+        }
+        summary.setSettlementRecords(records);
+        summary.setInvalidLines(invalid);
+    }
+
+    private static String unquote(String field) {
+        String trimmed = field.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1).replace("\"\"", "\"");
+        }
+        return trimmed;
+    }
+
+    /**
+     * Walks the sorted settlement records alongside the payment rows, which arrive in the same
+     * order. Settlement records that repeat a transaction id beyond the first are duplicates.
+     */
+    private static final class MergeJoin {
+
+        private final Iterator<SettlementRecord> settlements;
+        private final Writer report;
+        private final SettlementReconciliationResponse summary;
+        private SettlementRecord next;
+        private String lastId;
+        private boolean repeated;
+
+        MergeJoin(Iterator<SettlementRecord> settlements, Writer report, SettlementReconciliationResponse summary) {
+            this.settlements = settlements;
+            this.report = report;
+            this.summary = summary;
+            this.next = settlements.hasNext() ? settlements.next() : null;
+        }
+
+        void payment(String transactionId, BigDecimal amount, long orderId) {
+            while (next != null && next.transactionId().compareTo(transactionId) < 0) {
+                unmatched(take());
+            }
+            if (next == null || !next.transactionId().equals(transactionId)) {
+                write(Result.MISSING_IN_SETTLEMENT, transactionId, amount, null, orderId);
+                return;
+            }
+            SettlementRecord settled = take();
+            write(settled.amount().compareTo(amount) == 0 ? Result.MATCHED : Result.AMOUNT_MISMATCH,
+                    transactionId, amount, settled.amount(), orderId);
+            while (next != null && next.transactionId().equals(transactionId)) {
+                write(Result.DUPLICATE, transactionId, amount, take().amount(), orderId);
+            }
+        }
+
+        void finish() {
+            while (next != null) {
+                unmatched(take());
+            }
+        }
+
+        private void unmatched(SettlementRecord record) {
+            write(repeated ? Result.DUPLICATE : Result.MISSING_IN_PAYMENTS, record.transactionId(), null, record.amount(), null);
+        }
+
+        private SettlementRecord take() {
+            SettlementRecord taken = next;
+            next = settlements.hasNext() ? settlements.next() : null;
+            repeated = taken.transactionId().equals(lastId);
+            lastId = taken.transactionId();
+            return taken;
+        }
+
+        private void write(Result result, String transactionId, BigDecimal paymentAmount, BigDecimal settledAmount,
+                           Long orderId) {
+            switch (result) {
+                case MATCHED -> summary.setMatched(summary.getMatched() + 1);
+                case AMOUNT_MISMATCH -> summary.setAmountMismatches(summary.getAmountMismatches() + 1);
+                case DUPLICATE -> summary.setDuplicates(summary.getDuplicates() + 1);
+                case MISSING_IN_SETTLEMENT -> summary.setMissingInSettlement(summary.getMissingInSettlement() + 1);
+                case MISSING_IN_PAYMENTS -> summary.setMissingInPayments(summary.getMissingInPayments() + 1);
+            }
+            try {
+                report.write(result.name());
+                report.write(',');
+                report.write(csv(transactionId));
+                report.write(',');
+                report.write(paymentAmount != null ? paymentAmount.toPlainString() : "");
+                report.write(',');
+                report.write(settledAmount != null ? settledAmount.toPlainString() : "");
+                report.write(',');
+                report.write(orderId != null ? orderId.toString() : "");
+                report.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String csv(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
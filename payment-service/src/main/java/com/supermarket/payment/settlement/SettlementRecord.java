@@ -0,0 +1,7 @@
+package com.supermarket.payment.settlement;
+
+import java.math.BigDecimal;
+
+/** One line of a gateway settlement file. */
+public record SettlementRecord(String transactionId, BigDecimal amount) {
+}
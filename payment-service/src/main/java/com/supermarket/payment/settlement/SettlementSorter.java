@@ -0,0 +1,154 @@
+package com.supermarket.payment.settlement;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts settlement records by transaction id in bounded memory. Records are collected in
+ * chunks of {@code chunkSize}; a full chunk is sorted and spilled to a run file, and the runs
+ * are k-way merged when read back. Input that fits in one chunk never touches the disk.
+ *
+ * <p>Ids compare by {@link String#compareTo}, which for the ASCII ids gateways issue is the
+ * same order as PostgreSQL's {@code COLLATE "C"}.
+ */
+class SettlementSorter implements Closeable {
+
+    private static final Comparator<SettlementRecord> BY_ID = Comparator.comparing(SettlementRecord::transactionId);
+
+    private final int chunkSize;
+    private final Path workDir;
+    private final List<Path> runs = new ArrayList<>();
+    private final List<Closeable> readers = new ArrayList<>();
+    private SettlementRecord[] chunk;
+    private int size;
+
+    SettlementSorter(int chunkSize, Path workDir) {
+        this.chunkSize = chunkSize;
+        this.workDir = workDir;
+        this.chunk = new SettlementRecord[Math.min(chunkSize, 1024)];
+    }
+
+    void add(SettlementRecord record) throws IOException {
+        if (size == chunk.length) {
+            if (size == chunkSize) {
+                spill();
+            } else {
+                chunk = Arrays.copyOf(chunk, Math.min(chunkSize, size * 2));
+            }
+        }
+        chunk[size++] = record;
+    }
+
+    /** Sorted view of everything added. Valid until {@link #close()}. */
+    Iterator<SettlementRecord> sorted() throws IOException {
+        if (runs.isEmpty()) {
+            Arrays.sort(chunk, 0, size, BY_ID);
+            return Arrays.asList(chunk).subList(0, size).iterator();
+        }
+        if (size > 0) {
+            spill();
+        }
+        chunk = null;
+        return new MergeIterator(runs, readers);
+    }
+
+    private void spill() throws IOException {
+        Arrays.sort(chunk, 0, size, BY_ID);
+        Path run = Files.createTempFile(workDir, "settlement-run", ".bin");
+        runs.add(run);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 64 * 1024))) {
+            for (int i = 0; i < size; i++) {
+                out.writeUTF(chunk[i].transactionId());
+                out.writeUTF(chunk[i].amount().toPlainString());
+                chunk[i] = null;
+            }
+        }
+        size = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        chunk = null;
+        for (Closeable reader : readers) {
+            reader.close();
+        }
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+    }
+
+    private static final class RunReader {
+
+        final DataInputStream in;
+        SettlementRecord current;
+
+        RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 64 * 1024));
+        }
+
+        boolean advance() throws IOException {
+            try {
+                current = new SettlementRecord(in.readUTF(), new BigDecimal(in.readUTF()));
+                return true;
+            } catch (EOFException e) {
+                in.close();
+                current = null;
+                return false;
+            }
+        }
+    }
+
+    private static final class MergeIterator implements Iterator<SettlementRecord> {
+
+        private final PriorityQueue<RunReader> heap =
+                new PriorityQueue<>(Comparator.comparing((RunReader reader) -> reader.current.transactionId()));
+
+        MergeIterator(List<Path> runs, List<Closeable> readers) throws IOException {
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run);
+                readers.add(reader.in);
+                if (reader.advance()) {
+                    heap.add(reader);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public SettlementRecord next() {
+            RunReader reader = heap.poll();
+            if (reader == null) {
+                throw new NoSuchElementException();
+            }
+            SettlementRecord record = reader.current;
+            try {
+                if (reader.advance()) {
+                    heap.add(reader);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return record;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.supermarket.product.catalog;
+
+/**
+ * Layout of the terminal catalog file. All values are little-endian and all offsets are
+ * absolute byte positions in the file, so a terminal can memory-map the file and read
+ * fields directly.
+ *
+ * <pre>
+ * Header (64 bytes)
+ *   0  int   magic ("SMCT")
+ *   4  short format version
+ *   6  short flags (reserved)
+ *   8  long  catalog version, increases on every rebuild
+ *  16  long  generated at, epoch millis
+ *  24  int   record count
+ *  28  int   record size
+ *  32  int   records offset
+ *  36  int   barcode index offset
+ *  40  int   barcode index entry count
+ *  44  int   string table offset
+ *  48  int   string table length
+ *  52  int   store id string ref
+ *  56  long  CRC32C of every byte after the header
+ *
+ * Record (48 bytes), sorted by product id
+ *   0  long  product id
+ *   8  long  price in minor units
+ *  16  int   sku ref
+ *  20  int   name ref
+ *  24  int   barcode ref
+ *  28  int   brand ref
+ *  32  int   unit ref
+ *  36  int   category ref
+ *  40  int   flags (bit 0 = active)
+ *  44  int   reserved
+ *
+ * Barcode index entry (8 bytes), sorted by the barcode's UTF-8 bytes, unsigned
+ *   0  int   barcode string ref
+ *   4  int   record index
+ *
+ * String table
+ *   u16 length followed by that many UTF-8 bytes. A string ref is the offset of the
+ *   length prefix relative to the start of the table, or -1 for null. Longer strings are
+ *   cut at the last whole character that fits.
+ * </pre>
+ */
+public final class BinaryCatalogFormat {
+
+    public static final int MAGIC = 0x54434D53;
+    // Version 2 keys the barcode index by string, keeping leading zeros significant
+    public static final short FORMAT_VERSION = 2;
+
+    public static final int HEADER_SIZE = 64;
+    public static final int RECORD_SIZE = 48;
+    public static final int BARCODE_ENTRY_SIZE = 8;
+
+    public static final int NULL_REF = -1;
+    public static final int MAX_STRING_BYTES = 0xFFFF;
+
+    public static final int FLAG_ACTIVE = 1;
+
+    private BinaryCatalogFormat() {
+    }
+}
@@ -0,0 +1,181 @@
+package com.supermarket.product.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import static com.supermarket.product.catalog.BinaryCatalogFormat.*;
+
+/**
+ * Serializes a catalog snapshot into the {@link BinaryCatalogFormat} layout.
+ * The file is written next to the target and moved into place atomically, so a terminal
+ * that has the previous version mapped never observes a partially written file.
+ */
+public final class BinaryCatalogWriter {
+
+    private BinaryCatalogWriter() {
+    }
+
+    public static void write(Path target, String storeId, long version, Collection<CatalogEntry> entries)
+            throws IOException {
+        List<CatalogEntry> records = new ArrayList<>(entries);
+        records.sort(Comparator.comparingLong(CatalogEntry::getProductId));
+
+        StringTable strings = new StringTable(records.size() * 4);
+        int storeIdRef = strings.ref(storeId);
+
+        ByteBuffer recordBuffer = ByteBuffer.allocate(records.size() * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        String[] barcodeKeys = new String[records.size()];
+        int[] barcodeRefs = new int[records.size()];
+        int[] barcodeRecords = new int[records.size()];
+        int barcodeCount = 0;
+
+        for (int i = 0; i < records.size(); i++) {
+            CatalogEntry entry = records.get(i);
+            recordBuffer.putLong(entry.getProductId());
+            recordBuffer.putLong(entry.getPriceMinor());
+            recordBuffer.putInt(strings.ref(entry.getSku()));
+            recordBuffer.putInt(strings.ref(entry.getName()));
+            int barcodeRef = strings.ref(entry.getBarcode());
+            recordBuffer.putInt(barcodeRef);
+            recordBuffer.putInt(strings.ref(entry.getBrand()));
+            recordBuffer.putInt(strings.ref(entry.getUnit()));
+            recordBuffer.putInt(strings.ref(entry.getCategory()));
+            recordBuffer.putInt(entry.isActive() ? FLAG_ACTIVE : 0);
+            recordBuffer.putInt(0);
+
+            String barcode = entry.getBarcode();
+            if (barcode != null && !barcode.isBlank()) {
+                barcodeKeys[barcodeCount] = barcode;
+                barcodeRefs[barcodeCount] = barcodeRef;
+                barcodeRecords[barcodeCount] = i;
+                barcodeCount++;
+            }
+        }
+
+        Integer[] order = new Integer[barcodeCount];
+        for (int i = 0; i < barcodeCount; i++) {
+            order[i] = i;
+        }
+        // Terminals compare raw bytes, so sort by UTF-8 bytes rather than by UTF-16 chars
+        byte[][] barcodeBytes = new byte[barcodeCount][];
+        for (int i = 0; i < barcodeCount; i++) {
+            barcodeBytes[i] = barcodeKeys[i].getBytes(StandardCharsets.UTF_8);
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(barcodeBytes[a], barcodeBytes[b]));
+
+        ByteBuffer indexBuffer = ByteBuffer.allocate(barcodeCount * BARCODE_ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i : order) {
+            indexBuffer.putInt(barcodeRefs[i]);
+            indexBuffer.putInt(barcodeRecords[i]);
+        }
+
+        ByteBuffer stringBuffer = strings.toBuffer();
+
+        int recordsOffset = HEADER_SIZE;
+        int indexOffset = recordsOffset + recordBuffer.capacity();
+        int stringsOffset = indexOffset + indexBuffer.capacity();
+
+        recordBuffer.flip();
+        indexBuffer.flip();
+
+        CRC32C crc = new CRC32C();
+        crc.update(recordBuffer.duplicate());
+        crc.update(indexBuffer.duplicate());
+        crc.update(stringBuffer.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putShort(FORMAT_VERSION);
+        header.putShort((short) 0);
+        header.putLong(version);
+        header.putLong(System.currentTimeMillis());
+        header.putInt(records.size());
+        header.putInt(RECORD_SIZE);
+        header.putInt(recordsOffset);
+        header.putInt(indexOffset);
+        header.putInt(barcodeCount);
+        header.putInt(stringsOffset);
+        header.putInt(stringBuffer.remaining());
+        header.putInt(storeIdRef);
+        header.putLong(crc.getValue());
+        header.flip();
+
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] parts = {header, recordBuffer, indexBuffer, stringBuffer};
+            long remaining = (long) stringsOffset + stringBuffer.remaining();
+            while (remaining > 0) {
+                remaining -= channel.write(parts);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Deduplicating string table; brands, units and categories repeat across most records.
+     */
+    private static final class StringTable {
+
+        private final Map<String, Integer> offsets;
+        private byte[] data = new byte[4096];
+        private int length;
+
+        StringTable(int expectedStrings) {
+            this.offsets = new HashMap<>(Math.max(16, expectedStrings));
+        }
+
+        int ref(String value) {
+            if (value == null) {
+                return NULL_REF;
+            }
+            Integer existing = offsets.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int size = Math.min(bytes.length, MAX_STRING_BYTES);
+            // Never cut inside a multi-byte character: back off over continuation bytes
+            while (size < bytes.length && size > 0 && (bytes[size] & 0xC0) == 0x80) {
+                size--;
+            }
+            ensureCapacity(length + 2 + size);
+            int offset = length;
+            data[length++] = (byte) size;
+            data[length++] = (byte) (size >>> 8);
+            System.arraycopy(bytes, 0, data, length, size);
+            length += size;
+            offsets.put(value, offset);
+            return offset;
+        }
+
+        ByteBuffer toBuffer() {
+            return ByteBuffer.wrap(data, 0, length).slice();
+        }
+
+        private void ensureCapacity(int required) {
+            if (required > data.length) {
+                data = Arrays.copyOf(data, Math.max(required, data.length * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.supermarket.product.catalog;
+
+import com.supermarket.product.entity.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable snapshot of the product fields a terminal needs, detached from the JPA session.
+ */
+public final class CatalogEntry {
+
+    private final long productId;
+    private final long priceMinor;
+    private final String sku;
+    private final String name;
+    private final String barcode;
+    private final String brand;
+    private final String unit;
+    private final String category;
+    private final boolean active;
+
+    public CatalogEntry(long productId, long priceMinor, String sku, String name, String barcode,
+                        String brand, String unit, String category, boolean active) {
+        this.productId = productId;
+        this.priceMinor = priceMinor;
+        this.sku = sku;
+        this.name = name;
+        this.barcode = barcode;
+        this.brand = brand;
+        this.unit = unit;
+        this.category = category;
+        this.active = active;
+    }
+
+    /**
+     * Expects the category association to be fetched already.
+     */
+    public static CatalogEntry from(Product product) {
+        BigDecimal price = product.getBasePrice() != null ? product.getBasePrice() : BigDecimal.ZERO;
+        return new CatalogEntry(
+                product.getId(),
+                price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact(),
+                product.getSku(),
+                product.getName(),
+                product.getBarcode(),
+                product.getBrand(),
+                product.getUnit(),
+                product.getCategory() != null ? product.getCategory().getName() : null,
+                product.isActive());
+    }
+
+    public long getProductId() { return productId; }
+    public long getPriceMinor() { return priceMinor; }
+    public String getSku() { return sku; }
+    public String getName() { return name; }
+    public String getBarcode() { return barcode; }
+    public String getBrand() { return brand; }
+    public String getUnit() { return unit; }
+    public String getCategory() { return category; }
+    public boolean isActive() { return active; }
+}
@@ -0,0 +1,48 @@
+package com.supermarket.product.controller;
+
+import com.supermarket.product.service.CatalogExportService;
+import com.supermarket.product.service.CatalogExportService.CatalogFile;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+@RestController
+@RequestMapping("/api/products/catalog")
+public class CatalogExportController {
+
+    private final CatalogExportService catalogExportService;
+
+    public CatalogExportController(CatalogExportService catalogExportService) {
+        this.catalogExportService = catalogExportService;
+    }
+
+    @GetMapping("/binary")
+    public ResponseEntity<Resource> getBinaryCatalog(
+            @RequestParam String storeId,
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException {
+
+        CatalogFile file = catalogExportService.getCatalogFile(tenantId, storeId);
+        String etag = "\"" + file.getVersion() + "\"";
+
+        if (etag.equals(ifNoneMatch)) {
+            file.close();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .eTag(etag)
+                .header("X-Catalog-Version", String.valueOf(file.getVersion()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"catalog.bin\"")
+                .contentLength(file.getSize())
+                .body(new InputStreamResource(Channels.newInputStream(file.getChannel())));
+    }
+}
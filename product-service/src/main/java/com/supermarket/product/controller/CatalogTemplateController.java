@@ -0,0 +1,58 @@
+package com.supermarket.product.controller;
+
+import com.supermarket.common.dto.ApiResponse;
+import com.supermarket.product.dto.CatalogCopyResult;
+import com.supermarket.product.entity.CatalogTemplate;
+import com.supermarket.product.service.CatalogTemplateService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products/templates")
+public class CatalogTemplateController {
+
+    private final CatalogTemplateService catalogTemplateService;
+
+    public CatalogTemplateController(CatalogTemplateService catalogTemplateService) {
+        this.catalogTemplateService = catalogTemplateService;
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CatalogTemplate>> createTemplate(@RequestBody CatalogTemplate template) {
+        CatalogTemplate created = catalogTemplateService.createTemplate(template);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new ApiResponse<>(true, "Catalog template created", created, null));
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<CatalogTemplate>>> getAllTemplates() {
+        List<CatalogTemplate> templates = catalogTemplateService.getAllTemplates();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Catalog templates retrieved", templates, null));
+    }
+
+    @PostMapping("/{code}/provision")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CatalogCopyResult>> provision(
+            @PathVariable String code,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        CatalogCopyResult result = catalogTemplateService.provision(code, tenantId);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new ApiResponse<>(true, "Catalog provisioned from template", result, null));
+    }
+
+    @PostMapping("/{code}/sync")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CatalogCopyResult>> sync(
+            @PathVariable String code,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        CatalogCopyResult result = catalogTemplateService.sync(code, tenantId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Catalog template changes applied", result, null));
+    }
+}
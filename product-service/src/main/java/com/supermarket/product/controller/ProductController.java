@@ -1,8 +1,12 @@
 package com.supermarket.product.controller;
 
 import com.supermarket.common.dto.ApiResponse;
+import com.supermarket.product.dto.FacetSearchResponse;
 import com.supermarket.product.dto.ProductRequest;
 import com.supermarket.product.dto.ProductResponse;
+import com.supermarket.product.facet.TenantFacetIndex;
+import com.supermarket.product.service.FacetSearchService;
+import com.supermarket.product.service.ProductBatchLoader;
 import com.supermarket.product.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
@@ -12,16 +16,24 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductBatchLoader productBatchLoader;
+    private final FacetSearchService facetSearchService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductBatchLoader productBatchLoader,
+                             FacetSearchService facetSearchService) {
         this.productService = productService;
+        this.productBatchLoader = productBatchLoader;
+        this.facetSearchService = facetSearchService;
     }
 
     @PostMapping
@@ -72,12 +84,34 @@ public class ProductController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Products retrieved successfully", products, null));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<FacetSearchResponse>> searchProducts(
+            @RequestParam(required = false) Set<String> brand,
+            @RequestParam(required = false) Set<String> category,
+            @RequestParam(required = false) Set<String> unit,
+            @RequestParam(required = false) Set<String> active,
+            @RequestParam(required = false) Set<String> priceBand,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        Map<String, Set<String>> filters = new HashMap<>();
+        putFilter(filters, TenantFacetIndex.BRAND, brand);
+        putFilter(filters, TenantFacetIndex.CATEGORY, category);
+        putFilter(filters, TenantFacetIndex.UNIT, unit);
+        putFilter(filters, TenantFacetIndex.ACTIVE, active);
+        putFilter(filters, TenantFacetIndex.PRICE_BAND, priceBand);
+
+        FacetSearchResponse response = facetSearchService.search(tenantId, filters, page, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Products retrieved successfully", response, null));
+    }
+
     @PostMapping("/batch")
     public ResponseEntity<ApiResponse<List<ProductResponse>>> getProductsByIds(
             @RequestBody List<Long> ids,
             @RequestHeader("X-Tenant-ID") String tenantId) {
         
-        List<ProductResponse> products = productService.getProductsByIds(ids, tenantId);
+        List<ProductResponse> products = productBatchLoader.getProductsByIds(ids, tenantId);
         return ResponseEntity.ok(new ApiResponse<>(true, "Products retrieved successfully", products, null));
     }
 
@@ -89,4 +123,10 @@ public class ProductController {
         productService.deleteProduct(id, tenantId);
         return ResponseEntity.ok(new ApiResponse<>(true, "Product deleted successfully", "Product deleted", null));
     }
+
+    private void putFilter(Map<String, Set<String>> filters, String facet, Set<String> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(facet, values);
+        }
+    }
 }
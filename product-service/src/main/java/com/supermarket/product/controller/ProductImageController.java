@@ -0,0 +1,120 @@
+package com.supermarket.product.controller;
+
+import com.supermarket.common.dto.ApiResponse;
+import com.supermarket.product.dto.ImageUploadResponse;
+import com.supermarket.product.service.CategoryService;
+import com.supermarket.product.service.ImageStorageService;
+import com.supermarket.product.service.ImageStorageService.StoredImage;
+import com.supermarket.product.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/products/images")
+public class ProductImageController {
+
+    private static final String IMMUTABLE_CACHE = "public, max-age=31536000, immutable";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ImageStorageService imageStorageService;
+    private final ProductService productService;
+    private final CategoryService categoryService;
+
+    public ProductImageController(ImageStorageService imageStorageService,
+                                  ProductService productService,
+                                  CategoryService categoryService) {
+        this.imageStorageService = imageStorageService;
+        this.productService = productService;
+        this.categoryService = categoryService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<ImageUploadResponse>> uploadImage(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long categoryId,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+
+        ImageUploadResponse response = imageStorageService.store(file);
+        if (productId != null) {
+            productService.updateImageUrl(productId, response.getOriginalUrl(), tenantId);
+        }
+        if (categoryId != null) {
+            categoryService.updateImageUrl(categoryId, response.getOriginalUrl(), tenantId);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new ApiResponse<>(true, "Image uploaded successfully", response, null));
+    }
+
+    @GetMapping("/{hash}")
+    public void getOriginal(@PathVariable String hash,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        serve(imageStorageService.findOriginal(hash), "\"" + hash + "\"", request, response);
+    }
+
+    @GetMapping("/{hash}/{size}")
+    public void getThumbnail(@PathVariable String hash,
+                             @PathVariable int size,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        serve(imageStorageService.findThumbnail(hash, size), "\"" + hash + "-" + size + "\"", request, response);
+    }
+
+    /**
+     * Streams the file without copying it through the heap: Tomcat's sendfile when the connector
+     * supports it, otherwise {@link FileChannel#transferTo} into the response channel.
+     */
+    private void serve(Optional<StoredImage> stored, String etag,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (stored.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        StoredImage image = stored.get();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE_CACHE);
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long length = Files.size(image.getPath());
+        response.setContentType(image.getContentType());
+        response.setContentLengthLong(length);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, image.getPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(image.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length) {
+                position += channel.transferTo(position, length - position, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.supermarket.product.dto;
+
+public class CatalogCopyResult {
+
+    private String templateCode;
+    private String tenantId;
+    private int categories;
+    private int products;
+    private int productUnits;
+    private int deactivatedProducts;
+    private long durationMs;
+
+    public String getTemplateCode() { return templateCode; }
+    public void setTemplateCode(String templateCode) { this.templateCode = templateCode; }
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+    public int getCategories() { return categories; }
+    public void setCategories(int categories) { this.categories = categories; }
+    public int getProducts() { return products; }
+    public void setProducts(int products) { this.products = products; }
+    public int getProductUnits() { return productUnits; }
+    public void setProductUnits(int productUnits) { this.productUnits = productUnits; }
+    public int getDeactivatedProducts() { return deactivatedProducts; }
+    public void setDeactivatedProducts(int deactivatedProducts) { this.deactivatedProducts = deactivatedProducts; }
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+}
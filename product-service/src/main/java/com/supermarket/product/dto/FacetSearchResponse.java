@@ -0,0 +1,24 @@
+package com.supermarket.product.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class FacetSearchResponse {
+
+    private List<ProductResponse> products;
+    private long totalElements;
+    private int page;
+    private int size;
+    private Map<String, Map<String, Long>> facets;
+
+    public List<ProductResponse> getProducts() { return products; }
+    public void setProducts(List<ProductResponse> products) { this.products = products; }
+    public long getTotalElements() { return totalElements; }
+    public void setTotalElements(long totalElements) { this.totalElements = totalElements; }
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public Map<String, Map<String, Long>> getFacets() { return facets; }
+    public void setFacets(Map<String, Map<String, Long>> facets) { this.facets = facets; }
+}
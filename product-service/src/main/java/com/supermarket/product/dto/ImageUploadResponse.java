@@ -0,0 +1,23 @@
+package com.supermarket.product.dto;
+
+import java.util.Map;
+
+public class ImageUploadResponse {
+
+    private String hash;
+    private String contentType;
+    private long size;
+    private String originalUrl;
+    private Map<Integer, String> thumbnailUrls;
+
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+    public String getOriginalUrl() { return originalUrl; }
+    public void setOriginalUrl(String originalUrl) { this.originalUrl = originalUrl; }
+    public Map<Integer, String> getThumbnailUrls() { return thumbnailUrls; }
+    public void setThumbnailUrls(Map<Integer, String> thumbnailUrls) { this.thumbnailUrls = thumbnailUrls; }
+}
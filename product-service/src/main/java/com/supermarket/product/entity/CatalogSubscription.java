@@ -0,0 +1,33 @@
+package com.supermarket.product.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "catalog_subscriptions", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_catalog_subscriptions_template_tenant", columnNames = {"template_id", "tenant_id"})
+})
+public class CatalogSubscription {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "template_id", nullable = false)
+    private CatalogTemplate template;
+
+    @Column(nullable = false)
+    private String tenantId;
+
+    @Column(nullable = false)
+    private boolean autoSync = true;
+
+    @Column(name = "provisioned_at")
+    private LocalDateTime provisionedAt;
+
+    @Column(name = "last_synced_at")
+    private LocalDateTime lastSyncedAt;
+}
@@ -7,7 +7,9 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_categories_tenant_code", columnNames = {"tenant_id", "code"})
+})
 public class Category {
 
     @Id
@@ -23,7 +25,7 @@ public class Category {
     @Column(length = 1000)
     private String description;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String code;
 
     @ManyToOne(fetch = FetchType.LAZY)
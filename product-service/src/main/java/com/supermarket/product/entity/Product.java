@@ -8,7 +8,9 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "products")
+@Table(name = "products", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_products_tenant_sku", columnNames = {"tenant_id", "sku"})
+})
 public class Product {
 
     @Id
@@ -24,7 +26,7 @@ public class Product {
     @Column(length = 1000)
     private String description;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String sku;
 
     @Column(nullable = false)
@@ -0,0 +1,33 @@
+package com.supermarket.product.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Records a deleted product so that template subscribers and the terminal catalogs of every
+ * instance can apply the deletion on their next sync.
+ */
+@Data
+@Entity
+@Table(name = "product_tombstones", indexes = {
+    @Index(name = "idx_product_tombstones_tenant_deleted", columnList = "tenant_id, deleted_at")
+})
+public class ProductTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String tenantId;
+
+    /** Null for tombstones written before the id was recorded. */
+    private Long productId;
+
+    @Column(nullable = false)
+    private String sku;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -7,7 +7,9 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "product_units")
+@Table(name = "product_units", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_product_units_product_unit_code", columnNames = {"product_id", "unit_code"})
+})
 public class ProductUnit {
 
     @Id
@@ -0,0 +1,27 @@
+package com.supermarket.product.event;
+
+/**
+ * Published in-process whenever a product is created, updated or deleted. A {@code null}
+ * product id means many products of the tenant changed at once, e.g. after a bulk copy.
+ */
+public class ProductChangedEvent {
+
+    private final String tenantId;
+    private final Long productId;
+    private final boolean deleted;
+
+    public ProductChangedEvent(String tenantId, Long productId, boolean deleted) {
+        this.tenantId = tenantId;
+        this.productId = productId;
+        this.deleted = deleted;
+    }
+
+    public static ProductChangedEvent tenantWide(String tenantId) {
+        return new ProductChangedEvent(tenantId, null, false);
+    }
+
+    public String getTenantId() { return tenantId; }
+    public Long getProductId() { return productId; }
+    public boolean isDeleted() { return deleted; }
+    public boolean isTenantWide() { return productId == null; }
+}
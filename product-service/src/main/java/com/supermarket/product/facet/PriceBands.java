@@ -0,0 +1,35 @@
+package com.supermarket.product.facet;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps a price in minor units to a band label such as {@code "5-10"} or {@code "50+"}.
+ */
+public class PriceBands {
+
+    private final long[] boundsMinor;
+    private final String[] labels;
+
+    public PriceBands(List<BigDecimal> bounds) {
+        BigDecimal[] sorted = bounds.stream().sorted().toArray(BigDecimal[]::new);
+        this.boundsMinor = Arrays.stream(sorted)
+                .mapToLong(bound -> bound.movePointRight(2).longValue())
+                .toArray();
+        this.labels = new String[sorted.length + 1];
+        BigDecimal lower = BigDecimal.ZERO;
+        for (int i = 0; i < sorted.length; i++) {
+            labels[i] = lower.stripTrailingZeros().toPlainString() + "-" + sorted[i].stripTrailingZeros().toPlainString();
+            lower = sorted[i];
+        }
+        labels[sorted.length] = lower.stripTrailingZeros().toPlainString() + "+";
+    }
+
+    public String label(long priceMinor) {
+        int index = Arrays.binarySearch(boundsMinor, priceMinor);
+        // A price equal to a bound belongs to the band that starts there
+        int band = index >= 0 ? index + 1 : -index - 1;
+        return labels[band];
+    }
+}
@@ -0,0 +1,204 @@
+package com.supermarket.product.facet;
+
+import com.supermarket.product.catalog.CatalogEntry;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Compressed bitmap indexes over the storefront facets of one tenant. Every product gets a dense
+ * ordinal and each facet value owns a bitmap of the ordinals that carry it. Values selected within
+ * a facet are OR-ed, facets are AND-ed together, and facet counts are computed against the
+ * selection of all other facets so a storefront can show how many products each option would yield.
+ *
+ * <p>Not thread-safe; {@link FacetSearchService} guards each index with a read/write lock.
+ */
+public class TenantFacetIndex {
+
+    public static final String BRAND = "brand";
+    public static final String CATEGORY = "category";
+    public static final String UNIT = "unit";
+    public static final String ACTIVE = "active";
+    public static final String PRICE_BAND = "priceBand";
+
+    public static final List<String> FACETS = List.of(BRAND, CATEGORY, UNIT, ACTIVE, PRICE_BAND);
+
+    private final PriceBands priceBands;
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<String, Map<String, RoaringBitmap>> bitmaps = new HashMap<>();
+    private final RoaringBitmap live = new RoaringBitmap();
+    private long[] productIds = new long[1024];
+    private String[][] values = new String[FACETS.size()][1024];
+    private int size;
+
+    public TenantFacetIndex(PriceBands priceBands) {
+        this.priceBands = priceBands;
+        for (String facet : FACETS) {
+            bitmaps.put(facet, new HashMap<>());
+        }
+    }
+
+    public void upsert(CatalogEntry entry) {
+        Integer existing = ordinals.get(entry.getProductId());
+        int ordinal;
+        if (existing != null) {
+            ordinal = existing;
+            clearValues(ordinal);
+        } else {
+            ordinal = size++;
+            ensureCapacity(size);
+            ordinals.put(entry.getProductId(), ordinal);
+            productIds[ordinal] = entry.getProductId();
+        }
+
+        setValue(0, ordinal, entry.getBrand());
+        setValue(1, ordinal, entry.getCategory());
+        setValue(2, ordinal, entry.getUnit());
+        setValue(3, ordinal, String.valueOf(entry.isActive()));
+        setValue(4, ordinal, priceBands.label(entry.getPriceMinor()));
+        live.add(ordinal);
+    }
+
+    public void remove(Long productId) {
+        Integer ordinal = ordinals.remove(productId);
+        if (ordinal != null) {
+            clearValues(ordinal);
+            live.remove(ordinal);
+        }
+    }
+
+    public void runOptimize() {
+        live.runOptimize();
+        for (Map<String, RoaringBitmap> facet : bitmaps.values()) {
+            facet.values().forEach(RoaringBitmap::runOptimize);
+        }
+    }
+
+    /** An offset at or past the number of matches gives an empty page with the full counts. */
+    public Result search(Map<String, Set<String>> filters, long offset, int limit) {
+        Map<String, RoaringBitmap> selections = new HashMap<>();
+        for (String facet : FACETS) {
+            Set<String> selected = filters.get(facet);
+            if (selected == null || selected.isEmpty()) {
+                continue;
+            }
+            Map<String, RoaringBitmap> facetBitmaps = bitmaps.get(facet);
+            List<RoaringBitmap> matching = new ArrayList<>(selected.size());
+            for (String value : selected) {
+                RoaringBitmap bitmap = facetBitmaps.get(value);
+                if (bitmap != null) {
+                    matching.add(bitmap);
+                }
+            }
+            selections.put(facet, RoaringBitmap.or(matching.iterator()));
+        }
+
+        RoaringBitmap matched = live.clone();
+        for (RoaringBitmap selection : selections.values()) {
+            matched.and(selection);
+        }
+
+        Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+        for (String facet : FACETS) {
+            RoaringBitmap base = live;
+            if (!selections.isEmpty()) {
+                base = live.clone();
+                for (Map.Entry<String, RoaringBitmap> selection : selections.entrySet()) {
+                    if (!selection.getKey().equals(facet)) {
+                        base.and(selection.getValue());
+                    }
+                }
+            }
+            Map<String, Long> facetCounts = new TreeMap<>();
+            for (Map.Entry<String, RoaringBitmap> value : bitmaps.get(facet).entrySet()) {
+                long count = RoaringBitmap.andCardinality(base, value.getValue());
+                if (count > 0) {
+                    facetCounts.put(value.getKey(), count);
+                }
+            }
+            counts.put(facet, facetCounts);
+        }
+
+        long total = matched.getLongCardinality();
+        List<Long> page = new ArrayList<>();
+        if (offset < total) {
+            PeekableIntIterator iterator = matched.getIntIterator();
+            // Below the cardinality of an int-keyed bitmap, so the cast is exact
+            iterator.advanceIfNeeded(matched.select((int) offset));
+            while (iterator.hasNext() && page.size() < limit) {
+                page.add(productIds[iterator.next()]);
+            }
+        }
+        return new Result(page, total, counts);
+    }
+
+    public int size() {
+        return live.getCardinality();
+    }
+
+    /**
+     * Ordinals of deleted products are not reused; once most of them are dead the index should be rebuilt.
+     */
+    public boolean needsCompaction() {
+        return size > 1024 && live.getCardinality() < size / 2;
+    }
+
+    private void setValue(int facetIndex, int ordinal, String value) {
+        if (value == null) {
+            return;
+        }
+        values[facetIndex][ordinal] = value;
+        bitmaps.get(FACETS.get(facetIndex)).computeIfAbsent(value, v -> new RoaringBitmap()).add(ordinal);
+    }
+
+    private void clearValues(int ordinal) {
+        for (int i = 0; i < FACETS.size(); i++) {
+            String previous = values[i][ordinal];
+            if (previous == null) {
+                continue;
+            }
+            Map<String, RoaringBitmap> facetBitmaps = bitmaps.get(FACETS.get(i));
+            RoaringBitmap bitmap = facetBitmaps.get(previous);
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                facetBitmaps.remove(previous);
+            }
+            values[i][ordinal] = null;
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > productIds.length) {
+            int capacity = Math.max(required, productIds.length * 2);
+            productIds = Arrays.copyOf(productIds, capacity);
+            for (int i = 0; i < values.length; i++) {
+                values[i] = Arrays.copyOf(values[i], capacity);
+            }
+        }
+    }
+
+    public static class Result {
+
+        private final List<Long> productIds;
+        private final long total;
+        private final Map<String, Map<String, Long>> facetCounts;
+
+        public Result(List<Long> productIds, long total, Map<String, Map<String, Long>> facetCounts) {
+            this.productIds = productIds;
+            this.total = total;
+            this.facetCounts = facetCounts;
+        }
+
+        public List<Long> getProductIds() { return productIds; }
+        public long getTotal() { return total; }
+        public Map<String, Map<String, Long>> getFacetCounts() { return facetCounts; }
+    }
+}
@@ -0,0 +1,87 @@
+package com.supermarket.product.repository;
+
+import com.supermarket.product.entity.CatalogTemplate;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Set-based copy of one tenant's catalog into another. Every statement upserts on the tenant-scoped
+ * natural keys (category code, product SKU, unit code), so the same statements provision a new
+ * tenant when {@code since} is the epoch and apply template deltas afterwards. Stock levels in the
+ * target tenant are never overwritten. Products deleted from the template are deactivated rather
+ * than deleted in the target, since the target may hold stock and sales history for them.
+ */
+@Repository
+public interface CatalogCopyRepository extends org.springframework.data.repository.Repository<CatalogTemplate, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO categories (tenant_id, name, description, code, level, image_url, active, " +
+                   "sort_order, created_at, updated_at) " +
+                   "SELECT :target, c.name, c.description, c.code, c.level, c.image_url, c.active, c.sort_order, now(), now() " +
+                   "FROM categories c WHERE c.tenant_id = :source AND (c.updated_at IS NULL OR c.updated_at > :since) " +
+                   "ON CONFLICT (tenant_id, code) DO UPDATE SET name = EXCLUDED.name, " +
+                   "description = EXCLUDED.description, level = EXCLUDED.level, image_url = EXCLUDED.image_url, " +
+                   "active = EXCLUDED.active, sort_order = EXCLUDED.sort_order, updated_at = now()",
+           nativeQuery = true)
+    int copyCategories(@Param("source") String source, @Param("target") String target, @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query(value = "UPDATE categories t SET parent_id = tp.id " +
+                   "FROM categories s " +
+                   "LEFT JOIN categories sp ON sp.id = s.parent_id " +
+                   "LEFT JOIN categories tp ON tp.tenant_id = :target AND tp.code = sp.code " +
+                   "WHERE s.tenant_id = :source AND t.tenant_id = :target AND t.code = s.code " +
+                   "AND t.parent_id IS DISTINCT FROM tp.id",
+           nativeQuery = true)
+    int remapCategoryParents(@Param("source") String source, @Param("target") String target);
+
+    @Modifying
+    @Query(value = "INSERT INTO products (tenant_id, name, description, sku, base_price, category_id, image_url, " +
+                   "active, brand, unit, weight, quantity, reserved_quantity, min_stock_level, max_stock_level, " +
+                   "reorder_level, barcode, created_at, updated_at) " +
+                   "SELECT :target, p.name, p.description, p.sku, p.base_price, tc.id, p.image_url, p.active, " +
+                   "p.brand, p.unit, p.weight, 0, 0, p.min_stock_level, p.max_stock_level, p.reorder_level, " +
+                   "p.barcode, now(), now() " +
+                   "FROM products p " +
+                   "LEFT JOIN categories sc ON sc.id = p.category_id " +
+                   "LEFT JOIN categories tc ON tc.tenant_id = :target AND tc.code = sc.code " +
+                   "WHERE p.tenant_id = :source AND (p.updated_at IS NULL OR p.updated_at > :since) " +
+                   "ON CONFLICT (tenant_id, sku) DO UPDATE SET name = EXCLUDED.name, " +
+                   "description = EXCLUDED.description, base_price = EXCLUDED.base_price, " +
+                   "category_id = EXCLUDED.category_id, image_url = EXCLUDED.image_url, active = EXCLUDED.active, " +
+                   "brand = EXCLUDED.brand, unit = EXCLUDED.unit, weight = EXCLUDED.weight, " +
+                   "barcode = EXCLUDED.barcode, updated_at = now()",
+           nativeQuery = true)
+    int copyProducts(@Param("source") String source, @Param("target") String target, @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query(value = "INSERT INTO product_units (tenant_id, product_id, unit_name, unit_code, conversion_rate, " +
+                   "selling_price, cost_price, min_stock_level, max_stock_level, reorder_level, is_base_unit, " +
+                   "is_active, barcode, created_at, updated_at) " +
+                   "SELECT :target, tp.id, u.unit_name, u.unit_code, u.conversion_rate, u.selling_price, " +
+                   "u.cost_price, u.min_stock_level, u.max_stock_level, u.reorder_level, u.is_base_unit, " +
+                   "u.is_active, u.barcode, now(), now() " +
+                   "FROM product_units u " +
+                   "JOIN products sp ON sp.id = u.product_id " +
+                   "JOIN products tp ON tp.tenant_id = :target AND tp.sku = sp.sku " +
+                   "WHERE u.tenant_id = :source AND (u.updated_at IS NULL OR u.updated_at > :since) " +
+                   "ON CONFLICT (product_id, unit_code) DO UPDATE SET unit_name = EXCLUDED.unit_name, " +
+                   "conversion_rate = EXCLUDED.conversion_rate, selling_price = EXCLUDED.selling_price, " +
+                   "cost_price = EXCLUDED.cost_price, is_base_unit = EXCLUDED.is_base_unit, " +
+                   "is_active = EXCLUDED.is_active, barcode = EXCLUDED.barcode, updated_at = now()",
+           nativeQuery = true)
+    int copyProductUnits(@Param("source") String source, @Param("target") String target, @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query(value = "UPDATE products t SET active = false, updated_at = now() " +
+                   "FROM product_tombstones d " +
+                   "WHERE d.tenant_id = :source AND d.deleted_at > :since " +
+                   "AND t.tenant_id = :target AND t.sku = d.sku AND t.active " +
+                   "AND NOT EXISTS (SELECT 1 FROM products s WHERE s.tenant_id = :source AND s.sku = d.sku)",
+           nativeQuery = true)
+    int deactivateDeletedProducts(@Param("source") String source, @Param("target") String target, @Param("since") LocalDateTime since);
+}
@@ -0,0 +1,18 @@
+package com.supermarket.product.repository;
+
+import com.supermarket.product.entity.CatalogSubscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CatalogSubscriptionRepository extends JpaRepository<CatalogSubscription, Long> {
+
+    Optional<CatalogSubscription> findByTemplateIdAndTenantId(Long templateId, String tenantId);
+
+    List<CatalogSubscription> findByTemplateId(Long templateId);
+
+    List<CatalogSubscription> findByAutoSyncTrue();
+}
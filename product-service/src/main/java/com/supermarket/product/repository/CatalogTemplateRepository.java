@@ -0,0 +1,18 @@
+package com.supermarket.product.repository;
+
+import com.supermarket.product.entity.CatalogTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CatalogTemplateRepository extends JpaRepository<CatalogTemplate, Long> {
+
+    Optional<CatalogTemplate> findByCode(String code);
+
+    List<CatalogTemplate> findByActiveTrue();
+
+    boolean existsByCode(String code);
+}
@@ -4,8 +4,12 @@ import com.supermarket.product.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,4 +29,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     boolean existsBySkuAndTenantId(String sku, String tenantId);
     
     List<Product> findByIdInAndTenantId(List<Long> ids, String tenantId);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.tenantId = :tenantId")
+    List<Product> findCatalogByTenantId(@Param("tenantId") String tenantId);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.tenantId = :tenantId " +
+           "AND p.updatedAt > :since")
+    List<Product> findCatalogChangedSince(@Param("tenantId") String tenantId, @Param("since") LocalDateTime since);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.tenantId = :tenantId AND p.id IN :ids")
+    List<Product> findCatalogByIds(@Param("tenantId") String tenantId, @Param("ids") Collection<Long> ids);
 }
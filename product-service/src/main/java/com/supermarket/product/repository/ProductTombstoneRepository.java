@@ -0,0 +1,18 @@
+package com.supermarket.product.repository;
+
+import com.supermarket.product.entity.ProductTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Long> {
+
+    @Query("SELECT t.productId FROM ProductTombstone t WHERE t.tenantId = :tenantId " +
+           "AND t.deletedAt > :since AND t.productId IS NOT NULL")
+    List<Long> findProductIdsDeletedSince(@Param("tenantId") String tenantId, @Param("since") LocalDateTime since);
+}
@@ -0,0 +1,288 @@
+package com.supermarket.product.service;
+
+import com.supermarket.product.catalog.BinaryCatalogFormat;
+import com.supermarket.product.catalog.BinaryCatalogWriter;
+import com.supermarket.product.catalog.CatalogEntry;
+import com.supermarket.product.entity.Product;
+import com.supermarket.product.event.ProductChangedEvent;
+import com.supermarket.product.repository.ProductRepository;
+import com.supermarket.product.repository.ProductTombstoneRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the binary terminal catalog per tenant and store. The first request for a tenant
+ * loads the full catalog; after that only products changed or deleted since the last sync are
+ * re-read and merged into the in-memory snapshot before the file is rewritten. Every loaded
+ * catalog polls that change feed, so changes made through other instances arrive within the
+ * refresh interval.
+ *
+ * <p>The version is a hash of the catalog content, so every instance serves the same ETag for
+ * the same catalog and a terminal only downloads again when something actually changed.
+ */
+@Service
+@Slf4j
+public class CatalogExportService {
+
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    /** Re-read rows updated slightly before the last sync to cover transactions that committed late. */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final ProductRepository productRepository;
+    private final ProductTombstoneRepository productTombstoneRepository;
+    private final Path exportDirectory;
+    private final Duration fullRebuildInterval;
+    private final Map<String, TenantCatalog> catalogs = new ConcurrentHashMap<>();
+
+    public CatalogExportService(
+            ProductRepository productRepository,
+            ProductTombstoneRepository productTombstoneRepository,
+            @Value("${catalog.export.directory:./data/catalog-export}") String exportDirectory,
+            @Value("${catalog.export.full-rebuild-interval:PT1H}") Duration fullRebuildInterval) {
+        this.productRepository = productRepository;
+        this.productTombstoneRepository = productTombstoneRepository;
+        this.exportDirectory = Paths.get(exportDirectory);
+        this.fullRebuildInterval = fullRebuildInterval;
+    }
+
+    /**
+     * Returns the current catalog file for the store, building or refreshing it first if needed.
+     * The file is opened before returning, so the caller streams exactly the content whose
+     * version it reports even if a refresh replaces the file meanwhile. Callers must close it.
+     */
+    public CatalogFile getCatalogFile(String tenantId, String storeId) {
+        validateId(tenantId, "tenant");
+        validateId(storeId, "store");
+
+        TenantCatalog catalog = catalogs.computeIfAbsent(tenantId, TenantCatalog::new);
+        synchronized (catalog) {
+            if (catalog.lastSyncedAt == null || catalog.dirty) {
+                sync(catalog);
+            }
+            catalog.stores.add(storeId);
+            if (catalog.writtenVersions.getOrDefault(storeId, -1L) != catalog.version) {
+                writeStore(catalog, storeId);
+            }
+            return openCatalogFile(fileFor(tenantId, storeId));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        TenantCatalog catalog = catalogs.get(event.getTenantId());
+        if (catalog == null) {
+            return;
+        }
+        synchronized (catalog) {
+            if (event.isDeleted() && !event.isTenantWide()) {
+                catalog.pendingDeletes.add(event.getProductId());
+            }
+            catalog.dirty = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.export.refresh-interval-ms:30000}")
+    public void refreshChangedCatalogs() {
+        for (TenantCatalog catalog : catalogs.values()) {
+            synchronized (catalog) {
+                if (catalog.lastSyncedAt == null) {
+                    continue;
+                }
+                try {
+                    sync(catalog);
+                    for (String storeId : catalog.stores) {
+                        if (catalog.writtenVersions.getOrDefault(storeId, -1L) != catalog.version) {
+                            writeStore(catalog, storeId);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Failed to refresh terminal catalog for tenant {}: {}", catalog.tenantId, e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private void sync(TenantCatalog catalog) {
+        LocalDateTime syncStartedAt = LocalDateTime.now();
+        boolean full = catalog.lastFullSyncAt == null
+                || catalog.lastFullSyncAt.plus(fullRebuildInterval).isBefore(syncStartedAt);
+
+        if (full) {
+            Map<Long, CatalogEntry> entries = new HashMap<>();
+            for (Product product : productRepository.findCatalogByTenantId(catalog.tenantId)) {
+                entries.put(product.getId(), CatalogEntry.from(product));
+            }
+            catalog.entries = entries;
+            catalog.lastFullSyncAt = syncStartedAt;
+        } else {
+            for (Long productId : catalog.pendingDeletes) {
+                catalog.entries.remove(productId);
+            }
+            LocalDateTime since = catalog.lastSyncedAt.minus(SYNC_OVERLAP);
+            // Deletions made through other instances only show up as tombstones
+            for (Long productId : productTombstoneRepository.findProductIdsDeletedSince(catalog.tenantId, since)) {
+                catalog.entries.remove(productId);
+            }
+            for (Product product : productRepository.findCatalogChangedSince(catalog.tenantId, since)) {
+                catalog.entries.put(product.getId(), CatalogEntry.from(product));
+            }
+        }
+
+        catalog.pendingDeletes.clear();
+        catalog.lastSyncedAt = syncStartedAt;
+        catalog.dirty = false;
+        catalog.version = contentVersion(catalog.entries);
+        log.debug("Synced terminal catalog for tenant {} (full={}, products={}, version={})",
+                catalog.tenantId, full, catalog.entries.size(), catalog.version);
+    }
+
+    /**
+     * SHA-256 of the entries in product id order, cut to a positive long. Depends only on the
+     * content and the file format, so every instance computes the same version.
+     */
+    private static long contentVersion(Map<Long, CatalogEntry> entries) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        List<CatalogEntry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(Comparator.comparingLong(CatalogEntry::getProductId));
+
+        ByteBuffer numbers = ByteBuffer.allocate(Long.BYTES * 2);
+        numbers.putLong(BinaryCatalogFormat.FORMAT_VERSION).putLong(sorted.size());
+        digest.update(numbers.array());
+        for (CatalogEntry entry : sorted) {
+            numbers.clear();
+            numbers.putLong(entry.getProductId()).putLong(entry.getPriceMinor());
+            digest.update(numbers.array());
+            update(digest, entry.getSku());
+            update(digest, entry.getName());
+            update(digest, entry.getBarcode());
+            update(digest, entry.getBrand());
+            update(digest, entry.getUnit());
+            update(digest, entry.getCategory());
+            digest.update((byte) (entry.isActive() ? 1 : 0));
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong() & Long.MAX_VALUE;
+    }
+
+    /** Length-prefixed, with -1 for null, so adjacent fields cannot run into each other. */
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(value != null ? bytes.length : -1).array());
+        digest.update(bytes);
+    }
+
+    private void writeStore(TenantCatalog catalog, String storeId) {
+        try {
+            BinaryCatalogWriter.write(fileFor(catalog.tenantId, storeId), storeId, catalog.version, catalog.entries.values());
+            catalog.writtenVersions.put(storeId, catalog.version);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write terminal catalog for store " + storeId, e);
+        }
+    }
+
+    private CatalogFile openCatalogFile(Path path) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(BinaryCatalogFormat.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // keep reading until the header is complete
+            }
+            if (header.hasRemaining() || header.getInt(0) != BinaryCatalogFormat.MAGIC) {
+                throw new IOException("Corrupt catalog header in " + path);
+            }
+            return new CatalogFile(channel, header.getLong(8), channel.size());
+        } catch (IOException e) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw new RuntimeException("Failed to open terminal catalog " + path, e);
+        }
+    }
+
+    private Path fileFor(String tenantId, String storeId) {
+        return exportDirectory.resolve(tenantId).resolve(storeId).resolve("catalog.bin");
+    }
+
+    private void validateId(String value, String name) {
+        if (value == null || !SAFE_ID.matcher(value).matches()) {
+            throw new RuntimeException("Invalid " + name + " id");
+        }
+    }
+
+    /**
+     * An open catalog file; the version comes from the file's own header.
+     */
+    public static class CatalogFile implements Closeable {
+
+        private final FileChannel channel;
+        private final long version;
+        private final long size;
+
+        public CatalogFile(FileChannel channel, long version, long size) {
+            this.channel = channel;
+            this.version = version;
+            this.size = size;
+        }
+
+        public FileChannel getChannel() { return channel; }
+        public long getVersion() { return version; }
+        public long getSize() { return size; }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static class TenantCatalog {
+
+        private final String tenantId;
+        private final Set<String> stores = ConcurrentHashMap.newKeySet();
+        private final Map<String, Long> writtenVersions = new HashMap<>();
+        private final Set<Long> pendingDeletes = ConcurrentHashMap.newKeySet();
+        private Map<Long, CatalogEntry> entries = new HashMap<>();
+        private LocalDateTime lastSyncedAt;
+        private LocalDateTime lastFullSyncAt;
+        private boolean dirty;
+        private long version;
+
+        TenantCatalog(String tenantId) {
+            this.tenantId = tenantId;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.supermarket.product.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Drops the global unique constraints on {@code products.sku} and {@code categories.code} that
+ * predate the tenant-scoped keys. {@code ddl-auto=update} adds the new constraints but never
+ * removes the old ones, which would otherwise keep a second tenant from holding the same SKU.
+ * Idempotent; only single-column unique constraints on exactly those columns are dropped.
+ */
+@Component
+@Slf4j
+public class CatalogKeyMigration {
+
+    private static final List<String[]> GLOBAL_KEYS = List.of(
+            new String[] {"products", "sku"},
+            new String[] {"categories", "code"});
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogKeyMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void dropGlobalUniqueKeys() {
+        for (String[] key : GLOBAL_KEYS) {
+            List<String> constraints = jdbcTemplate.queryForList(
+                    "SELECT con.conname FROM pg_constraint con " +
+                    "JOIN pg_class rel ON rel.oid = con.conrelid " +
+                    "JOIN pg_attribute att ON att.attrelid = rel.oid AND att.attnum = con.conkey[1] " +
+                    "WHERE con.contype = 'u' AND rel.relname = ? " +
+                    "AND rel.relnamespace = current_schema()::regnamespace " +
+                    "AND array_length(con.conkey, 1) = 1 AND att.attname = ?",
+                    String.class, key[0], key[1]);
+            for (String constraint : constraints) {
+                // Names come from the catalog and are quoted; the table name is from the fixed list above
+                jdbcTemplate.execute("ALTER TABLE " + key[0] + " DROP CONSTRAINT IF EXISTS \"" +
+                        constraint.replace("\"", "\"\"") + "\"");
+                log.info("Dropped global unique constraint {} on {}.{}", constraint, key[0], key[1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.supermarket.product.service;
+
+import com.supermarket.product.dto.CatalogCopyResult;
+import com.supermarket.product.entity.CatalogSubscription;
+import com.supermarket.product.entity.CatalogTemplate;
+import com.supermarket.product.event.ProductChangedEvent;
+import com.supermarket.product.repository.CatalogCopyRepository;
+import com.supermarket.product.repository.CatalogSubscriptionRepository;
+import com.supermarket.product.repository.CatalogTemplateRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Transactional
+public class CatalogTemplateService {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /** Re-copy rows updated slightly before the last sync to cover template edits that committed late. */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final CatalogTemplateRepository catalogTemplateRepository;
+    private final CatalogSubscriptionRepository catalogSubscriptionRepository;
+    private final CatalogCopyRepository catalogCopyRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CatalogTemplateService(CatalogTemplateRepository catalogTemplateRepository,
+                                  CatalogSubscriptionRepository catalogSubscriptionRepository,
+                                  CatalogCopyRepository catalogCopyRepository,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.catalogTemplateRepository = catalogTemplateRepository;
+        this.catalogSubscriptionRepository = catalogSubscriptionRepository;
+        this.catalogCopyRepository = catalogCopyRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public CatalogTemplate createTemplate(CatalogTemplate template) {
+        if (catalogTemplateRepository.existsByCode(template.getCode())) {
+            throw new RuntimeException("Catalog template with code " + template.getCode() + " already exists");
+        }
+        return catalogTemplateRepository.save(template);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CatalogTemplate> getAllTemplates() {
+        return catalogTemplateRepository.findAll();
+    }
+
+    /**
+     * Copies the template catalog into the tenant and subscribes the tenant to later template changes.
+     */
+    public CatalogCopyResult provision(String templateCode, String tenantId) {
+        CatalogTemplate template = getActiveTemplate(templateCode);
+
+        if (template.getSourceTenantId().equals(tenantId)) {
+            throw new RuntimeException("Cannot provision a template into its own source tenant");
+        }
+        if (catalogSubscriptionRepository.findByTemplateIdAndTenantId(template.getId(), tenantId).isPresent()) {
+            throw new RuntimeException("Tenant is already provisioned from template " + templateCode);
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        CatalogCopyResult result = copy(template, tenantId, BEGINNING);
+
+        CatalogSubscription subscription = new CatalogSubscription();
+        subscription.setTemplate(template);
+        subscription.setTenantId(tenantId);
+        subscription.setProvisionedAt(startedAt);
+        subscription.setLastSyncedAt(startedAt);
+        catalogSubscriptionRepository.save(subscription);
+
+        return result;
+    }
+
+    /**
+     * Applies template rows changed since the subscription's last sync.
+     */
+    public CatalogCopyResult sync(Long subscriptionId) {
+        CatalogSubscription subscription = catalogSubscriptionRepository.findById(subscriptionId)
+                .orElseThrow(() -> new RuntimeException("Catalog subscription not found"));
+        CatalogTemplate template = subscription.getTemplate();
+        if (!template.isActive()) {
+            throw new RuntimeException("Catalog template " + template.getCode() + " is inactive");
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        CatalogCopyResult result = copy(template, subscription.getTenantId(),
+                subscription.getLastSyncedAt().minus(SYNC_OVERLAP));
+
+        subscription.setLastSyncedAt(startedAt);
+        catalogSubscriptionRepository.save(subscription);
+        return result;
+    }
+
+    public CatalogCopyResult sync(String templateCode, String tenantId) {
+        CatalogTemplate template = getActiveTemplate(templateCode);
+        CatalogSubscription subscription = catalogSubscriptionRepository.findByTemplateIdAndTenantId(template.getId(), tenantId)
+                .orElseThrow(() -> new RuntimeException("Tenant is not subscribed to template " + templateCode));
+        return sync(subscription.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> getAutoSyncSubscriptionIds() {
+        return catalogSubscriptionRepository.findByAutoSyncTrue().stream()
+                .map(CatalogSubscription::getId)
+                .toList();
+    }
+
+    private CatalogCopyResult copy(CatalogTemplate template, String tenantId, LocalDateTime since) {
+        long start = System.nanoTime();
+        String source = template.getSourceTenantId();
+
+        CatalogCopyResult result = new CatalogCopyResult();
+        result.setTemplateCode(template.getCode());
+        result.setTenantId(tenantId);
+        result.setCategories(catalogCopyRepository.copyCategories(source, tenantId, since));
+        if (result.getCategories() > 0) {
+            catalogCopyRepository.remapCategoryParents(source, tenantId);
+        }
+        result.setProducts(catalogCopyRepository.copyProducts(source, tenantId, since));
+        result.setProductUnits(catalogCopyRepository.copyProductUnits(source, tenantId, since));
+        result.setDeactivatedProducts(catalogCopyRepository.deactivateDeletedProducts(source, tenantId, since));
+        result.setDurationMs((System.nanoTime() - start) / 1_000_000);
+
+        if (result.getCategories() > 0 || result.getProducts() > 0 || result.getProductUnits() > 0
+                || result.getDeactivatedProducts() > 0) {
+            eventPublisher.publishEvent(ProductChangedEvent.tenantWide(tenantId));
+        }
+        return result;
+    }
+
+    private CatalogTemplate getActiveTemplate(String templateCode) {
+        CatalogTemplate template = catalogTemplateRepository.findByCode(templateCode)
+                .orElseThrow(() -> new RuntimeException("Catalog template not found"));
+        if (!template.isActive()) {
+            throw new RuntimeException("Catalog template " + templateCode + " is inactive");
+        }
+        return template;
+    }
+}
@@ -0,0 +1,37 @@
+package com.supermarket.product.service;
+
+import com.supermarket.product.dto.CatalogCopyResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pushes template deltas to auto-sync subscribers, one transaction per subscription so a failing
+ * tenant does not hold back the others.
+ */
+@Component
+@Slf4j
+public class CatalogTemplateSyncJob {
+
+    private final CatalogTemplateService catalogTemplateService;
+
+    public CatalogTemplateSyncJob(CatalogTemplateService catalogTemplateService) {
+        this.catalogTemplateService = catalogTemplateService;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.templates.sync-interval-ms:300000}")
+    public void syncSubscriptions() {
+        for (Long subscriptionId : catalogTemplateService.getAutoSyncSubscriptionIds()) {
+            try {
+                CatalogCopyResult result = catalogTemplateService.sync(subscriptionId);
+                if (result.getProducts() > 0 || result.getCategories() > 0 || result.getProductUnits() > 0) {
+                    log.info("Synced template {} to tenant {}: {} categories, {} products, {} units in {} ms",
+                            result.getTemplateCode(), result.getTenantId(), result.getCategories(),
+                            result.getProducts(), result.getProductUnits(), result.getDurationMs());
+                }
+            } catch (RuntimeException e) {
+                log.error("Catalog template sync failed for subscription {}: {}", subscriptionId, e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -62,6 +62,18 @@ public class CategoryService {
         return categoryRepository.save(existing);
     }
 
+    public Category updateImageUrl(Long id, String imageUrl, String tenantId) {
+        Category existing = categoryRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Category not found"));
+
+        if (!existing.getTenantId().equals(tenantId)) {
+            throw new RuntimeException("Unauthorized access to category");
+        }
+
+        existing.setImageUrl(imageUrl);
+        return categoryRepository.save(existing);
+    }
+
     @Transactional(readOnly = true)
     public Category getCategoryById(Long id, String tenantId) {
         Category category = categoryRepository.findById(id)
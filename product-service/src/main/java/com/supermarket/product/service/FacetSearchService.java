@@ -0,0 +1,210 @@
+package com.supermarket.product.service;
+
+import com.supermarket.product.catalog.CatalogEntry;
+import com.supermarket.product.dto.FacetSearchResponse;
+import com.supermarket.product.dto.ProductResponse;
+import com.supermarket.product.entity.Product;
+import com.supermarket.product.event.ProductChangedEvent;
+import com.supermarket.product.facet.PriceBands;
+import com.supermarket.product.facet.TenantFacetIndex;
+import com.supermarket.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Serves storefront faceted search from per-tenant bitmap indexes instead of one query per
+ * filter combination. Indexes are built on first use and kept current from product change events.
+ * Events only cover writes made by this instance, so each index also polls for rows updated
+ * elsewhere and is rebuilt periodically to drop products deleted by other instances.
+ */
+@Service
+@Slf4j
+public class FacetSearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /** Re-read rows updated slightly before the last poll to cover transactions that committed late. */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final PriceBands priceBands;
+    private final Duration fullRebuildInterval;
+    private final Map<String, IndexHolder> indexes = new ConcurrentHashMap<>();
+
+    public FacetSearchService(
+            ProductRepository productRepository,
+            ProductService productService,
+            @Value("${product.facets.price-bands:1,5,10,20,50,100}") List<BigDecimal> priceBands,
+            @Value("${product.facets.full-rebuild-interval:PT1H}") Duration fullRebuildInterval) {
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.priceBands = new PriceBands(priceBands);
+        this.fullRebuildInterval = fullRebuildInterval;
+    }
+
+    public FacetSearchResponse search(String tenantId, Map<String, Set<String>> filters, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Long, so a huge page number means an empty page rather than an overflowed, negative offset
+        long offset = (long) Math.max(0, page) * pageSize;
+
+        IndexHolder holder = indexes.computeIfAbsent(tenantId, t -> new IndexHolder());
+        refresh(tenantId, holder);
+
+        TenantFacetIndex.Result result;
+        holder.lock.readLock().lock();
+        try {
+            result = holder.index.search(filters, offset, pageSize);
+        } finally {
+            holder.lock.readLock().unlock();
+        }
+
+        Map<Long, ProductResponse> loaded = new HashMap<>();
+        if (!result.getProductIds().isEmpty()) {
+            for (ProductResponse product : productService.getProductsByIds(result.getProductIds(), tenantId)) {
+                loaded.put(product.getId(), product);
+            }
+        }
+        List<ProductResponse> products = new ArrayList<>(result.getProductIds().size());
+        for (Long id : result.getProductIds()) {
+            ProductResponse product = loaded.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+
+        FacetSearchResponse response = new FacetSearchResponse();
+        response.setProducts(products);
+        response.setTotalElements(result.getTotal());
+        response.setPage(Math.max(0, page));
+        response.setSize(pageSize);
+        response.setFacets(result.getFacetCounts());
+        return response;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isTenantWide()) {
+            indexes.remove(event.getTenantId());
+            return;
+        }
+        IndexHolder holder = indexes.get(event.getTenantId());
+        if (holder != null) {
+            holder.pending.put(event.getProductId(), event.isDeleted());
+        }
+    }
+
+    /**
+     * Picks up products written by other instances, which never reach {@link #onProductChanged}.
+     */
+    @Scheduled(fixedDelayString = "${product.facets.refresh-interval-ms:30000}")
+    public void pollChanges() {
+        for (Map.Entry<String, IndexHolder> entry : indexes.entrySet()) {
+            String tenantId = entry.getKey();
+            IndexHolder holder = entry.getValue();
+            if (holder.index == null) {
+                continue;
+            }
+            try {
+                if (holder.builtAt.plus(fullRebuildInterval).isBefore(LocalDateTime.now())) {
+                    holder.lock.writeLock().lock();
+                    try {
+                        rebuild(tenantId, holder);
+                    } finally {
+                        holder.lock.writeLock().unlock();
+                    }
+                    continue;
+                }
+                LocalDateTime pollStartedAt = LocalDateTime.now();
+                List<Product> changed = productRepository.findCatalogChangedSince(
+                        tenantId, holder.lastPolledAt.minus(SYNC_OVERLAP));
+                holder.lock.writeLock().lock();
+                try {
+                    for (Product product : changed) {
+                        holder.index.upsert(CatalogEntry.from(product));
+                    }
+                    holder.lastPolledAt = pollStartedAt;
+                } finally {
+                    holder.lock.writeLock().unlock();
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to refresh facet index for tenant {}: {}", tenantId, e.getMessage(), e);
+            }
+        }
+    }
+
+    private void refresh(String tenantId, IndexHolder holder) {
+        if (holder.index != null && holder.pending.isEmpty() && !holder.index.needsCompaction()) {
+            return;
+        }
+        holder.lock.writeLock().lock();
+        try {
+            if (holder.index == null || holder.index.needsCompaction()) {
+                rebuild(tenantId, holder);
+                return;
+            }
+
+            Set<Long> changed = new HashSet<>();
+            for (Long productId : new ArrayList<>(holder.pending.keySet())) {
+                Boolean deleted = holder.pending.remove(productId);
+                if (Boolean.TRUE.equals(deleted)) {
+                    holder.index.remove(productId);
+                } else if (deleted != null) {
+                    changed.add(productId);
+                }
+            }
+            if (!changed.isEmpty()) {
+                for (Product product : productRepository.findCatalogByIds(tenantId, changed)) {
+                    holder.index.upsert(CatalogEntry.from(product));
+                    changed.remove(product.getId());
+                }
+                // Anything not found was deleted by another instance
+                changed.forEach(holder.index::remove);
+            }
+        } finally {
+            holder.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Caller must hold the write lock.
+     */
+    private void rebuild(String tenantId, IndexHolder holder) {
+        // Clear first so changes committed while the full load runs are applied on the next refresh
+        holder.pending.clear();
+        LocalDateTime startedAt = LocalDateTime.now();
+        TenantFacetIndex index = new TenantFacetIndex(priceBands);
+        for (Product product : productRepository.findCatalogByTenantId(tenantId)) {
+            index.upsert(CatalogEntry.from(product));
+        }
+        index.runOptimize();
+        holder.builtAt = startedAt;
+        holder.lastPolledAt = startedAt;
+        holder.index = index;
+        log.debug("Built facet index for tenant {} with {} products", tenantId, index.size());
+    }
+
+    private static class IndexHolder {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Boolean> pending = new ConcurrentHashMap<>();
+        private volatile TenantFacetIndex index;
+        private volatile LocalDateTime builtAt;
+        private volatile LocalDateTime lastPolledAt;
+    }
+}
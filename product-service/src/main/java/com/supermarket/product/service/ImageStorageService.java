@@ -0,0 +1,293 @@
+package com.supermarket.product.service;
+
+import com.supermarket.product.dto.ImageUploadResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image store on local disk. Originals are keyed by their SHA-256 so identical
+ * uploads share one file and URLs never change meaning, which lets them be cached as immutable.
+ * Thumbnails are rendered in a background pool after upload, or on first request if not ready yet.
+ * The type is taken from the file's magic bytes rather than the client's header, and image
+ * dimensions are checked from the header before anything is decoded.
+ */
+@Service
+@Slf4j
+public class ImageStorageService {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", "jpg",
+            "image/png", "png",
+            "image/gif", "gif");
+
+    private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] GIF87_MAGIC = {'G', 'I', 'F', '8', '7', 'a'};
+    private static final byte[] GIF89_MAGIC = {'G', 'I', 'F', '8', '9', 'a'};
+
+    private final Path originalsDirectory;
+    private final Path thumbnailsDirectory;
+    private final List<Integer> thumbnailSizes;
+    private final int maxDimension;
+    private final long maxPixels;
+    private final ExecutorService thumbnailPool;
+
+    public ImageStorageService(
+            @Value("${product.images.directory:./data/images}") String directory,
+            @Value("${product.images.thumbnail-sizes:64,256,512}") List<Integer> thumbnailSizes,
+            @Value("${product.images.thumbnail-workers:2}") int thumbnailWorkers,
+            @Value("${product.images.max-dimension:8000}") int maxDimension,
+            @Value("${product.images.max-pixels:40000000}") long maxPixels) {
+        Path root = Paths.get(directory);
+        this.originalsDirectory = root.resolve("originals");
+        this.thumbnailsDirectory = root.resolve("thumbnails");
+        this.thumbnailSizes = List.copyOf(thumbnailSizes);
+        this.maxDimension = maxDimension;
+        this.maxPixels = maxPixels;
+        this.thumbnailPool = Executors.newFixedThreadPool(thumbnailWorkers, r -> {
+            Thread thread = new Thread(r, "image-thumbnailer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ImageUploadResponse store(MultipartFile file) {
+        String hash;
+        String contentType;
+        try {
+            Files.createDirectories(originalsDirectory);
+            Path temp = Files.createTempFile(originalsDirectory, "upload", ".tmp");
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                try (InputStream in = new DigestInputStream(file.getInputStream(), digest);
+                     OutputStream out = Files.newOutputStream(temp)) {
+                    in.transferTo(out);
+                }
+                hash = HexFormat.of().formatHex(digest.digest());
+                contentType = sniffContentType(temp);
+                if (contentType == null) {
+                    throw new RuntimeException("Unsupported image type");
+                }
+                checkDimensions(temp);
+                Path target = originalPath(hash, EXTENSIONS.get(contentType));
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to store image", e);
+        }
+
+        for (Integer size : thumbnailSizes) {
+            thumbnailPool.execute(() -> {
+                try {
+                    renderThumbnail(hash, size);
+                } catch (RuntimeException e) {
+                    log.warn("Thumbnail {} for image {} failed: {}", size, hash, e.getMessage());
+                }
+            });
+        }
+
+        ImageUploadResponse response = new ImageUploadResponse();
+        response.setHash(hash);
+        response.setContentType(contentType);
+        response.setSize(file.getSize());
+        response.setOriginalUrl(originalUrl(hash));
+        Map<Integer, String> thumbnailUrls = new LinkedHashMap<>();
+        for (Integer size : thumbnailSizes) {
+            thumbnailUrls.put(size, originalUrl(hash) + "/" + size);
+        }
+        response.setThumbnailUrls(thumbnailUrls);
+        return response;
+    }
+
+    public Optional<StoredImage> findOriginal(String hash) {
+        if (!HASH.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        for (Map.Entry<String, String> type : EXTENSIONS.entrySet()) {
+            Path path = originalPath(hash, type.getValue());
+            if (Files.isRegularFile(path)) {
+                return Optional.of(new StoredImage(path, type.getKey()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Optional<StoredImage> findThumbnail(String hash, int size) {
+        if (!HASH.matcher(hash).matches() || !thumbnailSizes.contains(size)) {
+            return Optional.empty();
+        }
+        Path path = thumbnailPath(hash, size);
+        if (!Files.isRegularFile(path) && !renderThumbnail(hash, size)) {
+            return Optional.empty();
+        }
+        return Optional.of(new StoredImage(path, "image/jpeg"));
+    }
+
+    public String originalUrl(String hash) {
+        return "/api/products/images/" + hash;
+    }
+
+    /**
+     * Renders a JPEG thumbnail bounded by {@code size} on its longest side. Idempotent: concurrent
+     * calls for the same image write to separate temp files and the last atomic move wins.
+     */
+    private boolean renderThumbnail(String hash, int size) {
+        Path target = thumbnailPath(hash, size);
+        if (Files.isRegularFile(target)) {
+            return true;
+        }
+        Optional<StoredImage> original = findOriginal(hash);
+        if (original.isEmpty()) {
+            return false;
+        }
+        try {
+            // Originals stored before dimension checks existed are re-checked here
+            checkDimensions(original.get().getPath());
+            BufferedImage source = ImageIO.read(original.get().getPath().toFile());
+            if (source == null) {
+                throw new RuntimeException("Unreadable image " + hash);
+            }
+            double scale = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+            int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+            BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = thumbnail.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.drawImage(source, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            try {
+                ImageIO.write(thumbnail, "jpg", temp.toFile());
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return true;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to render thumbnail for image " + hash, e);
+        }
+    }
+
+    /**
+     * Returns the content type implied by the file's leading bytes, or null if it is not a supported image.
+     */
+    private String sniffContentType(Path path) throws IOException {
+        byte[] head = new byte[8];
+        int read;
+        try (InputStream in = Files.newInputStream(path)) {
+            read = in.readNBytes(head, 0, head.length);
+        }
+        if (startsWith(head, read, JPEG_MAGIC)) {
+            return "image/jpeg";
+        }
+        if (startsWith(head, read, PNG_MAGIC)) {
+            return "image/png";
+        }
+        if (startsWith(head, read, GIF87_MAGIC) || startsWith(head, read, GIF89_MAGIC)) {
+            return "image/gif";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, int length, byte[] magic) {
+        return length >= magic.length && Arrays.equals(head, 0, magic.length, magic, 0, magic.length);
+    }
+
+    /**
+     * Reads only the image header, so a small file declaring huge dimensions is rejected before
+     * decoding allocates the full raster.
+     */
+    private void checkDimensions(Path path) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new RuntimeException("Unreadable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= 0 || height <= 0 || width > maxDimension || height > maxDimension
+                        || (long) width * height > maxPixels) {
+                    throw new RuntimeException("Image dimensions " + width + "x" + height + " exceed the allowed size");
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private Path originalPath(String hash, String extension) {
+        return originalsDirectory.resolve(hash.substring(0, 2)).resolve(hash + "." + extension);
+    }
+
+    private Path thumbnailPath(String hash, int size) {
+        return thumbnailsDirectory.resolve(String.valueOf(size)).resolve(hash.substring(0, 2)).resolve(hash + ".jpg");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        thumbnailPool.shutdown();
+    }
+
+    public static class StoredImage {
+
+        private final Path path;
+        private final String contentType;
+
+        public StoredImage(Path path, String contentType) {
+            this.path = path;
+            this.contentType = contentType;
+        }
+
+        public Path getPath() { return path; }
+        public String getContentType() { return contentType; }
+    }
+}
@@ -0,0 +1,207 @@
+package com.supermarket.product.service;
+
+import com.supermarket.product.dto.ProductResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces concurrent batch lookups per tenant. Requests arriving within a short window share
+ * one deduplicated id set, which is loaded in fixed-size IN chunks and fanned back out so that
+ * each caller receives only the products it asked for.
+ */
+@Component
+@Slf4j
+public class ProductBatchLoader {
+
+    private final ProductService productService;
+    private final long windowMicros;
+    private final int maxBatchSize;
+    private final int chunkSize;
+    private final long timeoutMs;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService workers;
+    private final Map<String, PendingBatch> pending = new ConcurrentHashMap<>();
+
+    public ProductBatchLoader(
+            ProductService productService,
+            @Value("${product.batch-loader.window-micros:2000}") long windowMicros,
+            @Value("${product.batch-loader.max-batch-size:2000}") int maxBatchSize,
+            @Value("${product.batch-loader.chunk-size:500}") int chunkSize,
+            @Value("${product.batch-loader.timeout-ms:5000}") long timeoutMs,
+            @Value("${product.batch-loader.workers:4}") int workers) {
+        this.productService = productService;
+        this.windowMicros = windowMicros;
+        this.maxBatchSize = maxBatchSize;
+        this.chunkSize = chunkSize;
+        this.timeoutMs = timeoutMs;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "product-batch-timer"));
+        this.workers = Executors.newFixedThreadPool(workers, r -> daemon(r, "product-batch-loader"));
+    }
+
+    public List<ProductResponse> getProductsByIds(List<Long> ids, String tenantId) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return load(ids, tenantId).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Product batch lookup failed", cause);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Product batch lookup timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Product batch lookup interrupted", e);
+        }
+    }
+
+    public CompletableFuture<List<ProductResponse>> load(List<Long> ids, String tenantId) {
+        Waiter waiter = new Waiter(ids);
+        while (true) {
+            PendingBatch batch = pending.computeIfAbsent(tenantId, PendingBatch::new);
+            if (batch.markScheduled()) {
+                // Scheduled only once the batch is visible in the map, so the timer can always remove it
+                scheduleFlush(batch);
+            }
+            if (batch.add(waiter)) {
+                if (batch.size() >= maxBatchSize && pending.remove(tenantId, batch)) {
+                    workers.execute(() -> flush(batch));
+                }
+                return waiter.future;
+            }
+            // The batch closed between lookup and add; retry against a fresh one
+            pending.remove(tenantId, batch);
+        }
+    }
+
+    private void scheduleFlush(PendingBatch batch) {
+        timer.schedule(() -> {
+            pending.remove(batch.tenantId, batch);
+            workers.execute(() -> flush(batch));
+        }, windowMicros, TimeUnit.MICROSECONDS);
+    }
+
+    private void flush(PendingBatch batch) {
+        List<Waiter> waiters = batch.close();
+        if (waiters == null) {
+            // Already flushed because it reached the size limit
+            return;
+        }
+        List<Long> ids = new ArrayList<>(batch.ids);
+
+        Map<Long, ProductResponse> loaded = new HashMap<>(ids.size() * 2);
+        try {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                for (ProductResponse product : productService.getProductsByIds(chunk, batch.tenantId)) {
+                    loaded.put(product.getId(), product);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Product batch lookup failed for tenant {}: {}", batch.tenantId, e.getMessage(), e);
+            waiters.forEach(waiter -> waiter.future.completeExceptionally(e));
+            return;
+        }
+
+        log.debug("Coalesced {} lookups into {} ids for tenant {}", waiters.size(), ids.size(), batch.tenantId);
+        for (Waiter waiter : waiters) {
+            List<ProductResponse> result = new ArrayList<>(waiter.ids.size());
+            for (Long id : waiter.ids) {
+                ProductResponse product = loaded.get(id);
+                if (product != null) {
+                    result.add(product);
+                }
+            }
+            waiter.future.complete(result);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdown();
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static class Waiter {
+
+        private final Set<Long> ids;
+        private final CompletableFuture<List<ProductResponse>> future = new CompletableFuture<>();
+
+        Waiter(List<Long> ids) {
+            this.ids = new LinkedHashSet<>(ids);
+            this.ids.remove(null);
+        }
+    }
+
+    private static class PendingBatch {
+
+        private final String tenantId;
+        private final Set<Long> ids = new LinkedHashSet<>();
+        private final List<Waiter> waiters = new ArrayList<>();
+        private boolean closed;
+        private boolean scheduled;
+
+        PendingBatch(String tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        synchronized boolean add(Waiter waiter) {
+            if (closed) {
+                return false;
+            }
+            waiters.add(waiter);
+            ids.addAll(waiter.ids);
+            return true;
+        }
+
+        synchronized int size() {
+            return ids.size();
+        }
+
+        synchronized boolean markScheduled() {
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+
+        /**
+         * Closes the batch and returns its waiters, or null if it was already closed.
+         */
+        synchronized List<Waiter> close() {
+            if (closed) {
+                return null;
+            }
+            closed = true;
+            return waiters;
+        }
+    }
+}
@@ -3,12 +3,17 @@ package com.supermarket.product.service;
 import com.supermarket.product.dto.ProductRequest;
 import com.supermarket.product.dto.ProductResponse;
 import com.supermarket.product.entity.Product;
+import com.supermarket.product.entity.ProductTombstone;
+import com.supermarket.product.event.ProductChangedEvent;
 import com.supermarket.product.repository.ProductRepository;
+import com.supermarket.product.repository.ProductTombstoneRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,9 +22,15 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductTombstoneRepository productTombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ProductTombstoneRepository productTombstoneRepository,
+                          ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.productTombstoneRepository = productTombstoneRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public ProductResponse createProduct(ProductRequest request, String tenantId) {
@@ -41,6 +52,7 @@ public class ProductService {
         product.setActive(request.isActive());
 
         Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, saved.getId(), false));
         return mapToResponse(saved);
     }
 
@@ -63,6 +75,21 @@ public class ProductService {
         product.setActive(request.isActive());
 
         Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, saved.getId(), false));
+        return mapToResponse(saved);
+    }
+
+    public ProductResponse updateImageUrl(Long id, String imageUrl, String tenantId) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+
+        if (!product.getTenantId().equals(tenantId)) {
+            throw new RuntimeException("Unauthorized access to product");
+        }
+
+        product.setImageUrl(imageUrl);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, saved.getId(), false));
         return mapToResponse(saved);
     }
 
@@ -107,6 +134,15 @@ public class ProductService {
         }
 
         productRepository.delete(product);
+
+        ProductTombstone tombstone = new ProductTombstone();
+        tombstone.setTenantId(tenantId);
+        tombstone.setProductId(id);
+        tombstone.setSku(product.getSku());
+        tombstone.setDeletedAt(LocalDateTime.now());
+        productTombstoneRepository.save(tombstone);
+
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, id, true));
     }
 
     private ProductResponse mapToResponse(Product product) {
@@ -1,11 +1,15 @@
 package com.supermarket.tenant;
 
+import com.supermarket.common.util.NodeIdLease;
+import com.supermarket.common.util.UniqueIdGenerator;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@Import({UniqueIdGenerator.class, NodeIdLease.class})
 public class TenantApplication {
 
     public static void main(String[] args) {
@@ -1,25 +1,27 @@
 package com.supermarket.tenant.service;
 
+import com.supermarket.common.util.UniqueIdGenerator;
 import com.supermarket.tenant.entity.Tenant;
 import com.supermarket.tenant.repository.TenantRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.UUID;
 
 @Service
 @Transactional
 public class TenantService {
 
     private final TenantRepository tenantRepository;
+    private final UniqueIdGenerator idGenerator;
 
-    public TenantService(TenantRepository tenantRepository) {
+    public TenantService(TenantRepository tenantRepository, UniqueIdGenerator idGenerator) {
         this.tenantRepository = tenantRepository;
+        this.idGenerator = idGenerator;
     }
 
     public Tenant createTenant(Tenant tenant) {
-        tenant.setTenantId(UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        tenant.setTenantId(UniqueIdGenerator.encode(idGenerator.nextId()));
         tenant.setStatus("ACTIVE");
         return tenantRepository.save(tenant);
     }